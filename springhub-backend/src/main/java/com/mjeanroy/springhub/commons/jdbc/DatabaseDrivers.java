@@ -0,0 +1,57 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+/**
+ * Detection of database driver name.
+ * Detection uses a short-lived connection, and result is cached for each data source,
+ * so database is queried at most once per data source.
+ */
+public final class DatabaseDrivers {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(DatabaseDrivers.class);
+
+	/** Driver names, indexed by data source (data sources are weakly referenced). */
+	private static final Map<DataSource, String> DRIVERS = Collections.synchronizedMap(new WeakHashMap<DataSource, String>());
+
+	private DatabaseDrivers() {
+	}
+
+	/**
+	 * Get driver name of given data source.
+	 *
+	 * @param dataSource Data source.
+	 * @return Driver name, null if it cannot be detected.
+	 */
+	public static String name(DataSource dataSource) {
+		String name = DRIVERS.get(dataSource);
+		if (name == null) {
+			name = detect(dataSource);
+			if (name != null) {
+				DRIVERS.put(dataSource, name);
+			}
+		}
+		return name;
+	}
+
+	private static String detect(DataSource dataSource) {
+		log.debug("Detect driver name of data source {}", dataSource);
+		try {
+			return (String) JdbcUtils.extractDatabaseMetaData(dataSource, "getDriverName");
+		}
+		catch (MetaDataAccessException ex) {
+			log.warn("Unable to retrieve database driver name");
+			log.warn(ex.getMessage());
+			return null;
+		}
+	}
+}
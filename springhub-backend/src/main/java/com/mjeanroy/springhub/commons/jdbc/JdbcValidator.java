@@ -0,0 +1,30 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.tomcat.jdbc.pool.Validator;
+
+/**
+ * Pool validator using JDBC4 connection validation, used when
+ * no validation query is configured.
+ */
+final class JdbcValidator implements Validator {
+
+	/** Timeout of validation, in seconds. */
+	private final int timeout;
+
+	JdbcValidator(int timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public boolean validate(Connection connection, int validateAction) {
+		try {
+			return connection.isValid(timeout);
+		}
+		catch (SQLException ex) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live metrics of a {@link PooledDataSource}.
+ *
+ * Gauges (active, idle, waiting connections) are read from the pool when requested, counters
+ * (acquisitions, wait time, timeouts) are incremented each time a connection is borrowed.
+ */
+public class PoolMetrics {
+
+	/** Monitored pool. */
+	private final PooledDataSource dataSource;
+
+	/** Number of connections borrowed from the pool. */
+	private final AtomicLong acquisitions;
+
+	/** Total time spent waiting for a connection, in nanoseconds. */
+	private final AtomicLong totalWaitTime;
+
+	/** Maximum time spent waiting for a connection, in nanoseconds. */
+	private final AtomicLong maxWaitTime;
+
+	/** Number of requests that timed out because pool was exhausted. */
+	private final AtomicLong timeouts;
+
+	PoolMetrics(PooledDataSource dataSource) {
+		this.dataSource = dataSource;
+		this.acquisitions = new AtomicLong(0);
+		this.totalWaitTime = new AtomicLong(0);
+		this.maxWaitTime = new AtomicLong(0);
+		this.timeouts = new AtomicLong(0);
+	}
+
+	/**
+	 * Get number of connections currently borrowed.
+	 *
+	 * @return Number of active connections.
+	 */
+	public int getActive() {
+		return dataSource.getActive();
+	}
+
+	/**
+	 * Get number of idle connections.
+	 *
+	 * @return Number of idle connections.
+	 */
+	public int getIdle() {
+		return dataSource.getIdle();
+	}
+
+	/**
+	 * Get number of open connections (active and idle).
+	 *
+	 * @return Number of open connections.
+	 */
+	public int getSize() {
+		return dataSource.getSize();
+	}
+
+	/**
+	 * Get maximum number of active connections.
+	 *
+	 * @return Maximum number of active connections.
+	 */
+	public int getMaxActive() {
+		return dataSource.getMaxActive();
+	}
+
+	/**
+	 * Get number of threads currently waiting for a connection.
+	 *
+	 * @return Number of waiting threads.
+	 */
+	public int getWaiting() {
+		return dataSource.getWaitCount();
+	}
+
+	/**
+	 * Get pool usage: ratio of active connections over maximum number of connections.
+	 *
+	 * @return Usage, between 0 and 1.
+	 */
+	public double getUsage() {
+		int max = getMaxActive();
+		return max <= 0 ? 0 : (double) getActive() / max;
+	}
+
+	/**
+	 * Get number of connections borrowed from the pool.
+	 *
+	 * @return Number of connections.
+	 */
+	public long getAcquisitions() {
+		return acquisitions.get();
+	}
+
+	/**
+	 * Get number of requests that timed out because pool was exhausted.
+	 *
+	 * @return Number of timeouts.
+	 */
+	public long getTimeouts() {
+		return timeouts.get();
+	}
+
+	/**
+	 * Get total time spent waiting for a connection.
+	 *
+	 * @return Time, in milliseconds.
+	 */
+	public long getTotalWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(totalWaitTime.get());
+	}
+
+	/**
+	 * Get maximum time spent waiting for a connection.
+	 *
+	 * @return Time, in milliseconds.
+	 */
+	public long getMaxWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get());
+	}
+
+	/**
+	 * Get average time spent waiting for a connection.
+	 *
+	 * @return Time, in milliseconds.
+	 */
+	public double getAverageWaitTime() {
+		long count = acquisitions.get() + timeouts.get();
+		return count == 0 ? 0 : (double) totalWaitTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/** Reset counters. */
+	public void clear() {
+		acquisitions.set(0);
+		totalWaitTime.set(0);
+		maxWaitTime.set(0);
+		timeouts.set(0);
+	}
+
+	/**
+	 * Record a connection acquisition.
+	 *
+	 * @param waitTime Time spent waiting for the connection, in nanoseconds.
+	 */
+	void acquired(long waitTime) {
+		acquisitions.incrementAndGet();
+		waited(waitTime);
+	}
+
+	/**
+	 * Record a request that timed out.
+	 *
+	 * @param waitTime Time spent waiting before timeout, in nanoseconds.
+	 */
+	void timedOut(long waitTime) {
+		timeouts.incrementAndGet();
+		waited(waitTime);
+	}
+
+	private void waited(long waitTime) {
+		totalWaitTime.addAndGet(waitTime);
+
+		long max = maxWaitTime.get();
+		while (waitTime > max && !maxWaitTime.compareAndSet(max, waitTime)) {
+			max = maxWaitTime.get();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("active=%d, idle=%d, waiting=%d, acquisitions=%d, timeouts=%d, avgWait=%.2fms, maxWait=%dms",
+				getActive(), getIdle(), getWaiting(), getAcquisitions(), getTimeouts(), getAverageWaitTime(), getMaxWaitTime());
+	}
+}
@@ -0,0 +1,298 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+
+/**
+ * Settings of a {@link PooledDataSource}.
+ *
+ * Default settings are:
+ * <ul>
+ *   <li>Maximum of 20 connections, with at least 2 idle connections.</li>
+ *   <li>Callers wait at most 30 seconds for a connection.</li>
+ *   <li>Connections are validated when borrowed (at most once every 30 seconds).</li>
+ *   <li>Leak detection and statement cache are disabled.</li>
+ * </ul>
+ */
+public final class PoolSettings {
+
+	/**
+	 * Create settings of a pool.
+	 *
+	 * @param driverClassName JDBC driver class name.
+	 * @param url JDBC url.
+	 * @param username Database user name.
+	 * @param password Database password.
+	 * @return Settings.
+	 */
+	public static PoolSettings of(String driverClassName, String url, String username, String password) {
+		return new PoolSettings(driverClassName, url, username, password);
+	}
+
+	/** JDBC driver class name. */
+	private final String driverClassName;
+
+	/** JDBC url. */
+	private final String url;
+
+	/** Database user name. */
+	private final String username;
+
+	/** Database password. */
+	private final String password;
+
+	/** Pool name (used in logs and JMX). */
+	private String name;
+
+	/** Maximum number of active connections. */
+	private int maxActive;
+
+	/** Minimum number of idle connections. */
+	private int minIdle;
+
+	/** Maximum number of idle connections. */
+	private int maxIdle;
+
+	/** Number of connections created when pool is started. */
+	private int initialSize;
+
+	/** Maximum time to wait for a connection, in milliseconds. */
+	private int maxWait;
+
+	/** Query used to validate connections (null to use JDBC4 validation). */
+	private String validationQuery;
+
+	/** Minimum time between two validations of a connection, in milliseconds. */
+	private long validationInterval;
+
+	/** Timeout of connection validation, in seconds. */
+	private int validationQueryTimeout;
+
+	/** Time after which a borrowed connection is reported as a leak, in seconds (zero to disable). */
+	private int leakDetectionThreshold;
+
+	/** Flag to close connections reported as leaks. */
+	private boolean removeLeaks;
+
+	/** Number of prepared statements cached by each connection (zero to disable). */
+	private int statementCacheSize;
+
+	/** Default query timeout, in seconds (zero to disable). */
+	private int queryTimeout;
+
+	private PoolSettings(String driverClassName, String url, String username, String password) {
+		this.driverClassName = driverClassName;
+		this.url = url;
+		this.username = username;
+		this.password = password;
+		this.name = "springhub";
+		this.maxActive = 20;
+		this.minIdle = 2;
+		this.maxIdle = 20;
+		this.initialSize = 2;
+		this.maxWait = 30000;
+		this.validationQuery = null;
+		this.validationInterval = 30000;
+		this.validationQueryTimeout = 2;
+		this.leakDetectionThreshold = 0;
+		this.removeLeaks = false;
+		this.statementCacheSize = 0;
+		this.queryTimeout = 0;
+	}
+
+	/**
+	 * Set pool name.
+	 *
+	 * @param name Pool name.
+	 * @return Current settings.
+	 */
+	public PoolSettings name(String name) {
+		this.name = name;
+		return this;
+	}
+
+	/**
+	 * Set pool size: maximum number of active connections, and bounds of idle connections.
+	 *
+	 * @param minIdle Minimum number of idle connections.
+	 * @param maxActive Maximum number of active connections.
+	 * @return Current settings.
+	 */
+	public PoolSettings size(int minIdle, int maxActive) {
+		if (minIdle < 0 || maxActive <= 0 || minIdle > maxActive) {
+			throw new IllegalArgumentException("Pool size must satisfy 0 <= minIdle <= maxActive and maxActive > 0");
+		}
+
+		this.minIdle = minIdle;
+		this.maxIdle = maxActive;
+		this.maxActive = maxActive;
+		this.initialSize = minIdle;
+		return this;
+	}
+
+	/**
+	 * Set maximum time to wait for a connection when pool is exhausted.
+	 *
+	 * @param maxWait Time, in milliseconds.
+	 * @return Current settings.
+	 */
+	public PoolSettings maxWait(int maxWait) {
+		this.maxWait = maxWait;
+		return this;
+	}
+
+	/**
+	 * Set query used to validate connections when they are borrowed.
+	 * Use null to rely on JDBC4 validation ({@link java.sql.Connection#isValid(int)}).
+	 *
+	 * @param validationQuery Validation query.
+	 * @param validationInterval Minimum time between two validations of a connection, in milliseconds.
+	 * @return Current settings.
+	 */
+	public PoolSettings validation(String validationQuery, long validationInterval) {
+		this.validationQuery = validationQuery;
+		this.validationInterval = validationInterval;
+		return this;
+	}
+
+	/**
+	 * Enable leak detection: connections borrowed for more than given threshold
+	 * are logged, with the stack trace of the caller that borrowed them.
+	 *
+	 * @param threshold Threshold, in seconds.
+	 * @param remove True to close leaked connections, false to only log them.
+	 * @return Current settings.
+	 */
+	public PoolSettings leakDetection(int threshold, boolean remove) {
+		this.leakDetectionThreshold = threshold;
+		this.removeLeaks = remove;
+		return this;
+	}
+
+	/**
+	 * Enable prepared statement cache.
+	 *
+	 * @param statementCacheSize Number of statements cached by each connection.
+	 * @return Current settings.
+	 */
+	public PoolSettings statementCache(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+		return this;
+	}
+
+	/**
+	 * Set default query timeout applied to all statements.
+	 *
+	 * @param queryTimeout Timeout, in seconds.
+	 * @return Current settings.
+	 */
+	public PoolSettings queryTimeout(int queryTimeout) {
+		this.queryTimeout = queryTimeout;
+		return this;
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #maxActive}
+	 *
+	 * @return {@link #maxActive}
+	 */
+	public int getMaxActive() {
+		return maxActive;
+	}
+
+	/**
+	 * Get {@link #minIdle}
+	 *
+	 * @return {@link #minIdle}
+	 */
+	public int getMinIdle() {
+		return minIdle;
+	}
+
+	/**
+	 * Get {@link #maxWait}
+	 *
+	 * @return {@link #maxWait}
+	 */
+	public int getMaxWait() {
+		return maxWait;
+	}
+
+	/**
+	 * Get {@link #leakDetectionThreshold}
+	 *
+	 * @return {@link #leakDetectionThreshold}
+	 */
+	public int getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Get {@link #statementCacheSize}
+	 *
+	 * @return {@link #statementCacheSize}
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Build tomcat pool properties.
+	 *
+	 * @return Pool properties.
+	 */
+	PoolProperties toPoolProperties() {
+		PoolProperties properties = new PoolProperties();
+		properties.setName(name);
+		properties.setDriverClassName(driverClassName);
+		properties.setUrl(url);
+		properties.setUsername(username);
+		properties.setPassword(password);
+
+		properties.setMaxActive(maxActive);
+		properties.setMaxIdle(maxIdle);
+		properties.setMinIdle(minIdle);
+		properties.setInitialSize(initialSize);
+		properties.setMaxWait(maxWait);
+		properties.setFairQueue(true);
+
+		properties.setTestOnBorrow(true);
+		properties.setTestWhileIdle(true);
+		properties.setValidationQuery(validationQuery);
+		properties.setValidationQueryTimeout(validationQueryTimeout);
+		properties.setValidationInterval(validationInterval);
+		if (validationQuery == null) {
+			properties.setValidator(new JdbcValidator(validationQueryTimeout));
+		}
+
+		if (leakDetectionThreshold > 0) {
+			properties.setLogAbandoned(true);
+			if (removeLeaks) {
+				properties.setRemoveAbandoned(true);
+				properties.setRemoveAbandonedTimeout(leakDetectionThreshold);
+			}
+			else {
+				properties.setSuspectTimeout(leakDetectionThreshold);
+			}
+		}
+
+		StringBuilder interceptors = new StringBuilder("ConnectionState;StatementFinalizer");
+		if (statementCacheSize > 0) {
+			interceptors.append(";StatementCache(prepared=true,callable=false,max=").append(statementCacheSize).append(")");
+		}
+		if (queryTimeout > 0) {
+			interceptors.append(";QueryTimeoutInterceptor(queryTimeout=").append(queryTimeout).append(")");
+		}
+		properties.setJdbcInterceptors(interceptors.toString());
+
+		return properties;
+	}
+}
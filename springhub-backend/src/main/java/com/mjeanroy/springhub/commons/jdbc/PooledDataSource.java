@@ -0,0 +1,74 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pooled data source (based on tomcat jdbc pool) exposing live metrics.
+ * Pool must be closed when application is stopped (see {@link #close()}).
+ */
+public class PooledDataSource extends DataSource {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(PooledDataSource.class);
+
+	/** Pool metrics. */
+	private final PoolMetrics metrics;
+
+	/**
+	 * Create pool.
+	 *
+	 * @param settings Pool settings.
+	 */
+	public PooledDataSource(PoolSettings settings) {
+		super(settings.toPoolProperties());
+		this.metrics = new PoolMetrics(this);
+	}
+
+	/**
+	 * Get {@link #metrics}
+	 *
+	 * @return {@link #metrics}
+	 */
+	public PoolMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		long start = System.nanoTime();
+		try {
+			Connection connection = super.getConnection();
+			metrics.acquired(System.nanoTime() - start);
+			return connection;
+		}
+		catch (PoolExhaustedException ex) {
+			timedOut(start);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		long start = System.nanoTime();
+		try {
+			Connection connection = super.getConnection(username, password);
+			metrics.acquired(System.nanoTime() - start);
+			return connection;
+		}
+		catch (PoolExhaustedException ex) {
+			timedOut(start);
+			throw ex;
+		}
+	}
+
+	private void timedOut(long start) {
+		metrics.timedOut(System.nanoTime() - start);
+		log.warn("Connection pool {} exhausted: {}", getPoolName(), metrics);
+	}
+}
@@ -0,0 +1,293 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import static java.util.Collections.unmodifiableList;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source sending read-only transactions to replicas, and other connections to primary data source.
+ *
+ * Transaction read-only flag is only available once transaction has been started, so this data source
+ * must be wrapped in a {@link LazyConnectionDataSourceProxy} (see {@link #lazy()}): connection is
+ * then fetched when first statement is executed.
+ *
+ * Replicas are checked periodically (connection validation) and unhealthy replicas are not used until
+ * they become healthy again. If no replica is available, read-only transactions use primary data source.
+ * Periodic checks only run when data source is initialized as a bean: an unhealthy replica is also tried
+ * again by a read-only transaction once retry delay has elapsed (see {@link #setRetryDelay(long)}), so that
+ * it is restored even if periodic checks are disabled.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	/** Default interval between two health checks, in milliseconds. */
+	public static final long DEFAULT_HEALTH_CHECK_INTERVAL = 10000;
+
+	/** Default timeout of connection validation, in seconds. */
+	public static final int DEFAULT_VALIDATION_TIMEOUT = 2;
+
+	/** Default delay before an unhealthy replica is tried again by a read-only transaction, in milliseconds. */
+	public static final long DEFAULT_RETRY_DELAY = 10000;
+
+	/** Primary data source. */
+	private final DataSource primary;
+
+	/** Replicas. */
+	private final List<Replica> replicas;
+
+	/** Replica selection strategy. */
+	private final ReplicaSelection selection;
+
+	/** Counter used by round robin selection. */
+	private final AtomicInteger counter;
+
+	/** Interval between two health checks, in milliseconds (zero or less to disable periodic checks). */
+	private long healthCheckInterval;
+
+	/** Timeout of connection validation, in seconds. */
+	private int validationTimeout;
+
+	/** Delay before an unhealthy replica is tried again by a read-only transaction, in milliseconds (zero or less to disable retries). */
+	private volatile long retryDelay;
+
+	/** Scheduler running health checks. */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Create data source.
+	 *
+	 * @param primary   Primary data source.
+	 * @param replicas  Replica data sources.
+	 * @param selection Replica selection strategy.
+	 */
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection) {
+		this.primary = primary;
+		this.selection = selection;
+		this.counter = new AtomicInteger(0);
+		this.healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+		this.validationTimeout = DEFAULT_VALIDATION_TIMEOUT;
+		this.retryDelay = DEFAULT_RETRY_DELAY;
+
+		List<Replica> list = new ArrayList<Replica>(replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			list.add(new Replica("replica-" + i, replicas.get(i)));
+		}
+		this.replicas = unmodifiableList(list);
+	}
+
+	/**
+	 * Set {@link #healthCheckInterval}
+	 *
+	 * @param healthCheckInterval New {@link #healthCheckInterval}
+	 */
+	public void setHealthCheckInterval(long healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	/**
+	 * Set {@link #validationTimeout}
+	 *
+	 * @param validationTimeout New {@link #validationTimeout}
+	 */
+	public void setValidationTimeout(int validationTimeout) {
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * Set {@link #retryDelay}
+	 *
+	 * @param retryDelay New {@link #retryDelay}
+	 */
+	public void setRetryDelay(long retryDelay) {
+		this.retryDelay = retryDelay;
+	}
+
+	/**
+	 * Wrap this data source in a lazy connection proxy.
+	 * Returned data source should be used by transaction manager and entity manager factory.
+	 *
+	 * @return Lazy data source.
+	 */
+	public DataSource lazy() {
+		return new LazyConnectionDataSourceProxy(this);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (healthCheckInterval > 0 && !replicas.isEmpty()) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+					.setNameFormat("springhub-replica-health-%d")
+					.setDaemon(true)
+					.build());
+
+			scheduler.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					checkHealth();
+				}
+			}, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Check health of all replicas.
+	 * This method is called periodically, but may be called explicitly.
+	 */
+	public void checkHealth() {
+		for (Replica replica : replicas) {
+			boolean healthy = isValid(replica);
+			if (healthy != replica.isHealthy()) {
+				log.warn("Replica {} is now {}", replica, healthy ? "healthy" : "unhealthy");
+			}
+
+			if (healthy) {
+				replica.setHealthy(true);
+			}
+			else {
+				replica.setUnhealthy(System.nanoTime(), retryDelayNanos());
+			}
+		}
+	}
+
+	/**
+	 * Get number of healthy replicas.
+	 *
+	 * @return Number of healthy replicas.
+	 */
+	public int getHealthyReplicas() {
+		int count = 0;
+		for (Replica replica : replicas) {
+			if (replica.isHealthy()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			// Attempts are bounded: a replica whose (short) retry delay elapses again must not be tried forever
+			Replica replica = select();
+			int attempts = 0;
+			while (replica != null && attempts++ < replicas.size()) {
+				try {
+					Connection connection = replica.track(open(replica.getDataSource(), username, password));
+					if (!replica.isHealthy()) {
+						log.warn("Replica {} is now healthy", replica);
+						replica.setHealthy(true);
+					}
+					return connection;
+				}
+				catch (SQLException ex) {
+					log.warn("Unable to get connection from replica {}: {}", replica, ex.getMessage());
+					replica.setUnhealthy(System.nanoTime(), retryDelayNanos());
+					replica = select();
+				}
+			}
+
+			log.debug("No replica available, use primary data source");
+		}
+
+		return open(primary, username, password);
+	}
+
+	private Replica select() {
+		long retryDelay = retryDelayNanos();
+		long now = System.nanoTime();
+
+		List<Replica> healthy = new ArrayList<Replica>(replicas.size());
+		for (Replica replica : replicas) {
+			if (replica.isHealthy()) {
+				healthy.add(replica);
+			}
+			else if (retryDelay > 0 && replica.acquireRetry(now, retryDelay)) {
+				// Retry delay has elapsed: this transaction tries replica again
+				return replica;
+			}
+		}
+
+		if (healthy.isEmpty()) {
+			return null;
+		}
+
+		if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+			Replica selected = null;
+			for (Replica replica : healthy) {
+				if (selected == null || replica.getConnections() < selected.getConnections()) {
+					selected = replica;
+				}
+			}
+			return selected;
+		}
+
+		int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % healthy.size();
+		return healthy.get(index);
+	}
+
+	private long retryDelayNanos() {
+		return TimeUnit.MILLISECONDS.toNanos(retryDelay);
+	}
+
+	private boolean isValid(Replica replica) {
+		Connection connection = null;
+		try {
+			connection = replica.getDataSource().getConnection();
+			return connection.isValid(validationTimeout);
+		}
+		catch (SQLException ex) {
+			log.debug("Health check of replica {} failed: {}", replica, ex.getMessage());
+			return false;
+		}
+		finally {
+			close(connection);
+		}
+	}
+
+	private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+		return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+	}
+
+	private static void close(Connection connection) {
+		if (connection != null) {
+			try {
+				connection.close();
+			}
+			catch (SQLException ex) {
+				log.debug("Unable to close connection: {}", ex.getMessage());
+			}
+		}
+	}
+}
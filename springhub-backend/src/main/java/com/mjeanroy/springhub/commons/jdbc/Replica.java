@@ -0,0 +1,164 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replica data source, with its health status and its number of open connections.
+ */
+final class Replica {
+
+	/** Replica name (used in logs). */
+	private final String name;
+
+	/** Replica data source. */
+	private final DataSource dataSource;
+
+	/** Number of connections opened and not yet closed. */
+	private final AtomicInteger connections;
+
+	/** Health status, updated by health checks. */
+	private volatile boolean healthy;
+
+	/** Time (nano time) after which an unhealthy replica may be tried again. */
+	private final AtomicLong retryTime;
+
+	Replica(String name, DataSource dataSource) {
+		this.name = name;
+		this.dataSource = dataSource;
+		this.connections = new AtomicInteger(0);
+		this.healthy = true;
+		this.retryTime = new AtomicLong(0);
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #dataSource}
+	 *
+	 * @return {@link #dataSource}
+	 */
+	DataSource getDataSource() {
+		return dataSource;
+	}
+
+	/**
+	 * Get number of connections opened and not yet closed.
+	 *
+	 * @return Number of connections.
+	 */
+	int getConnections() {
+		return connections.get();
+	}
+
+	/**
+	 * Get {@link #healthy}
+	 *
+	 * @return {@link #healthy}
+	 */
+	boolean isHealthy() {
+		return healthy;
+	}
+
+	/**
+	 * Set {@link #healthy}
+	 *
+	 * @param healthy New {@link #healthy}
+	 */
+	void setHealthy(boolean healthy) {
+		this.healthy = healthy;
+	}
+
+	/**
+	 * Mark replica as unhealthy: it may be tried again after given delay.
+	 *
+	 * @param now        Current nano time.
+	 * @param retryDelay Delay before replica may be tried again, in nanoseconds.
+	 */
+	void setUnhealthy(long now, long retryDelay) {
+		retryTime.set(now + retryDelay);
+		healthy = false;
+	}
+
+	/**
+	 * Check if unhealthy replica may be tried again.
+	 * A single caller is allowed to try replica: next retry is postponed by given delay.
+	 *
+	 * @param now        Current nano time.
+	 * @param retryDelay Delay before next retry, in nanoseconds.
+	 * @return True if caller must try replica, false otherwise.
+	 */
+	boolean acquireRetry(long now, long retryDelay) {
+		long time = retryTime.get();
+		return !healthy && now - time >= 0 && retryTime.compareAndSet(time, now + retryDelay);
+	}
+
+	/**
+	 * Track given connection: number of open connections is decremented
+	 * when returned connection is closed.
+	 *
+	 * @param connection Connection opened on this replica.
+	 * @return Tracked connection.
+	 */
+	Connection track(Connection connection) {
+		connections.incrementAndGet();
+		return (Connection) Proxy.newProxyInstance(
+				Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class },
+				new TrackedConnection(connection));
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private class TrackedConnection implements InvocationHandler {
+
+		/** Target connection. */
+		private final Connection target;
+
+		/** Flag set when connection has been closed. */
+		private boolean closed;
+
+		private TrackedConnection(Connection target) {
+			this.target = target;
+			this.closed = false;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			if (name.equals("close") && !closed) {
+				closed = true;
+				connections.decrementAndGet();
+			}
+
+			try {
+				return method.invoke(target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+}
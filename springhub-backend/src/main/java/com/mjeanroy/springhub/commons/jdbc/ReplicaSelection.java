@@ -0,0 +1,13 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+/**
+ * Strategy used to select the replica that will serve a read-only transaction.
+ */
+public enum ReplicaSelection {
+
+	/** Select replicas one after another. */
+	ROUND_ROBIN,
+
+	/** Select replica with the lowest number of open connections. */
+	LEAST_CONNECTIONS
+}
@@ -0,0 +1,230 @@
+package com.mjeanroy.springhub.commons.jpa;
+
+import static java.util.Collections.unmodifiableList;
+
+import javax.persistence.Converter;
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Index of persistent classes generated at compile time by {@link EntityIndexProcessor}.
+ * Index is read from every {@link #LOCATION} resource available on the class path, so
+ * entities of several jars are merged.
+ *
+ * Class path roots (jars or directories) compiled without the processor do not have an index:
+ * their persistent classes are found by scanning them (see {@link #scanUnindexed(Collection)}).
+ */
+public final class EntityIndex {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(EntityIndex.class);
+
+	/** Location of index files. */
+	public static final String LOCATION = "META-INF/springhub/entities";
+
+	/** Charset of index files. */
+	static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/** Annotations of persistent classes (same filters as spring persistence unit manager). */
+	private static final TypeFilter[] PERSISTENT_TYPES = new TypeFilter[] {
+			new AnnotationTypeFilter(Entity.class, false),
+			new AnnotationTypeFilter(Embeddable.class, false),
+			new AnnotationTypeFilter(MappedSuperclass.class, false),
+			new AnnotationTypeFilter(Converter.class, false)
+	};
+
+	/**
+	 * Load index available with given class loader.
+	 *
+	 * @param classLoader Class loader.
+	 * @return Index (empty if no index file is available).
+	 */
+	public static EntityIndex load(ClassLoader classLoader) {
+		Set<String> classNames = new LinkedHashSet<String>();
+		List<String> roots = new ArrayList<String>();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(LOCATION);
+			while (resources.hasMoreElements()) {
+				URL url = resources.nextElement();
+				log.debug("Read entity index {}", url);
+				read(url, classNames);
+
+				String location = url.toExternalForm();
+				roots.add(location.substring(0, location.length() - LOCATION.length()));
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read entity index", ex);
+		}
+
+		return new EntityIndex(classLoader, new ArrayList<String>(classNames), roots);
+	}
+
+	static void read(URL url, Collection<String> classNames) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), CHARSET));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#")) {
+					classNames.add(line);
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/** Class loader index has been loaded with. */
+	private final ClassLoader classLoader;
+
+	/** Indexed class names. */
+	private final List<String> classNames;
+
+	/** Class path roots that contain an index file. */
+	private final List<String> roots;
+
+	private EntityIndex(ClassLoader classLoader, List<String> classNames, List<String> roots) {
+		this.classLoader = classLoader;
+		this.classNames = unmodifiableList(classNames);
+		this.roots = unmodifiableList(roots);
+	}
+
+	/**
+	 * Check if index is empty (i.e. no index file has been generated).
+	 *
+	 * @return True if index is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return classNames.isEmpty();
+	}
+
+	/**
+	 * Get {@link #classNames}
+	 *
+	 * @return {@link #classNames}
+	 */
+	public List<String> getClassNames() {
+		return classNames;
+	}
+
+	/**
+	 * Get {@link #roots}
+	 *
+	 * @return {@link #roots}
+	 */
+	public List<String> getRoots() {
+		return roots;
+	}
+
+	/**
+	 * Check if given resource belongs to a class path root that contains an index file.
+	 *
+	 * @param url Resource URL.
+	 * @return True if resource is indexed, false otherwise.
+	 */
+	public boolean isIndexed(URL url) {
+		String location = url.toExternalForm();
+		for (String root : roots) {
+			if (location.startsWith(root)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get indexed class names that belong to given packages (or to sub-packages).
+	 *
+	 * @param packages Packages.
+	 * @return Class names.
+	 */
+	public List<String> getClassNames(Collection<String> packages) {
+		List<String> results = new ArrayList<String>();
+		for (String className : classNames) {
+			for (String pkg : packages) {
+				if (className.startsWith(pkg + ".")) {
+					results.add(className);
+					break;
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Scan given packages (and sub-packages) in class path roots that do not contain an
+	 * index file, and get persistent classes that are found (same classes as the ones
+	 * found by {@link org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean#setPackagesToScan(String...)}).
+	 *
+	 * @param packages Packages.
+	 * @return Class names.
+	 */
+	public List<String> scanUnindexed(Collection<String> packages) {
+		ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+		MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+
+		List<String> results = new ArrayList<String>();
+		try {
+			for (String pkg : packages) {
+				// Package directories are listed first, so that indexed roots are not traversed at all.
+				Enumeration<URL> locations = classLoader.getResources(ClassUtils.convertClassNameToResourcePath(pkg) + "/");
+				while (locations.hasMoreElements()) {
+					URL location = locations.nextElement();
+					if (isIndexed(location)) {
+						continue;
+					}
+
+					log.debug("Scan {} (no entity index)", location);
+					for (Resource resource : resolver.getResources(location.toExternalForm() + "**/*.class")) {
+						if (resource.isReadable()) {
+							MetadataReader reader = readerFactory.getMetadataReader(resource);
+							if (isPersistent(reader, readerFactory)) {
+								results.add(reader.getClassMetadata().getClassName());
+							}
+						}
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to scan packages " + packages, ex);
+		}
+
+		return results;
+	}
+
+	private static boolean isPersistent(MetadataReader reader, MetadataReaderFactory readerFactory) throws IOException {
+		for (TypeFilter filter : PERSISTENT_TYPES) {
+			if (filter.match(reader, readerFactory)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
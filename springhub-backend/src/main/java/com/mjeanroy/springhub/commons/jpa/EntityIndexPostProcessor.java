@@ -0,0 +1,80 @@
+package com.mjeanroy.springhub.commons.jpa;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
+import org.springframework.orm.jpa.persistenceunit.PersistenceUnitPostProcessor;
+
+/**
+ * Register persistent classes of given packages as managed classes of persistence unit:
+ * indexed classes are registered directly, and class path roots that do not contain an
+ * index (jars compiled without {@link EntityIndexProcessor}) are scanned.
+ * This is a replacement of class path scanning (see {@link #configure(LocalContainerEntityManagerFactoryBean, EntityIndex, List)}).
+ */
+public class EntityIndexPostProcessor implements PersistenceUnitPostProcessor {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(EntityIndexPostProcessor.class);
+
+	/**
+	 * Configure entity manager factory to use entity index instead of class path scanning.
+	 * If there is no index at all, entity manager factory is configured to scan packages.
+	 *
+	 * @param entityManagerFactory Entity manager factory.
+	 * @param index Entity index.
+	 * @param packages Packages that contain entities.
+	 * @return True if entity index is used, false if packages are scanned.
+	 */
+	public static boolean configure(LocalContainerEntityManagerFactoryBean entityManagerFactory, EntityIndex index, List<String> packages) {
+		if (index.isEmpty()) {
+			log.debug("No entity index found, scan packages {}", packages);
+			entityManagerFactory.setPackagesToScan(packages.toArray(new String[packages.size()]));
+			return false;
+		}
+
+		log.debug("Use entity index of {}", index.getRoots());
+
+		// Default persistence unit is still built, but packages are scanned by post processor.
+		entityManagerFactory.setPackagesToScan();
+		entityManagerFactory.setPersistenceUnitPostProcessors(new EntityIndexPostProcessor(index, packages));
+		return true;
+	}
+
+	/** Entity index. */
+	private final EntityIndex index;
+
+	/** Packages that contain entities. */
+	private final List<String> packages;
+
+	/**
+	 * Create post processor.
+	 *
+	 * @param index Entity index.
+	 * @param packages Packages that contain entities.
+	 */
+	public EntityIndexPostProcessor(EntityIndex index, List<String> packages) {
+		this.index = index;
+		this.packages = packages;
+	}
+
+	@Override
+	public void postProcessPersistenceUnitInfo(MutablePersistenceUnitInfo pui) {
+		List<String> indexed = index.getClassNames(packages);
+		List<String> scanned = index.scanUnindexed(packages);
+		log.debug("Register {} indexed classes and {} scanned classes", indexed.size(), scanned.size());
+
+		register(pui, indexed);
+		register(pui, scanned);
+	}
+
+	private static void register(MutablePersistenceUnitInfo pui, List<String> classNames) {
+		for (String className : classNames) {
+			if (!pui.getManagedClassNames().contains(className)) {
+				pui.addManagedClassName(className);
+			}
+		}
+	}
+}
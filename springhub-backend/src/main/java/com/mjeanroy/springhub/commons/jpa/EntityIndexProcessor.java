@@ -0,0 +1,169 @@
+package com.mjeanroy.springhub.commons.jpa;
+
+import static java.util.Arrays.asList;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor generating entity index at compile time.
+ * Every class annotated with {@link javax.persistence.Entity}, {@link javax.persistence.Embeddable},
+ * {@link javax.persistence.MappedSuperclass} or {@link javax.persistence.Converter} is written
+ * in {@link EntityIndex#LOCATION} (one class name per line).
+ *
+ * Index written by a previous compilation is merged: with incremental compilation, only
+ * recompiled classes are processed, so entries of other classes are kept (unless class
+ * does not exist anymore, or has been recompiled without a persistence annotation).
+ *
+ * Processor is not registered as a service, it must be enabled explicitly when classes of
+ * the application are compiled, for example with javac option
+ * {@code -processor com.mjeanroy.springhub.commons.jpa.EntityIndexProcessor}, or with
+ * {@code annotationProcessors} (or {@code annotationProcessorPaths}) parameter of
+ * maven-compiler-plugin. Generated index is then used when
+ * {@link com.mjeanroy.springhub.configuration.DatabaseConfiguration#useEntityIndex()} returns true.
+ *
+ * Once enabled, processor is run for every compilation (even without persistence annotations),
+ * so that index is updated when a persistent class is recompiled without annotation.
+ * Annotations are never claimed, other processors are still run.
+ */
+@SupportedAnnotationTypes("*")
+public class EntityIndexProcessor extends AbstractProcessor {
+
+	/** Annotations of persistent classes. */
+	private static final Set<String> ANNOTATIONS = new HashSet<String>(asList(
+			"javax.persistence.Entity",
+			"javax.persistence.Embeddable",
+			"javax.persistence.MappedSuperclass",
+			"javax.persistence.Converter"
+	));
+
+	/** Class names found during processing rounds. */
+	private final Set<String> classNames = new TreeSet<String>();
+
+	/** Names of every class compiled during processing rounds. */
+	private final Set<String> compiled = new HashSet<String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			if (element instanceof TypeElement) {
+				compiled.add(((TypeElement) element).getQualifiedName().toString());
+			}
+		}
+
+		for (TypeElement annotation : annotations) {
+			if (!ANNOTATIONS.contains(annotation.getQualifiedName().toString())) {
+				continue;
+			}
+
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS) {
+					classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+				}
+			}
+		}
+
+		if (roundEnv.processingOver()) {
+			List<String> previous = previous();
+			Set<String> index = new TreeSet<String>(classNames);
+			if (previous != null) {
+				index.addAll(valid(previous));
+			}
+
+			// Previous index is rewritten even if it is now empty
+			if (!index.isEmpty() || previous != null) {
+				write(index);
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read entries of index written by a previous compilation.
+	 *
+	 * @return Class names, null if there is no previous index.
+	 */
+	private List<String> previous() {
+		List<String> entries = new ArrayList<String>();
+		try {
+			FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.LOCATION);
+			EntityIndex.read(file.toUri().toURL(), entries);
+			return entries;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get entries of previous index that are still valid: class has not been compiled again
+	 * (it would have been found by processor if it is still annotated) and still exists.
+	 *
+	 * @param entries Entries of previous index.
+	 * @return Valid class names.
+	 */
+	private List<String> valid(List<String> entries) {
+		Elements elements = processingEnv.getElementUtils();
+		List<String> results = new ArrayList<String>();
+		for (String className : entries) {
+			// Nested classes are compiled with their top level class
+			int nested = className.indexOf('$');
+			String topLevelName = nested < 0 ? className : className.substring(0, nested);
+			if (!compiled.contains(topLevelName) && elements.getTypeElement(className.replace('$', '.')) != null) {
+				results.add(className);
+			}
+		}
+		return results;
+	}
+
+	private void write(Set<String> index) {
+		Writer writer = null;
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.LOCATION);
+			writer = new OutputStreamWriter(file.openOutputStream(), EntityIndex.CHARSET);
+			for (String className : index) {
+				writer.write(className);
+				writer.write('\n');
+			}
+		}
+		catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write entity index: " + ex.getMessage());
+		}
+		finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				}
+				catch (IOException ex) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Unable to close entity index: " + ex.getMessage());
+				}
+			}
+		}
+	}
+}
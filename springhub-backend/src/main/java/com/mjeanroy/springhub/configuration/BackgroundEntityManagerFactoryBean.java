@@ -0,0 +1,139 @@
+package com.mjeanroy.springhub.configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+/**
+ * Entity manager factory bean that bootstraps persistence provider in a background thread.
+ *
+ * Application context is started without waiting for hibernate: entity manager factory is
+ * a proxy, and first call that needs the native entity manager factory blocks until bootstrap
+ * is over. Use {@link #isBootstrapped()} to check if bootstrap is over (for example in a
+ * health check).
+ */
+public class BackgroundEntityManagerFactoryBean extends LocalContainerEntityManagerFactoryBean {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(BackgroundEntityManagerFactoryBean.class);
+
+	/** Result of bootstrap. */
+	private volatile Future<EntityManagerFactory> bootstrap;
+
+	/**
+	 * Callback executed in bootstrap thread before persistence provider is started.
+	 * JPA properties can still be updated (see {@link #getJpaPropertyMap()}), so this can be
+	 * used to run blocking operations (for example, dialect detection).
+	 */
+	private Runnable beforeBootstrap;
+
+	/**
+	 * Check if background bootstrap is over.
+	 *
+	 * @return True if entity manager factory is available (or if bootstrap failed), false otherwise.
+	 */
+	public boolean isBootstrapped() {
+		return bootstrap != null && bootstrap.isDone();
+	}
+
+	/**
+	 * Set {@link #beforeBootstrap}
+	 *
+	 * @param beforeBootstrap New {@link #beforeBootstrap}
+	 */
+	public void setBeforeBootstrap(Runnable beforeBootstrap) {
+		this.beforeBootstrap = beforeBootstrap;
+	}
+
+	@Override
+	protected EntityManagerFactory createNativeEntityManagerFactory() throws PersistenceException {
+		ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("springhub-jpa-bootstrap-%d")
+				.setDaemon(true)
+				.build());
+
+		try {
+			bootstrap = executor.submit(new Callable<EntityManagerFactory>() {
+				@Override
+				public EntityManagerFactory call() {
+					long start = System.nanoTime();
+					if (beforeBootstrap != null) {
+						beforeBootstrap.run();
+					}
+					EntityManagerFactory emf = BackgroundEntityManagerFactoryBean.super.createNativeEntityManagerFactory();
+					log.info("Entity manager factory bootstrapped in {}ms", (System.nanoTime() - start) / 1000000);
+					return emf;
+				}
+			});
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		Class<? extends EntityManagerFactory> emfInterface = getJpaVendorAdapter() == null ?
+				null :
+				getJpaVendorAdapter().getEntityManagerFactoryInterface();
+
+		Class<?>[] interfaces = emfInterface == null ?
+				new Class<?>[] { EntityManagerFactory.class } :
+				new Class<?>[] { emfInterface };
+
+		return (EntityManagerFactory) Proxy.newProxyInstance(getBeanClassLoader(), interfaces, new BootstrapHandler());
+	}
+
+	private EntityManagerFactory await() {
+		try {
+			return Uninterruptibles.getUninterruptibly(bootstrap);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PersistenceException("Unable to bootstrap entity manager factory", cause);
+		}
+	}
+
+	private class BootstrapHandler implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			if (name.equals("toString")) {
+				return "Background EntityManagerFactory (bootstrapped: " + isBootstrapped() + ")";
+			}
+
+			try {
+				return method.invoke(await(), args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.mjeanroy.springhub.configuration;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.cache.spi.access.AccessType;
+
+/**
+ * Settings of a second-level cache region.
+ *
+ * A region is usually associated to an entity (see {@link #entity(Class)}): entity is then
+ * cached even if it is not annotated, using given access type. Other regions (collection
+ * or query cache regions) can be configured by name (see {@link #named(String)}).
+ */
+public class CacheRegion {
+
+	/** Default maximum number of entries in a region. */
+	public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	/** Property containing names of configured regions. */
+	static final String REGIONS = "springhub.cache.regions";
+
+	/** Prefix of region properties. */
+	private static final String PREFIX = "springhub.cache.region.";
+
+	/** Suffix of property containing maximum number of entries of a region. */
+	private static final String MAX_ENTRIES = ".max_entries";
+
+	/** Suffix of property containing time to live of a region. */
+	private static final String TTL = ".ttl";
+
+	/**
+	 * Create settings of region associated to an entity.
+	 * Region name is entity class name.
+	 *
+	 * @param entity Entity class.
+	 * @return Region settings.
+	 */
+	public static CacheRegion entity(Class<?> entity) {
+		return new CacheRegion(entity.getName(), entity);
+	}
+
+	/**
+	 * Create settings of a region.
+	 *
+	 * @param name Region name.
+	 * @return Region settings.
+	 */
+	public static CacheRegion named(String name) {
+		return new CacheRegion(name, null);
+	}
+
+	/** Region name. */
+	private final String name;
+
+	/** Entity associated to region (may be null). */
+	private final Class<?> entity;
+
+	/** Maximum number of entries kept in memory. */
+	private int maxEntries;
+
+	/** Time to live of entries, in seconds (zero means entries never expire). */
+	private long timeToLive;
+
+	/** Access type used to cache associated entity. */
+	private AccessType access;
+
+	private CacheRegion(String name, Class<?> entity) {
+		this.name = name;
+		this.entity = entity;
+		this.maxEntries = DEFAULT_MAX_ENTRIES;
+		this.timeToLive = 0;
+		this.access = AccessType.READ_WRITE;
+	}
+
+	/**
+	 * Set {@link #maxEntries}
+	 *
+	 * @param maxEntries New {@link #maxEntries}
+	 * @return Current region settings.
+	 */
+	public CacheRegion maxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+		return this;
+	}
+
+	/**
+	 * Set {@link #timeToLive}
+	 *
+	 * @param timeToLive New {@link #timeToLive}, in seconds.
+	 * @return Current region settings.
+	 */
+	public CacheRegion timeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+		return this;
+	}
+
+	/**
+	 * Set {@link #access}
+	 *
+	 * @param access New {@link #access}
+	 * @return Current region settings.
+	 */
+	public CacheRegion access(AccessType access) {
+		this.access = access;
+		return this;
+	}
+
+	/**
+	 * Use read-only access: should be used for reference data that are never updated.
+	 *
+	 * @return Current region settings.
+	 */
+	public CacheRegion readOnly() {
+		return access(AccessType.READ_ONLY);
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #entity}
+	 *
+	 * @return {@link #entity}
+	 */
+	public Class<?> getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Get {@link #maxEntries}
+	 *
+	 * @return {@link #maxEntries}
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Get {@link #timeToLive}
+	 *
+	 * @return {@link #timeToLive}
+	 */
+	public long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Get {@link #access}
+	 *
+	 * @return {@link #access}
+	 */
+	public AccessType getAccess() {
+		return access;
+	}
+
+	/**
+	 * Write settings of given regions to JPA properties.
+	 * Entities associated to regions are declared as cached entities.
+	 *
+	 * @param regions    Regions.
+	 * @param properties JPA properties.
+	 */
+	static void write(Collection<CacheRegion> regions, Map<String, Object> properties) {
+		StringBuilder names = new StringBuilder();
+		for (CacheRegion region : regions) {
+			if (names.length() > 0) {
+				names.append(',');
+			}
+			names.append(region.name);
+
+			properties.put(PREFIX + region.name + MAX_ENTRIES, String.valueOf(region.maxEntries));
+			properties.put(PREFIX + region.name + TTL, String.valueOf(region.timeToLive));
+
+			if (region.entity != null) {
+				properties.put("hibernate.ejb.classcache." + region.entity.getName(), region.access.getExternalName() + "," + region.name);
+			}
+		}
+
+		properties.put(REGIONS, names.toString());
+	}
+
+	/**
+	 * Read settings of regions from hibernate properties.
+	 *
+	 * @param properties Hibernate properties.
+	 * @return Regions.
+	 */
+	static List<CacheRegion> read(Properties properties) {
+		String names = properties.getProperty(REGIONS);
+		if (names == null || names.isEmpty()) {
+			return new ArrayList<CacheRegion>(0);
+		}
+
+		List<CacheRegion> regions = new ArrayList<CacheRegion>();
+		for (String name : names.split(",")) {
+			regions.add(named(name)
+					.maxEntries(Integer.parseInt(property(properties, PREFIX + name + MAX_ENTRIES)))
+					.timeToLive(Long.parseLong(property(properties, PREFIX + name + TTL))));
+		}
+		return regions;
+	}
+
+	private static String property(Properties properties, String name) {
+		String value = properties.getProperty(name);
+		if (value == null) {
+			throw new IllegalStateException(format("Missing cache region property %s", name));
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return format("%s{name=%s, maxEntries=%s, timeToLive=%s, access=%s}", getClass().getSimpleName(), name, maxEntries, timeToLive, access);
+	}
+}
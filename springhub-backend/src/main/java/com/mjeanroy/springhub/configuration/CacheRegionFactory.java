@@ -0,0 +1,60 @@
+package com.mjeanroy.springhub.configuration;
+
+import java.util.Properties;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.config.CacheConfiguration;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.ehcache.EhCacheRegionFactory;
+import org.hibernate.cfg.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ehcache region factory that creates regions declared with {@link CacheRegion}
+ * settings (see {@link DatabaseConfiguration#cacheRegions()}), so that regions can be
+ * configured without any ehcache xml file.
+ * Regions that are not declared use ehcache default settings.
+ */
+public class CacheRegionFactory extends EhCacheRegionFactory {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(CacheRegionFactory.class);
+
+	/** Create region factory. */
+	public CacheRegionFactory() {
+		super();
+	}
+
+	/**
+	 * Create region factory.
+	 *
+	 * @param properties Hibernate properties.
+	 */
+	public CacheRegionFactory(Properties properties) {
+		super(properties);
+	}
+
+	@Override
+	public void start(Settings settings, Properties properties) throws CacheException {
+		super.start(settings, properties);
+
+		String prefix = settings.getCacheRegionPrefix();
+		for (CacheRegion region : CacheRegion.read(properties)) {
+			String name = prefix == null || prefix.isEmpty() ? region.getName() : prefix + "." + region.getName();
+			log.debug("Configure cache region {}: {}", name, region);
+
+			CacheConfiguration configuration = new CacheConfiguration(name, region.getMaxEntries())
+					.eternal(false)
+					.timeToLiveSeconds(region.getTimeToLive());
+
+			if (manager.cacheExists(name)) {
+				manager.removeCache(name);
+			}
+
+			manager.addCache(new Cache(configuration));
+		}
+	}
+}
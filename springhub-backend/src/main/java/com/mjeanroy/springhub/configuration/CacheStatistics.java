@@ -0,0 +1,139 @@
+package com.mjeanroy.springhub.configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Hit / miss statistics of second-level cache and query cache.
+ * Statistics are collected only if second-level cache has been enabled
+ * with {@link DatabaseConfiguration#secondLevelCache()}.
+ */
+public class CacheStatistics {
+
+	/** Entity manager factory. */
+	private final EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Create statistics.
+	 *
+	 * @param entityManagerFactory Entity manager factory.
+	 */
+	public CacheStatistics(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Get number of entities (or collections) read from second-level cache.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getHitCount() {
+		return statistics().getSecondLevelCacheHitCount();
+	}
+
+	/**
+	 * Get number of entities (or collections) looked up in second-level cache but not found.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getMissCount() {
+		return statistics().getSecondLevelCacheMissCount();
+	}
+
+	/**
+	 * Get number of entities (or collections) put in second-level cache.
+	 *
+	 * @return Number of puts.
+	 */
+	public long getPutCount() {
+		return statistics().getSecondLevelCachePutCount();
+	}
+
+	/**
+	 * Get hit ratio of second-level cache.
+	 *
+	 * @return Hit ratio (between 0 and 1).
+	 */
+	public double getHitRatio() {
+		return ratio(getHitCount(), getMissCount());
+	}
+
+	/**
+	 * Get number of hits in given region.
+	 *
+	 * @param region Region name.
+	 * @return Number of hits.
+	 */
+	public long getHitCount(String region) {
+		SecondLevelCacheStatistics statistics = statistics().getSecondLevelCacheStatistics(region);
+		return statistics == null ? 0 : statistics.getHitCount();
+	}
+
+	/**
+	 * Get number of misses in given region.
+	 *
+	 * @param region Region name.
+	 * @return Number of misses.
+	 */
+	public long getMissCount(String region) {
+		SecondLevelCacheStatistics statistics = statistics().getSecondLevelCacheStatistics(region);
+		return statistics == null ? 0 : statistics.getMissCount();
+	}
+
+	/**
+	 * Get number of entries kept in memory in given region.
+	 *
+	 * @param region Region name.
+	 * @return Number of entries.
+	 */
+	public long getSize(String region) {
+		SecondLevelCacheStatistics statistics = statistics().getSecondLevelCacheStatistics(region);
+		return statistics == null ? 0 : statistics.getElementCountInMemory();
+	}
+
+	/**
+	 * Get number of queries results read from query cache.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getQueryHitCount() {
+		return statistics().getQueryCacheHitCount();
+	}
+
+	/**
+	 * Get number of queries results looked up in query cache but not found.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getQueryMissCount() {
+		return statistics().getQueryCacheMissCount();
+	}
+
+	/**
+	 * Get hit ratio of query cache.
+	 *
+	 * @return Hit ratio (between 0 and 1).
+	 */
+	public double getQueryHitRatio() {
+		return ratio(getQueryHitCount(), getQueryMissCount());
+	}
+
+	/**
+	 * Reset statistics.
+	 */
+	public void clear() {
+		statistics().clear();
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private static double ratio(long hits, long misses) {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
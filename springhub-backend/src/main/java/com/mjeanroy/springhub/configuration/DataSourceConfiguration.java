@@ -0,0 +1,46 @@
+package com.mjeanroy.springhub.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mjeanroy.springhub.commons.jdbc.PoolMetrics;
+import com.mjeanroy.springhub.commons.jdbc.PoolSettings;
+import com.mjeanroy.springhub.commons.jdbc.PooledDataSource;
+
+/**
+ * Configure pooled data source used by {@link DatabaseConfiguration}.
+ * Pool metrics are available with {@link PoolMetrics} bean.
+ */
+@Configuration
+public abstract class DataSourceConfiguration {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(DataSourceConfiguration.class);
+
+	@Bean(destroyMethod = "close")
+	public PooledDataSource dataSource() {
+		PoolSettings settings = poolSettings();
+
+		log.info("Configure pooled data source {}", settings.getName());
+		log.debug("- Max active: {}", settings.getMaxActive());
+		log.debug("- Min idle: {}", settings.getMinIdle());
+		log.debug("- Max wait: {}ms", settings.getMaxWait());
+		log.debug("- Leak detection threshold: {}s", settings.getLeakDetectionThreshold());
+		log.debug("- Statement cache size: {}", settings.getStatementCacheSize());
+		return new PooledDataSource(settings);
+	}
+
+	@Bean
+	public PoolMetrics poolMetrics() {
+		return dataSource().getMetrics();
+	}
+
+	/**
+	 * Configure connection pool.
+	 *
+	 * @return Pool settings.
+	 */
+	protected abstract PoolSettings poolSettings();
+}
@@ -1,14 +1,19 @@
 package com.mjeanroy.springhub.configuration;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
-import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.Dialect;
 import org.hibernate.jpa.HibernatePersistenceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +25,12 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.ClassUtils;
+
+import com.mjeanroy.springhub.commons.jdbc.DatabaseDrivers;
+import com.mjeanroy.springhub.commons.jpa.EntityIndex;
+import com.mjeanroy.springhub.commons.jpa.EntityIndexPostProcessor;
+import com.mjeanroy.springhub.dao.AbstractGenericDao;
 
 @Configuration
 @EnableTransactionManagement
@@ -37,16 +48,14 @@ public class DatabaseConfiguration {
 		int size = packages.size();
 		String[] array = packagesToScan().toArray(new String[size]);
 
-		Class dialect = null;
 		boolean showSQL = showSQL();
+		boolean background = backgroundBootstrap();
 
-		try {
-			String driverName = dataSource.getConnection().getMetaData().getDriverName();
-			dialect = dialect(driverName);
-		}
-		catch (SQLException ex) {
-			log.warn("Unable to retrieve database driver class name");
-			log.warn(ex.getMessage());
+		// Dialect detection needs a database connection: in background mode, it is
+		// done by the bootstrap thread.
+		Class<? extends Dialect> dialect = configuredDialect();
+		if (dialect == null && !background) {
+			dialect = detectDialect();
 		}
 
 		log.info("Configure hibernate JPA vendor adapter");
@@ -59,7 +68,30 @@ public class DatabaseConfiguration {
 		}
 
 		log.info("Initialize entity manager factory");
-		LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		log.debug("- Background bootstrap: {}", background);
+		LocalContainerEntityManagerFactoryBean entityManagerFactory;
+		if (background) {
+			final BackgroundEntityManagerFactoryBean backgroundFactory = new BackgroundEntityManagerFactoryBean();
+			backgroundFactory.setBeforeBootstrap(new Runnable() {
+				@Override
+				public void run() {
+					Map<String, Object> properties = backgroundFactory.getJpaPropertyMap();
+					if (!properties.containsKey(AvailableSettings.DIALECT)) {
+						Class<? extends Dialect> detected = detectDialect();
+						log.debug("- Dialect: {}", detected);
+						if (detected != null) {
+							properties.put(AvailableSettings.DIALECT, detected.getName());
+						}
+					}
+				}
+			});
+
+			entityManagerFactory = backgroundFactory;
+		}
+		else {
+			entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		}
+
 		entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
 
 		log.debug("- Configure entity manager persistence provider class");
@@ -68,21 +100,63 @@ public class DatabaseConfiguration {
 		log.debug("- Configure entity manager data source");
 		entityManagerFactory.setDataSource(dataSource);
 
-		log.debug("- Configure packages to scan : {}", array);
-		entityManagerFactory.setPackagesToScan(array);
+		if (useEntityIndex()) {
+			log.debug("- Configure entity index for packages : {}", packages);
+			EntityIndex index = EntityIndex.load(ClassUtils.getDefaultClassLoader());
+			EntityIndexPostProcessor.configure(entityManagerFactory, index, packages);
+		}
+		else {
+			log.debug("- Configure packages to scan : {}", array);
+			entityManagerFactory.setPackagesToScan(array);
+		}
 
-		Map<String, Object> jpaProperties = jpaProperties();
+		Map<String, Object> jpaProperties = new HashMap<String, Object>();
+
+		int batchSize = batchSize();
+		log.debug("- Batch size: {}", batchSize);
+		if (batchSize > 0) {
+			jpaProperties.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+			jpaProperties.put("hibernate.jdbc.batch_versioned_data", "true");
+			jpaProperties.put("hibernate.order_inserts", "true");
+			jpaProperties.put("hibernate.order_updates", "true");
+		}
+
+		boolean secondLevelCache = secondLevelCache();
+		log.debug("- Second level cache: {}", secondLevelCache);
+		if (secondLevelCache) {
+			boolean queryCache = queryCache();
+			log.debug("- Query cache: {}", queryCache);
+
+			jpaProperties.put("hibernate.cache.use_second_level_cache", "true");
+			jpaProperties.put("hibernate.cache.use_query_cache", String.valueOf(queryCache));
+			jpaProperties.put("hibernate.cache.region.factory_class", CacheRegionFactory.class.getName());
+			jpaProperties.put("hibernate.cache.default_cache_concurrency_strategy", AccessType.READ_WRITE.getExternalName());
+			jpaProperties.put("hibernate.generate_statistics", "true");
+			jpaProperties.put("javax.persistence.sharedCache.mode", SharedCacheMode.ENABLE_SELECTIVE.name());
+
+			List<CacheRegion> regions = cacheRegions();
+			log.debug("- Cache regions: {}", regions);
+			CacheRegion.write(regions, jpaProperties);
+		}
+
+		Map<String, Object> customProperties = jpaProperties();
+		if (customProperties != null) {
+			jpaProperties.putAll(customProperties);
+		}
 
 		log.debug("- Configure JPA properties: {}", jpaProperties);
-		if (jpaProperties != null && !jpaProperties.isEmpty()) {
+		if (!jpaProperties.isEmpty()) {
 			entityManagerFactory.setJpaPropertyMap(jpaProperties);
 		}
 
-		entityManagerFactory.afterPropertiesSet();
-
 		return entityManagerFactory;
 	}
 
+	@Bean
+	public CacheStatistics cacheStatistics() {
+		return new CacheStatistics(entityManagerFactory().getObject());
+	}
+
 	@Bean
 	public PlatformTransactionManager transactionManager() {
 		log.info("Configure JPA transaction manager");
@@ -96,6 +170,38 @@ public class DatabaseConfiguration {
 		return txManager;
 	}
 
+	/**
+	 * Detect database dialect: driver name is read once per data source (using a short-lived
+	 * connection) and given to {@link #dialect(String)}.
+	 *
+	 * @return Dialect, may be null.
+	 */
+	private Class<? extends Dialect> detectDialect() {
+		String driverName = DatabaseDrivers.name(dataSource);
+		Class<?> dialect = driverName == null ? null : dialect(driverName);
+		return dialect == null ? null : dialect.asSubclass(Dialect.class);
+	}
+
+	/**
+	 * Configure database dialect without querying the database.
+	 * If null is returned, dialect is determined with {@link #dialect(String)}.
+	 *
+	 * @return Class dialect.
+	 */
+	protected Class<? extends Dialect> configuredDialect() {
+		return null;
+	}
+
+	/**
+	 * Bootstrap entity manager factory in a background thread (see {@link BackgroundEntityManagerFactoryBean}).
+	 * Application context does not wait for hibernate: first database access blocks until bootstrap is over.
+	 *
+	 * @return True to bootstrap entity manager factory in background, false otherwise.
+	 */
+	protected boolean backgroundBootstrap() {
+		return false;
+	}
+
 	/**
 	 * Configure database dialect.
 	 * Use null to let hibernate determine dialect class.
@@ -118,8 +224,55 @@ public class DatabaseConfiguration {
 		return false;
 	}
 
+	/**
+	 * Configure JDBC batch size ('hibernate.jdbc.batch_size' property).
+	 * When batching is enabled, inserts and updates are also ordered so that
+	 * statements on the same table can be grouped in a single batch.
+	 * Use zero to disable JDBC batching.
+	 * Default value is the number of entities flushed at once by DAO batch operations
+	 * ({@link AbstractGenericDao#DEFAULT_BATCH_SIZE}), so that each flush fills JDBC batches.
+	 *
+	 * @return Batch size.
+	 */
+	protected int batchSize() {
+		return AbstractGenericDao.DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Enable second-level cache.
+	 * Only entities annotated with {@link javax.persistence.Cacheable} (or with hibernate
+	 * {@link org.hibernate.annotations.Cache} annotation) and entities declared in {@link #cacheRegions()}
+	 * are cached. Hit and miss statistics are available with {@link CacheStatistics} bean.
+	 *
+	 * @return True to enable second-level cache, false otherwise.
+	 */
+	protected boolean secondLevelCache() {
+		return false;
+	}
+
+	/**
+	 * Enable query cache (only used if second-level cache is enabled).
+	 * Queries must then be explicitly marked as cacheable ('org.hibernate.cacheable' hint).
+	 *
+	 * @return True to enable query cache, false otherwise.
+	 */
+	protected boolean queryCache() {
+		return false;
+	}
+
+	/**
+	 * Configure second-level cache regions (only used if second-level cache is enabled).
+	 * Regions that are not configured use default ehcache settings.
+	 *
+	 * @return Cache regions.
+	 */
+	protected List<CacheRegion> cacheRegions() {
+		return emptyList();
+	}
+
 	/**
 	 * Configure specific JPA properties.
+	 * These properties override default properties.
 	 *
 	 * @return JPA properties.
 	 */
@@ -127,6 +280,22 @@ public class DatabaseConfiguration {
 		return emptyMap();
 	}
 
+	/**
+	 * Use entity index generated at compile time (see {@link com.mjeanroy.springhub.commons.jpa.EntityIndexProcessor}) instead of
+	 * scanning {@link #packagesToScan()}: indexed classes that belong to these packages are registered
+	 * directly, and only jars (or directories) that do not contain an index are scanned.
+	 * Default is false: packages are scanned.
+	 *
+	 * Index is only generated if processor is enabled when entities are compiled (for example
+	 * with {@code -processor com.mjeanroy.springhub.commons.jpa.EntityIndexProcessor}, or with
+	 * {@code annotationProcessors} parameter of maven-compiler-plugin).
+	 *
+	 * @return True to use entity index, false to scan packages.
+	 */
+	protected boolean useEntityIndex() {
+		return false;
+	}
+
 	/**
 	 * Get packages to scan (packages that contain entities).
 	 *
@@ -0,0 +1,41 @@
+package com.mjeanroy.springhub.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mjeanroy.springhub.monitoring.DaoMonitoringPostProcessor;
+import com.mjeanroy.springhub.monitoring.MonitoredDataSource;
+import com.mjeanroy.springhub.monitoring.NPlusOneDetector;
+import com.mjeanroy.springhub.monitoring.QueryMonitor;
+
+/**
+ * Configure monitoring of DAO methods and detection of N+1 queries.
+ * SQL statements are monitored (and N+1 queries detected) if data source is wrapped in a
+ * {@link MonitoredDataSource} (using {@link QueryMonitor} bean).
+ */
+@Configuration
+public class MonitoringConfiguration {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(MonitoringConfiguration.class);
+
+	@Bean
+	public static QueryMonitor queryMonitor() {
+		log.info("Initialize query monitor");
+		return new QueryMonitor();
+	}
+
+	@Bean
+	public static DaoMonitoringPostProcessor daoMonitoringPostProcessor(QueryMonitor queryMonitor) {
+		log.info("Initialize DAO monitoring");
+		return new DaoMonitoringPostProcessor(queryMonitor);
+	}
+
+	@Bean
+	public NPlusOneDetector nPlusOneDetector(QueryMonitor queryMonitor) {
+		log.info("Initialize N+1 queries detector");
+		return new NPlusOneDetector(queryMonitor);
+	}
+}
@@ -1,25 +1,51 @@
 package com.mjeanroy.springhub.dao;
 
 import static com.google.common.collect.Iterables.isEmpty;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.mjeanroy.springhub.commons.reflections.ReflectionUtils.getGenericType;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
 import com.mjeanroy.springhub.models.entities.JPAEntity;
 
@@ -35,15 +61,73 @@ import com.mjeanroy.springhub.models.entities.JPAEntity;
 @Repository
 public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAEntity<PK>> {
 
+	/** Default number of rows fetched on each database round trip when scrolling entities. */
+	public static final int DEFAULT_FETCH_SIZE = 100;
+
+	/** Default number of entities read before they are flushed and detached when scrolling entities. */
+	public static final int DEFAULT_CLEAR_SIZE = 1000;
+
+	/**
+	 * Default number of entities processed between two flushes in batch operations.
+	 * Also used as default JDBC batch size (see {@link com.mjeanroy.springhub.configuration.DatabaseConfiguration#batchSize()}).
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 50;
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(AbstractGenericDao.class);
+
 	/** Parametrized class */
 	protected final Class<T> type;
 
+	/** Queries declared by this DAO. */
+	private final QueryRegistry queries;
+
+	/** Number of rows fetched on each database round trip by read-only queries. */
+	private volatile int fetchSize = DEFAULT_FETCH_SIZE;
+
+	/** Strategy used by {@link #count()}. */
+	private volatile CountStrategy countStrategy = CountStrategy.exact();
+
+	/** JPQL query selecting all entities, rendered once (see {@link #findAllQuery()}). */
+	private volatile String findAllQuery;
+
+	/** JPQL query counting all entities, rendered once (see {@link #countQuery()}). */
+	private volatile String countQuery;
+
 	/**
 	 * Create new DAO.
 	 * Generic type is automatically retrieved by reflection.
 	 */
 	protected AbstractGenericDao() {
 		this.type = (Class<T>) getGenericType(getClass(), 1);
+		this.queries = new QueryRegistry(ClassUtils.getUserClass(getClass()).getName());
+		declareQueries(queries);
+	}
+
+	/**
+	 * Declare queries used by this DAO.
+	 * Declared queries are validated when one of them is used for the first time (or when
+	 * {@link #initializeQueries()} is called) and then executed as named queries, so this
+	 * method should be preferred to string based queries for queries executed frequently.
+	 *
+	 * Note that this method is called from the constructor: it should only register
+	 * constant query definitions.
+	 *
+	 * @param registry Query registry.
+	 */
+	protected void declareQueries(QueryRegistry registry) {
+	}
+
+	/**
+	 * Validate and register queries declared by this DAO, an exception is thrown if a
+	 * declared query is not valid.
+	 * Queries are automatically registered when one of them is used for the first time: this
+	 * method is not called when DAO is initialized, since it needs the entity manager factory
+	 * (and would wait for it when entity manager factory is bootstrapped in background). It
+	 * can be called explicitly to validate queries before they are used.
+	 */
+	public void initializeQueries() {
+		queries.initialize(entityManager().getEntityManagerFactory());
 	}
 
 	/**
@@ -53,6 +137,24 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	 */
 	protected abstract EntityManager entityManager();
 
+	/**
+	 * Access to underlying hibernate session.
+	 *
+	 * @return Hibernate session.
+	 */
+	protected Session session() {
+		return entityManager().unwrap(Session.class);
+	}
+
+	/**
+	 * Get name of entity managed by this DAO (name to use in JPQL queries).
+	 *
+	 * @return Entity name.
+	 */
+	protected String entityName() {
+		return entityManager().getMetamodel().entity(type).getName();
+	}
+
 	/**
 	 * Get entity manager flush mode.
 	 *
@@ -85,6 +187,61 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 		entityManager().clear();
 	}
 
+	/**
+	 * Enable or disable read-only mode for current session.
+	 *
+	 * When read-only mode is enabled, entities are loaded as read-only (hibernate does not keep
+	 * snapshots of their state and they are never dirty checked) and session flush mode is
+	 * set to manual. Entities loaded before read-only mode is enabled are not affected.
+	 * When read-only mode is disabled, previous flush mode of session is restored.
+	 *
+	 * Note that queries executed in a read-only transaction always use read-only hints.
+	 *
+	 * @param readOnly New read-only flag.
+	 */
+	public void setReadOnly(boolean readOnly) {
+		ReadOnlyMode.set(entityManager(), readOnly);
+	}
+
+	/**
+	 * Check if current session is in read-only mode.
+	 *
+	 * @return True if read-only mode is enabled, false otherwise.
+	 */
+	public boolean isReadOnly() {
+		return ReadOnlyMode.isEnabled(entityManager());
+	}
+
+	/**
+	 * Get {@link #fetchSize}
+	 *
+	 * @return {@link #fetchSize}
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Set {@link #fetchSize}
+	 *
+	 * @param fetchSize New {@link #fetchSize} (zero or less to use driver default).
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Add read-only and fetch size hints to given query when read-only mode is
+	 * enabled or when current transaction is read-only.
+	 *
+	 * @param query Query.
+	 * @param <Q>   Type of query.
+	 * @return Query.
+	 */
+	protected <Q extends Query> Q prepare(Q query) {
+		return ReadOnlyMode.apply(entityManager(), query, fetchSize);
+	}
+
 	/**
 	 * Check if an entity is managed by the persistence context.
 	 *
@@ -103,6 +260,7 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	@Transactional
 	public void persist(T o) {
 		entityManager().persist(o);
+		countStrategy.invalidate(type);
 	}
 
 	/**
@@ -113,7 +271,9 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	 */
 	@Transactional
 	public T merge(T o) {
-		return entityManager().merge(o);
+		T entity = entityManager().merge(o);
+		countStrategy.invalidate(type);
+		return entity;
 	}
 
 	/**
@@ -124,6 +284,225 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	@Transactional
 	public void remove(T o) {
 		entityManager().remove(o);
+		countStrategy.invalidate(type);
+	}
+
+	/**
+	 * Persist a large number of entities.
+	 *
+	 * @param entities Entities to persist.
+	 * @return Result of operation.
+	 * @see #saveAll(Iterable, int)
+	 */
+	@Transactional
+	public BatchResult saveAll(Iterable<T> entities) {
+		return saveAll(entities, batchSize());
+	}
+
+	/**
+	 * Persist a large number of entities.
+	 * Persistence context is flushed every {@code batchSize} entities and persisted entities
+	 * are then detached, so they are detached when this method returns (other entities managed
+	 * by the persistence context are left untouched). Statements are sent to the
+	 * database in JDBC batches if {@code hibernate.jdbc.batch_size} is set (see
+	 * {@link com.mjeanroy.springhub.configuration.DatabaseConfiguration#batchSize()}).
+	 *
+	 * Note that hibernate disables insert batching for entities using an identity
+	 * column (see {@link com.mjeanroy.springhub.models.entities.identity.AbstractEntity},
+	 * and {@link com.mjeanroy.springhub.models.entities.auto.AbstractEntity} on databases
+	 * where native generator is an identity column): in that case, inserts are executed
+	 * one by one, but memory usage is still bounded by {@code batchSize}. Entities extending
+	 * {@link com.mjeanroy.springhub.models.entities.sequence.AbstractEntity} keep insert batching.
+	 *
+	 * @param entities  Entities to persist.
+	 * @param batchSize Number of entities persisted between two flushes.
+	 * @return Result of operation.
+	 */
+	@Transactional
+	public BatchResult saveAll(Iterable<T> entities, int batchSize) {
+		BatchResult result = Batch.execute(entityManager(), entities, batchSize, Batch.Operation.PERSIST);
+		countStrategy.invalidate(type);
+		return result;
+	}
+
+	/**
+	 * Merge a large number of entities.
+	 *
+	 * @param entities Entities to merge.
+	 * @return Result of operation.
+	 * @see #mergeAll(Iterable, int)
+	 */
+	@Transactional
+	public BatchResult mergeAll(Iterable<T> entities) {
+		return mergeAll(entities, batchSize());
+	}
+
+	/**
+	 * Merge a large number of entities.
+	 * Persistence context is flushed every {@code batchSize} entities and processed entities
+	 * are then detached (other entities managed by the persistence context are left untouched).
+	 *
+	 * @param entities  Entities to merge.
+	 * @param batchSize Number of entities merged between two flushes.
+	 * @return Result of operation.
+	 * @see #saveAll(Iterable, int)
+	 */
+	@Transactional
+	public BatchResult mergeAll(Iterable<T> entities, int batchSize) {
+		BatchResult result = Batch.execute(entityManager(), entities, batchSize, Batch.Operation.MERGE);
+		countStrategy.invalidate(type);
+		return result;
+	}
+
+	/**
+	 * Remove a large number of entities.
+	 *
+	 * @param entities Entities to remove.
+	 * @return Result of operation.
+	 * @see #removeAll(Iterable, int)
+	 */
+	@Transactional
+	public BatchResult removeAll(Iterable<T> entities) {
+		return removeAll(entities, batchSize());
+	}
+
+	/**
+	 * Remove a large number of entities.
+	 * Persistence context is flushed every {@code batchSize} entities and processed entities
+	 * are then detached (other entities managed by the persistence context are left untouched).
+	 *
+	 * @param entities  Entities to remove.
+	 * @param batchSize Number of entities removed between two flushes.
+	 * @return Result of operation.
+	 * @see #saveAll(Iterable, int)
+	 */
+	@Transactional
+	public BatchResult removeAll(Iterable<T> entities, int batchSize) {
+		BatchResult result = Batch.execute(entityManager(), entities, batchSize, Batch.Operation.REMOVE);
+		countStrategy.invalidate(type);
+		return result;
+	}
+
+	/**
+	 * Number of entities processed between two flushes in batch
+	 * operations ({@link #saveAll(Iterable)}, {@link #mergeAll(Iterable)}
+	 * and {@link #removeAll(Iterable)}).
+	 * Should match {@code hibernate.jdbc.batch_size} setting.
+	 *
+	 * @return Batch size.
+	 */
+	protected int batchSize() {
+		return DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Delete all entities matching given criterion with a single statement.
+	 *
+	 * Entities are not loaded: pending changes are flushed, statement is executed and then
+	 * entities of this DAO type are detached from persistence context and evicted from second-level
+	 * cache and from caches registered in {@link InvalidationRegistry}, so that deleted rows cannot be
+	 * returned from a cache. Note that cascade operations and entity callbacks are not applied.
+	 *
+	 * @param criterion Restriction, null to delete all entities.
+	 * @return Number of deleted rows.
+	 */
+	@Transactional
+	public int bulkDelete(Criterion<T> criterion) {
+		EntityManager em = entityManager();
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaDelete<T> delete = builder.createCriteriaDelete(type);
+		Root<T> root = delete.from(type);
+		if (criterion != null) {
+			delete.where(criterion.toPredicate(root, builder));
+		}
+
+		return executeBulk(em, em.createQuery(delete));
+	}
+
+	/**
+	 * Update all entities matching given criterion with a single statement.
+	 *
+	 * Entities are not loaded: pending changes are flushed, statement is executed and then
+	 * entities of this DAO type are detached from persistence context and evicted from second-level
+	 * cache and from caches registered in {@link InvalidationRegistry}, so that stale state cannot be
+	 * returned from a cache. Note that version attributes are not incremented and entity callbacks
+	 * are not applied.
+	 *
+	 * @param values    New values, indexed by attribute name.
+	 * @param criterion Restriction, null to update all entities.
+	 * @return Number of updated rows.
+	 */
+	@Transactional
+	public int bulkUpdate(Map<String, ?> values, Criterion<T> criterion) {
+		EntityManager em = entityManager();
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaUpdate<T> update = builder.createCriteriaUpdate(type);
+		Root<T> root = update.from(type);
+		for (Map.Entry<String, ?> e : values.entrySet()) {
+			update.set(e.getKey(), e.getValue());
+		}
+
+		if (criterion != null) {
+			update.where(criterion.toPredicate(root, builder));
+		}
+
+		return executeBulk(em, em.createQuery(update));
+	}
+
+	/**
+	 * Execute a JPQL update or delete statement on entities of this DAO.
+	 *
+	 * @param query  JPQL statement.
+	 * @param params Statement parameters.
+	 * @return Number of updated or deleted rows.
+	 * @see #bulkUpdate(Map, Criterion)
+	 * @see #bulkDelete(Criterion)
+	 */
+	@Transactional
+	public int bulkExecute(CharSequence query, Map<String, ?> params) {
+		EntityManager em = entityManager();
+		Query q = em.createQuery(query.toString());
+		if (params != null && !params.isEmpty()) {
+			for (Map.Entry<String, ?> e : params.entrySet()) {
+				q.setParameter(e.getKey(), e.getValue());
+			}
+		}
+
+		return executeBulk(em, q);
+	}
+
+	private int executeBulk(EntityManager em, Query query) {
+		// Pending changes must be written before rows are updated or deleted.
+		em.flush();
+
+		int rows = query.executeUpdate();
+		log.debug("Bulk statement on {}: {} rows", type.getSimpleName(), rows);
+
+		evict(em);
+		countStrategy.invalidate(type);
+
+		// Bulk statements do not trigger hibernate events
+		InvalidationRegistry.invalidateAll(em.getEntityManagerFactory(), type);
+		return rows;
+	}
+
+	private void evict(EntityManager em) {
+		PersistenceContext persistenceContext = ((SessionImplementor) em.unwrap(Session.class)).getPersistenceContext();
+		List<Object> entities = new ArrayList<Object>();
+		for (Object entity : persistenceContext.getEntitiesByKey().values()) {
+			if (type.isInstance(entity)) {
+				entities.add(entity);
+			}
+		}
+
+		for (Object entity : entities) {
+			em.detach(entity);
+		}
+
+		Cache cache = em.getEntityManagerFactory().getCache();
+		if (cache != null) {
+			cache.evict(type);
+		}
 	}
 
 	/**
@@ -157,13 +536,28 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 
 	/**
 	 * Find an entity by its primary key.
+	 * Entity is loaded as read-only if read-only mode is enabled or if current transaction is read-only.
 	 *
 	 * @param primaryKey Primary key.
 	 *
 	 * @return Entity.
 	 */
 	public T findOne(PK primaryKey) {
-		return entityManager().find(type, primaryKey);
+		return ReadOnlyMode.find(entityManager(), type, primaryKey, null);
+	}
+
+	/**
+	 * Find an entity by its primary key and load associations described by given fetch plan
+	 * in the same query.
+	 *
+	 * @param primaryKey Primary key.
+	 * @param plan       Fetch plan.
+	 *
+	 * @return Entity.
+	 */
+	public T findOne(PK primaryKey, FetchPlan plan) {
+		EntityManager em = entityManager();
+		return ReadOnlyMode.find(em, type, primaryKey, plan.toHints(em, type));
 	}
 
 	/**
@@ -190,26 +584,47 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	 * @return All entity.
 	 */
 	public List<T> findAll() {
-		EntityManager em = entityManager();
-		CriteriaBuilder builder = em.getCriteriaBuilder();
-		CriteriaQuery<T> query = builder.createQuery(type);
-		Root<T> root = query.from(type);
-		query.select(root);
-		return em.createQuery(query).getResultList();
+		return prepare(entityManager().createQuery(findAllQuery(), type)).getResultList();
 	}
 
 	/**
 	 * Find all entities where id is in given collection.
+	 * Ids are split into bounded IN-lists sized for the database dialect.
 	 *
 	 * @return Entities.
 	 */
-	@SuppressWarnings("unchecked")
 	public <K> List<T> findAll(Iterable<K> id) {
+		return findAll(id, null);
+	}
+
+	/**
+	 * Find all entities where id is in given collection and load associations described by
+	 * given fetch plan in the same query (one query per IN-list).
+	 *
+	 * @param id   Ids.
+	 * @param plan Fetch plan, may be null.
+	 *
+	 * @return Entities.
+	 */
+	public <K> List<T> findAll(Iterable<K> id, FetchPlan plan) {
 		if (isEmpty(id)) {
 			return new ArrayList<T>();
 		}
 
 		EntityManager em = entityManager();
+		List<List<K>> chunks = InClause.partition(id, InClause.size(em));
+		if (chunks.size() == 1) {
+			return findAllByIds(em, chunks.get(0), plan);
+		}
+
+		List<T> results = new ArrayList<T>();
+		for (List<K> chunk : chunks) {
+			results.addAll(findAllByIds(em, chunk, plan));
+		}
+		return results;
+	}
+
+	private <K> List<T> findAllByIds(EntityManager em, List<K> ids, FetchPlan plan) {
 		CriteriaBuilder builder = em.getCriteriaBuilder();
 		CriteriaQuery<T> query = builder.createQuery(type);
 		Root<T> root = query.from(type);
@@ -217,23 +632,30 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 
 		// Select by id
 		query.where(
-				root.get("id").in(id)
+				root.get("id").in(ids)
 		);
 
-		return em.createQuery(query).getResultList();
+		if (plan == null) {
+			return prepare(em.createQuery(query)).getResultList();
+		}
+
+		// Collections of the fetch graph are joined: remove duplicated roots
+		query.distinct(true);
+		TypedQuery<T> typedQuery = prepare(em.createQuery(query));
+		return plan.apply(em, type, typedQuery).getResultList();
 	}
 
 	/**
 	 * Find all entities where attribute value is in given values.
 	 * A map indexed by value is returned.
+	 * Entities already managed by the persistence context are not queried again.
 	 *
 	 * @return Entities.
 	 */
-	@SuppressWarnings("unchecked")
 	public Map<PK, T> indexById(Iterable<PK> values) {
-		List<T> results = findAll(values);
+		List<T> results = multiLoad(values);
 
-		Map<PK, T> map = new HashMap<PK, T>();
+		Map<PK, T> map = newHashMapWithExpectedSize(results.size());
 		for (T result : results) {
 			map.put(result.getId(), result);
 		}
@@ -242,18 +664,337 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	}
 
 	/**
-	 * Count all entities associated to this DAO.
+	 * Find entities by id, removed entities are skipped.
 	 *
-	 * @return Total number of entities.
+	 * @param ids Ids.
+	 * @return Entities.
+	 * @see #multiLoad(Iterable, boolean)
 	 */
-	public long count() {
+	public List<T> multiLoad(Iterable<PK> ids) {
+		return multiLoad(ids, true);
+	}
+
+	/**
+	 * Find entities by id.
+	 * Entities already managed by the persistence context are returned directly, and
+	 * missing entities are loaded with a single batch of queries.
+	 *
+	 * Entities are returned in the same order as given ids, ids that do not
+	 * exist in database are skipped.
+	 *
+	 * @param ids         Ids.
+	 * @param skipRemoved True to skip entities that have been removed in current persistence context.
+	 * @return Entities.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> multiLoad(Iterable<PK> ids, boolean skipRemoved) {
+		if (isEmpty(ids)) {
+			return new ArrayList<T>();
+		}
+
+		SessionImplementor session = (SessionImplementor) session();
+		EntityPersister persister = session.getFactory().getEntityPersister(type.getName());
+		PersistenceContext persistenceContext = session.getPersistenceContext();
+
+		Map<PK, T> entities = new HashMap<PK, T>();
+		Set<PK> removed = new HashSet<PK>();
+		List<PK> missing = new ArrayList<PK>();
+
+		for (PK id : ids) {
+			if (id == null || entities.containsKey(id) || removed.contains(id)) {
+				continue;
+			}
+
+			EntityKey key = session.generateEntityKey(id, persister);
+			Object entity = persistenceContext.getEntity(key);
+			if (entity == null) {
+				missing.add(id);
+			}
+			else if (skipRemoved && isRemoved(persistenceContext.getEntry(entity))) {
+				removed.add(id);
+			}
+			else {
+				entities.put(id, (T) entity);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			for (T entity : findAll(missing)) {
+				entities.put(entity.getId(), entity);
+			}
+		}
+
+		List<T> results = new ArrayList<T>(entities.size());
+		for (PK id : ids) {
+			T entity = id == null ? null : entities.get(id);
+			if (entity != null) {
+				results.add(entity);
+			}
+		}
+
+		return results;
+	}
+
+	private static boolean isRemoved(EntityEntry entry) {
+		return entry != null && (entry.getStatus() == Status.DELETED || entry.getStatus() == Status.GONE);
+	}
+
+	/**
+	 * Find a page of entities sorted by id, using keyset pagination.
+	 *
+	 * @param token Token returned with previous page, null to get first page.
+	 * @param size  Maximum number of entities in page.
+	 * @return Page of entities.
+	 */
+	public Slice<T> findSlice(String token, int size) {
+		return findSlice("id", true, token, size);
+	}
+
+	/**
+	 * Find a page of entities sorted by given attribute, using keyset pagination.
+	 * Id is used as a tie-breaker, so attribute values do not need to be unique, but
+	 * they must not be null.
+	 *
+	 * Contrary to offset pagination, retrieving a page has the same cost whatever its
+	 * position (as long as an index exists on sort attribute and id).
+	 *
+	 * @param attribute Name of sort attribute.
+	 * @param ascending True to sort entities in ascending order, false to sort entities in descending order.
+	 * @param token     Token returned with previous page, null to get first page.
+	 * @param size      Maximum number of entities in page.
+	 * @return Page of entities.
+	 * @throws IllegalArgumentException If token is not valid.
+	 */
+	@SuppressWarnings("rawtypes")
+	public Slice<T> findSlice(String attribute, boolean ascending, String token, int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Page size must be strictly positive");
+		}
+
 		EntityManager em = entityManager();
 		CriteriaBuilder builder = em.getCriteriaBuilder();
-		CriteriaQuery<Long> query = builder.createQuery(Long.class);
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
 		Root<T> root = query.from(type);
-		query.select(builder.count(root));
-		Long count = em.createQuery(query).getSingleResult();
-		return count == null ? 0 : count;
+		Path<Comparable> id = root.get("id");
+		Path<Comparable> sort = root.get(attribute);
+		boolean sortById = "id".equals(attribute);
+
+		query.multiselect(root, sort);
+
+		if (token != null) {
+			// Id is declared with a generic type in mapped superclasses, use hibernate metadata to get real types
+			ClassMetadata metadata = session().getSessionFactory().getClassMetadata(type);
+			Class<?> idType = metadata.getIdentifierType().getReturnedClass();
+			Class<?> sortType = sortById ? idType : metadata.getPropertyType(attribute).getReturnedClass();
+			ContinuationToken last = ContinuationToken.decode(token, sortType, idType);
+			Comparable value = (Comparable) last.getValue();
+			Comparable lastId = (Comparable) last.getId();
+
+			Predicate afterId = ascending ? builder.greaterThan(id, lastId) : builder.lessThan(id, lastId);
+			if (sortById) {
+				query.where(afterId);
+			}
+			else {
+				Predicate afterValue = ascending ? builder.greaterThan(sort, value) : builder.lessThan(sort, value);
+				query.where(builder.or(afterValue, builder.and(builder.equal(sort, value), afterId)));
+			}
+		}
+
+		if (sortById) {
+			query.orderBy(ascending ? builder.asc(id) : builder.desc(id));
+		}
+		else {
+			query.orderBy(
+					ascending ? builder.asc(sort) : builder.desc(sort),
+					ascending ? builder.asc(id) : builder.desc(id)
+			);
+		}
+
+		// Fetch one more entity to know if there is a next page
+		TypedQuery<Tuple> q = prepare(em.createQuery(query));
+		q.setMaxResults(size + 1);
+		List<Tuple> tuples = q.getResultList();
+
+		boolean hasNext = tuples.size() > size;
+		int nb = hasNext ? size : tuples.size();
+		List<T> content = new ArrayList<T>(nb);
+		for (int i = 0; i < nb; i++) {
+			content.add((T) tuples.get(i).get(0));
+		}
+
+		String next = null;
+		if (hasNext) {
+			Tuple tuple = tuples.get(nb - 1);
+			T entity = (T) tuple.get(0);
+			next = ContinuationToken.encode(tuple.get(1), entity.getId());
+		}
+
+		return new Slice<T>(content, next);
+	}
+
+	/**
+	 * Find all entities associated to this DAO and project given attributes
+	 * into instances of given class, using a constructor expression.
+	 *
+	 * Only selected columns are read and no entity is created: this method should be
+	 * preferred to {@link #findAll()} followed by a mapping to read-only objects.
+	 * Given class must declare a public constructor whose parameters match selected attributes.
+	 *
+	 * @param klass      Projection class.
+	 * @param attributes Attributes to select, nested attributes can be selected with a dot notation (for example {@code "owner.name"}).
+	 * @param <R>        Type of projection.
+	 * @return Projections.
+	 */
+	public <R> List<R> findAllAs(Class<R> klass, String... attributes) {
+		EntityManager em = entityManager();
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<R> query = builder.createQuery(klass);
+		Root<T> root = query.from(type);
+
+		Selection<?>[] selections = new Selection<?>[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			selections[i] = path(root, attributes[i]);
+		}
+
+		query.select(builder.construct(klass, selections));
+		return em.createQuery(query).getResultList();
+	}
+
+	/**
+	 * Find projections with a JPQL query, typically using a constructor
+	 * expression ({@code SELECT NEW com.company.FooDto(foo.id, foo.name) FROM Foo foo}).
+	 *
+	 * @param klass  Projection class.
+	 * @param query  Query.
+	 * @param params Query parameters.
+	 * @param <R>    Type of projection.
+	 * @return Projections.
+	 */
+	public <R> List<R> findAllAs(Class<R> klass, CharSequence query, Map<String, ?> params) {
+		TypedQuery<R> q = entityManager().createQuery(query.toString(), klass);
+		if (params != null && !params.isEmpty()) {
+			for (Map.Entry<String, ?> e : params.entrySet()) {
+				q.setParameter(e.getKey(), e.getValue());
+			}
+		}
+		return q.getResultList();
+	}
+
+	/**
+	 * Find all entities associated to this DAO and project given attributes into
+	 * java beans (for example DTO objects).
+	 *
+	 * Only selected columns are read and no entity is created. Given class must declare
+	 * a default constructor, each attribute is set using the bean property with the same name.
+	 *
+	 * @param klass      Bean class.
+	 * @param attributes Attributes to select, nested attributes can be selected with a dot notation (for example {@code "owner.name"}).
+	 * @param <R>        Type of bean.
+	 * @return Beans.
+	 */
+	public <R> List<R> findAllAsBeans(Class<R> klass, String... attributes) {
+		List<Tuple> tuples = findTuples(attributes);
+		List<R> results = new ArrayList<R>(tuples.size());
+		for (Tuple tuple : tuples) {
+			BeanWrapper bean = new BeanWrapperImpl(klass);
+			bean.setAutoGrowNestedPaths(true);
+			for (int i = 0; i < attributes.length; i++) {
+				bean.setPropertyValue(attributes[i], tuple.get(i));
+			}
+			results.add((R) bean.getWrappedInstance());
+		}
+		return results;
+	}
+
+	/**
+	 * Find all entities associated to this DAO and select given attributes as tuples.
+	 * Each tuple element is aliased with attribute name (dots of nested attributes are
+	 * replaced with underscores, for example {@code "owner_name"}).
+	 *
+	 * @param attributes Attributes to select, nested attributes can be selected with a dot notation (for example {@code "owner.name"}).
+	 * @return Tuples.
+	 */
+	public List<Tuple> findTuples(String... attributes) {
+		EntityManager em = entityManager();
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<T> root = query.from(type);
+
+		Selection<?>[] selections = new Selection<?>[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			selections[i] = path(root, attributes[i]).alias(attributes[i].replace('.', '_'));
+		}
+
+		query.multiselect(selections);
+		return em.createQuery(query).getResultList();
+	}
+
+	private static Path<?> path(Root<?> root, String attribute) {
+		Path<?> path = root;
+		for (String name : attribute.split("\\.")) {
+			path = path.get(name);
+		}
+		return path;
+	}
+
+	/**
+	 * Count all entities associated to this DAO.
+	 *
+	 * @return Total number of entities.
+	 */
+	public long count() {
+		return countStrategy.count(entityManager(), type, countQuery());
+	}
+
+	/**
+	 * Get {@link #countStrategy}
+	 *
+	 * @return {@link #countStrategy}
+	 */
+	public CountStrategy getCountStrategy() {
+		return countStrategy;
+	}
+
+	/**
+	 * Set {@link #countStrategy}
+	 * Default strategy is {@link CountStrategy#exact()}.
+	 *
+	 * @param countStrategy New {@link #countStrategy}
+	 */
+	public void setCountStrategy(CountStrategy countStrategy) {
+		this.countStrategy = countStrategy;
+	}
+
+	/**
+	 * Get JPQL query selecting all entities associated to this DAO.
+	 * Query is rendered once and then reused, so that hibernate query plan
+	 * cache is hit on each execution.
+	 *
+	 * @return JPQL query.
+	 */
+	protected String findAllQuery() {
+		String query = findAllQuery;
+		if (query == null) {
+			query = "SELECT x FROM " + entityName() + " x";
+			findAllQuery = query;
+		}
+		return query;
+	}
+
+	/**
+	 * Get JPQL query counting all entities associated to this DAO.
+	 * Query is rendered once and then reused, so that hibernate query plan
+	 * cache is hit on each execution.
+	 *
+	 * @return JPQL query.
+	 */
+	protected String countQuery() {
+		String query = countQuery;
+		if (query == null) {
+			query = "SELECT COUNT(x) FROM " + entityName() + " x";
+			countQuery = query;
+		}
+		return query;
 	}
 
 	/**
@@ -322,7 +1063,235 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	 * @return All entities matching given query.
 	 */
 	public List<T> findAll(Query query) {
-		return (List<T>) query.getResultList();
+		return (List<T>) prepare(query).getResultList();
+	}
+
+	/**
+	 * Find list of entities with a query declared by this DAO.
+	 *
+	 * @param query Query definition.
+	 * @param args  Query arguments.
+	 * @return All entities matching given query.
+	 * @see #declareQueries(QueryRegistry)
+	 */
+	public List<T> findAll(QueryDefinition query, QueryArgument... args) {
+		return findAll(query, -1, args);
+	}
+
+	/**
+	 * Find list of entities with a query declared by this DAO and limit number of results to a given number.
+	 *
+	 * @param query Query definition.
+	 * @param limit Maximum number of results.
+	 * @param args  Query arguments.
+	 * @return All entities matching given query.
+	 * @see #declareQueries(QueryRegistry)
+	 */
+	public List<T> findAll(QueryDefinition query, int limit, QueryArgument... args) {
+		Query q = queries.create(entityManager(), query, args);
+		if (limit > 0) {
+			q.setMaxResults(limit);
+		}
+		return findAll(q);
+	}
+
+	/**
+	 * Find entity with a query declared by this DAO.
+	 *
+	 * @param query Query definition.
+	 * @param args  Query arguments.
+	 * @return Entity matching given query, null if query does not return any result.
+	 * @see #declareQueries(QueryRegistry)
+	 */
+	public T findOne(QueryDefinition query, QueryArgument... args) {
+		try {
+			return (T) prepare(queries.create(entityManager(), query, args)).getSingleResult();
+		}
+		catch (NoResultException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Count results of a count query declared by this DAO.
+	 *
+	 * @param query Query definition (should select a single number).
+	 * @param args  Query arguments.
+	 * @return Count.
+	 * @see #declareQueries(QueryRegistry)
+	 */
+	public long count(QueryDefinition query, QueryArgument... args) {
+		Number count = (Number) queries.create(entityManager(), query, args).getSingleResult();
+		return count == null ? 0 : count.longValue();
+	}
+
+	/**
+	 * Iterate over all entities associated to this DAO using a forward-only cursor.
+	 * Entities are not loaded in memory at once and are flushed and detached
+	 * periodically: this method should be used to process very large tables.
+	 *
+	 * Returned iterator must be consumed in a transaction and should be closed
+	 * if iteration is stopped before the last entity.
+	 *
+	 * @return Iterator.
+	 */
+	public ScrollIterator<T> iterate() {
+		return iterate(findAllQuery(), null);
+	}
+
+	/**
+	 * Iterate over entities whose id belongs to given range, ordered by id, using a
+	 * forward-only cursor.
+	 * Entity id must be numeric.
+	 *
+	 * @param range Range of ids.
+	 * @return Iterator.
+	 * @see #findIdRange()
+	 */
+	public ScrollIterator<T> iterate(IdRange range) {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("min", toId(range.getMin()));
+		params.put("max", toId(range.getMax()));
+		return iterate("SELECT x FROM " + entityName() + " x WHERE x.id BETWEEN :min AND :max ORDER BY x.id", params);
+	}
+
+	/**
+	 * Get lowest and highest ids of entities associated to this DAO.
+	 * Entity id must be numeric.
+	 *
+	 * @return Range of ids, null if there is no entity.
+	 */
+	public IdRange findIdRange() {
+		Object[] bounds = (Object[]) entityManager()
+				.createQuery("SELECT MIN(x.id), MAX(x.id) FROM " + entityName() + " x")
+				.getSingleResult();
+
+		if (bounds[0] == null) {
+			return null;
+		}
+
+		if (!(bounds[0] instanceof Number)) {
+			throw new IllegalStateException("Id of entity " + type.getName() + " is not numeric");
+		}
+
+		return new IdRange(((Number) bounds[0]).longValue(), ((Number) bounds[1]).longValue());
+	}
+
+	private Object toId(long value) {
+		Class<?> idType = session().getSessionFactory().getClassMetadata(type).getIdentifierType().getReturnedClass();
+		if (idType == Integer.class || idType == int.class) {
+			return (int) value;
+		}
+		if (idType == Short.class || idType == short.class) {
+			return (short) value;
+		}
+		if (idType == Long.class || idType == long.class) {
+			return value;
+		}
+		throw new IllegalStateException("Id of entity " + type.getName() + " is not numeric");
+	}
+
+	/**
+	 * Iterate over all entities matching given query using a forward-only cursor.
+	 * Cursor uses fetch size of this DAO.
+	 *
+	 * @param query  Query.
+	 * @param params Query parameters.
+	 * @return Iterator.
+	 * @see #getFetchSize()
+	 */
+	public ScrollIterator<T> iterate(CharSequence query, Map<String, ?> params) {
+		return iterate(query, params, getFetchSize(), DEFAULT_CLEAR_SIZE);
+	}
+
+	/**
+	 * Iterate over all entities matching given query using a forward-only cursor.
+	 *
+	 * @param query     Query.
+	 * @param params    Query parameters.
+	 * @param fetchSize JDBC fetch size.
+	 * @param clearSize Number of entities to read before they are flushed and detached (zero or less to never detach them).
+	 * @return Iterator.
+	 */
+	public ScrollIterator<T> iterate(CharSequence query, Map<String, ?> params, int fetchSize, int clearSize) {
+		Query q = entityManager().createQuery(query.toString());
+		if (params != null && !params.isEmpty()) {
+			for (Map.Entry<String, ?> e : params.entrySet()) {
+				q.setParameter(e.getKey(), e.getValue());
+			}
+		}
+		return iterate(q, fetchSize, clearSize);
+	}
+
+	/**
+	 * Iterate over all entities matching given query using a forward-only cursor.
+	 * Entities are read-only when read-only mode is enabled or when current
+	 * transaction is read-only.
+	 *
+	 * @param query     Query.
+	 * @param fetchSize JDBC fetch size.
+	 * @param clearSize Number of entities to read before they are flushed and detached (zero or less to never detach them).
+	 * @return Iterator.
+	 */
+	public ScrollIterator<T> iterate(Query query, int fetchSize, int clearSize) {
+		org.hibernate.Query q = prepare(query).unwrap(org.hibernate.Query.class);
+		if (fetchSize > 0) {
+			q.setFetchSize(fetchSize);
+		}
+
+		ScrollableResults results = q.scroll(ScrollMode.FORWARD_ONLY);
+		return new ScrollIterator<T>(results, session(), clearSize);
+	}
+
+	/**
+	 * Process all entities associated to this DAO using a forward-only cursor.
+	 * Cursor is closed when method returns.
+	 *
+	 * @param callback Callback invoked for each entity.
+	 * @return Number of processed entities.
+	 */
+	public long scroll(EntityCallback<T> callback) {
+		return scroll(iterate(), callback);
+	}
+
+	/**
+	 * Process all entities matching given query using a forward-only cursor.
+	 * Cursor is closed when method returns.
+	 *
+	 * @param query    Query.
+	 * @param params   Query parameters.
+	 * @param callback Callback invoked for each entity.
+	 * @return Number of processed entities.
+	 */
+	public long scroll(CharSequence query, Map<String, ?> params, EntityCallback<T> callback) {
+		return scroll(iterate(query, params), callback);
+	}
+
+	/**
+	 * Process all entities matching given query using a forward-only cursor.
+	 * Cursor is closed when method returns.
+	 *
+	 * @param query     Query.
+	 * @param params    Query parameters.
+	 * @param fetchSize JDBC fetch size.
+	 * @param clearSize Number of entities to read before they are flushed and detached (zero or less to never detach them).
+	 * @param callback  Callback invoked for each entity.
+	 * @return Number of processed entities.
+	 */
+	public long scroll(CharSequence query, Map<String, ?> params, int fetchSize, int clearSize, EntityCallback<T> callback) {
+		return scroll(iterate(query, params, fetchSize, clearSize), callback);
+	}
+
+	private long scroll(ScrollIterator<T> iterator, EntityCallback<T> callback) {
+		try {
+			while (iterator.hasNext()) {
+				callback.doWith(iterator.next());
+			}
+			return iterator.getCount();
+		}
+		finally {
+			iterator.close();
+		}
 	}
 
 	/**
@@ -361,7 +1330,7 @@ public abstract class AbstractGenericDao<PK extends Serializable, T extends JPAE
 	 */
 	public T findOne(final Query query) {
 		try {
-			return (T) query.getSingleResult();
+			return (T) prepare(query).getSingleResult();
 		}
 		catch (NoResultException ex) {
 			return null;
@@ -0,0 +1,119 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Apply an operation on a large number of entities, flushing the persistence context
+ * and detaching processed entities every {@code size} entities.
+ *
+ * Only entities of the batch are detached: other entities managed by the persistence
+ * context (loaded by the caller before the batch) stay managed. Note that associated
+ * entities loaded by a merge are detached only if association cascades detach operation.
+ *
+ * When hibernate JDBC batching is enabled (see {@code hibernate.jdbc.batch_size}),
+ * statements generated by each flush are sent to the database in batches.
+ */
+final class Batch {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(Batch.class);
+
+	private Batch() {
+	}
+
+	/** Operation applied on each entity. */
+	enum Operation {
+		PERSIST {
+			@Override
+			Object apply(EntityManager entityManager, Object entity) {
+				entityManager.persist(entity);
+				return entity;
+			}
+		},
+
+		MERGE {
+			@Override
+			Object apply(EntityManager entityManager, Object entity) {
+				return entityManager.merge(entity);
+			}
+		},
+
+		REMOVE {
+			@Override
+			Object apply(EntityManager entityManager, Object entity) {
+				// Entities may have been detached by a previous batch
+				Object managed = entityManager.contains(entity) ? entity : entityManager.merge(entity);
+				entityManager.remove(managed);
+				return managed;
+			}
+		};
+
+		/**
+		 * Apply operation.
+		 *
+		 * @param entityManager Entity manager.
+		 * @param entity        Entity.
+		 * @return Instance attached to the persistence context by this operation.
+		 */
+		abstract Object apply(EntityManager entityManager, Object entity);
+	}
+
+	/**
+	 * Apply operation on each entity.
+	 * Persistence context is flushed every {@code size} entities and when all entities
+	 * have been processed, and processed entities are then detached: entities of the batch
+	 * are detached when method returns, other managed entities are left untouched.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param entities      Entities.
+	 * @param size          Number of entities processed between two flushes.
+	 * @param operation     Operation.
+	 * @return Result of operation.
+	 */
+	static BatchResult execute(EntityManager entityManager, Iterable<?> entities, int size, Operation operation) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Batch size must be strictly positive");
+		}
+
+		long start = System.nanoTime();
+		long count = 0;
+		List<Object> attached = new ArrayList<Object>(size);
+
+		for (Object entity : entities) {
+			attached.add(operation.apply(entityManager, entity));
+			count++;
+
+			if (count % size == 0) {
+				flush(entityManager, attached);
+			}
+		}
+
+		if (!attached.isEmpty()) {
+			flush(entityManager, attached);
+		}
+
+		BatchResult result = new BatchResult(count, System.nanoTime() - start);
+		log.debug("Batch {}: {}", operation, result);
+		return result;
+	}
+
+	/**
+	 * Flush persistence context and detach given entities (instead of clearing the whole
+	 * persistence context, which would also detach entities loaded by the caller).
+	 *
+	 * @param entityManager Entity manager.
+	 * @param attached      Entities attached by current batch, list is cleared.
+	 */
+	private static void flush(EntityManager entityManager, List<Object> attached) {
+		entityManager.flush();
+		for (Object entity : attached) {
+			entityManager.detach(entity);
+		}
+		attached.clear();
+	}
+}
@@ -0,0 +1,58 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.lang.String.format;
+
+/**
+ * Result of a batch operation (number of processed entities and duration).
+ */
+public class BatchResult {
+
+	/** Number of processed entities. */
+	private final long count;
+
+	/** Duration of operation, in nanoseconds. */
+	private final long duration;
+
+	/**
+	 * Create new result.
+	 *
+	 * @param count    Number of processed entities.
+	 * @param duration Duration of operation, in nanoseconds.
+	 */
+	public BatchResult(long count, long duration) {
+		this.count = count;
+		this.duration = duration;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get duration of operation in milliseconds.
+	 *
+	 * @return Duration in milliseconds.
+	 */
+	public long getDurationMillis() {
+		return duration / 1000000L;
+	}
+
+	/**
+	 * Get throughput of operation.
+	 *
+	 * @return Number of processed entities per second.
+	 */
+	public double getRowsPerSecond() {
+		return duration <= 0 ? 0 : count * 1000000000D / duration;
+	}
+
+	@Override
+	public String toString() {
+		return format("%s{count=%s, duration=%sms, rowsPerSecond=%.2f}", getClass().getSimpleName(), count, getDurationMillis(), getRowsPerSecond());
+	}
+}
@@ -0,0 +1,166 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Count strategy keeping exact counts for a given time.
+ *
+ * Counts are invalidated when entities are written and once again when
+ * current transaction completes, so that a count including uncommitted (and
+ * then rolled back) entities is not kept.
+ *
+ * Strategy registers itself in the {@link InvalidationRegistry} of the entity manager factory
+ * it counts with: counts are then invalidated by every write, whatever DAO or service executed it.
+ * Invalidations also increment a generation of the entity type, and a count computed while an
+ * invalidation occurred is not kept.
+ */
+final class CachedCountStrategy extends CountStrategy implements InvalidationRegistry.Listener {
+
+	/** Cached counts, indexed by entity class. */
+	private final ConcurrentMap<Class<?>, Entry> counts;
+
+	/** Generations of counts, indexed by entity class, incremented when count is invalidated. */
+	private final ConcurrentMap<Class<?>, AtomicLong> generations;
+
+	/** Generation of all counts, incremented when all counts are invalidated. */
+	private final AtomicLong generation;
+
+	/** Registries this strategy is registered in, indexed by entity class. */
+	private final ConcurrentMap<Class<?>, InvalidationRegistry> registries;
+
+	/** Lock used to check generation of a count and put it atomically. */
+	private final Object lock;
+
+	/** Time to live of counts, in nanoseconds. */
+	private final long timeToLive;
+
+	CachedCountStrategy(long timeToLive) {
+		this.counts = new ConcurrentHashMap<Class<?>, Entry>();
+		this.generations = new ConcurrentHashMap<Class<?>, AtomicLong>();
+		this.generation = new AtomicLong(0);
+		this.registries = new ConcurrentHashMap<Class<?>, InvalidationRegistry>();
+		this.lock = new Object();
+		this.timeToLive = timeToLive;
+	}
+
+	@Override
+	public long count(EntityManager entityManager, Class<?> type, String query) {
+		long now = System.nanoTime();
+
+		Entry entry = counts.get(type);
+		if (entry != null && now - entry.time < timeToLive) {
+			return entry.count;
+		}
+
+		register(entityManager, type);
+
+		// Stamp is read before count is computed: count is not kept if entities are written in the meantime.
+		long stamp = stamp(type);
+		long count = exactCount(entityManager, query);
+		synchronized (lock) {
+			if (stamp(type) == stamp) {
+				counts.put(type, new Entry(count, now));
+			}
+		}
+
+		return count;
+	}
+
+	@Override
+	public void invalidate(final Class<?> type) {
+		evict(type);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					evict(type);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+		evictAll();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					evictAll();
+				}
+			});
+		}
+	}
+
+	@Override
+	public void invalidate(Class<?> type, Serializable id) {
+		invalidate(type);
+	}
+
+	private void register(EntityManager entityManager, Class<?> type) {
+		InvalidationRegistry registry = InvalidationRegistry.of(entityManager.getEntityManagerFactory());
+		if (registry != null && registries.get(type) != registry) {
+			if (registries.put(type, registry) != registry) {
+				registry.register(type, this);
+			}
+		}
+	}
+
+	private long stamp(Class<?> type) {
+		// Both generations only increase: sum changes as soon as one of them is incremented.
+		return generation.get() + generationOf(type).get();
+	}
+
+	private AtomicLong generationOf(Class<?> type) {
+		AtomicLong current = generations.get(type);
+		if (current == null) {
+			AtomicLong newGeneration = new AtomicLong(0);
+			current = generations.putIfAbsent(type, newGeneration);
+			if (current == null) {
+				current = newGeneration;
+			}
+		}
+		return current;
+	}
+
+	private void evict(Class<?> type) {
+		synchronized (lock) {
+			generationOf(type).incrementAndGet();
+			counts.remove(type);
+		}
+	}
+
+	private void evictAll() {
+		synchronized (lock) {
+			generation.incrementAndGet();
+			counts.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "cached(" + timeToLive + "ns)";
+	}
+
+	private static class Entry {
+		/** Count. */
+		private final long count;
+
+		/** Time when count has been computed (nano time). */
+		private final long time;
+
+		private Entry(long count, long time) {
+			this.count = count;
+			this.time = time;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.mjeanroy.springhub.dao;
+
+import java.nio.charset.Charset;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import com.google.common.io.BaseEncoding;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+/**
+ * Opaque token used by keyset pagination.
+ * A token contains the sort value and the id of the last entity of a page.
+ *
+ * Values are serialized as strings (dates are serialized as epoch milliseconds) and
+ * converted back to the attribute types when token is decoded, so a token
+ * can never be used to instantiate arbitrary objects.
+ */
+final class ContinuationToken {
+
+	/** Charset used to encode values. */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/** Url safe encoding, tokens are usually sent as query parameters. */
+	private static final BaseEncoding ENCODING = BaseEncoding.base64Url().omitPadding();
+
+	/** Separator between encoded values. */
+	private static final char SEPARATOR = '.';
+
+	/** Conversion service used to convert string values to attribute types. */
+	private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+	/** Sort value of last entity. */
+	private final Object value;
+
+	/** Id of last entity. */
+	private final Object id;
+
+	private ContinuationToken(Object value, Object id) {
+		this.value = value;
+		this.id = id;
+	}
+
+	/**
+	 * Get {@link #value}
+	 *
+	 * @return {@link #value}
+	 */
+	Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Get {@link #id}
+	 *
+	 * @return {@link #id}
+	 */
+	Object getId() {
+		return id;
+	}
+
+	/**
+	 * Encode sort value and id of last entity.
+	 *
+	 * @param value Sort value.
+	 * @param id    Id.
+	 * @return Token.
+	 */
+	static String encode(Object value, Object id) {
+		return encodeValue(value) + SEPARATOR + encodeValue(id);
+	}
+
+	/**
+	 * Decode token.
+	 *
+	 * @param token     Token.
+	 * @param valueType Type of sort attribute.
+	 * @param idType    Type of id attribute.
+	 * @return Decoded token.
+	 * @throws IllegalArgumentException If token is not valid.
+	 */
+	static ContinuationToken decode(String token, Class<?> valueType, Class<?> idType) {
+		int index = token.indexOf(SEPARATOR);
+		if (index < 0 || token.indexOf(SEPARATOR, index + 1) >= 0) {
+			throw new IllegalArgumentException("Invalid continuation token: " + token);
+		}
+
+		try {
+			Object value = decodeValue(token.substring(0, index), valueType);
+			Object id = decodeValue(token.substring(index + 1), idType);
+			return new ContinuationToken(value, id);
+		}
+		catch (ConversionException ex) {
+			throw new IllegalArgumentException("Invalid continuation token: " + token, ex);
+		}
+	}
+
+	private static String encodeValue(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Keyset pagination does not support null values");
+		}
+
+		String str;
+		if (value instanceof Timestamp) {
+			// Keep nanoseconds, otherwise last entity of a page could be returned again.
+			str = value.toString();
+		}
+		else if (value instanceof Date) {
+			str = String.valueOf(((Date) value).getTime());
+		}
+		else if (value instanceof Enum) {
+			str = ((Enum) value).name();
+		}
+		else {
+			str = value.toString();
+		}
+
+		return ENCODING.encode(str.getBytes(UTF_8));
+	}
+
+	private static Object decodeValue(String value, Class<?> type) {
+		String str = new String(ENCODING.decode(value), UTF_8);
+		if (Timestamp.class.equals(type)) {
+			return Timestamp.valueOf(str);
+		}
+		if (java.sql.Date.class.equals(type)) {
+			return new java.sql.Date(Long.parseLong(str));
+		}
+		if (java.sql.Time.class.equals(type)) {
+			return new java.sql.Time(Long.parseLong(str));
+		}
+		if (Date.class.equals(type)) {
+			// Temporal attributes declared as java.util.Date are usually loaded as timestamps.
+			return str.indexOf('-') > 0 ? Timestamp.valueOf(str) : new Date(Long.parseLong(str));
+		}
+		return CONVERSION_SERVICE.convert(str, type);
+	}
+}
@@ -0,0 +1,87 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy used to count entities of a given type.
+ *
+ * Available strategies are:
+ * <ul>
+ *   <li>{@link #exact()}: run a {@code SELECT COUNT} query on each call (default).</li>
+ *   <li>{@link #cached(long, TimeUnit)}: run a {@code SELECT COUNT} query and keep result for a given time,
+ *   result is invalidated when entities are written (by any DAO or service, see {@link InvalidationRegistry}).</li>
+ *   <li>{@link #estimated(long)}: read row count estimated by database statistics when dialect
+ *   supports it (H2, PostgreSQL, MySQL), and fallback to an exact count otherwise.</li>
+ * </ul>
+ */
+public abstract class CountStrategy {
+
+	/**
+	 * Exact count strategy.
+	 *
+	 * @return Strategy.
+	 */
+	public static CountStrategy exact() {
+		return ExactCountStrategy.INSTANCE;
+	}
+
+	/**
+	 * Exact count cached for a given time.
+	 *
+	 * @param timeToLive Time to live of cached counts.
+	 * @param unit       Time unit.
+	 * @return Strategy.
+	 */
+	public static CountStrategy cached(long timeToLive, TimeUnit unit) {
+		return new CachedCountStrategy(unit.toNanos(timeToLive));
+	}
+
+	/**
+	 * Count estimated from database statistics.
+	 * If estimate is lower than given threshold, an exact count is returned: estimates
+	 * are usually not accurate for small (or recently created) tables and counting them is cheap.
+	 *
+	 * @param threshold Estimated count under which an exact count is returned.
+	 * @return Strategy.
+	 */
+	public static CountStrategy estimated(long threshold) {
+		return new EstimatedCountStrategy(threshold);
+	}
+
+	/**
+	 * Count entities of given type.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param type          Entity class.
+	 * @param query         JPQL query returning exact count of entities.
+	 * @return Count.
+	 */
+	public abstract long count(EntityManager entityManager, Class<?> type, String query);
+
+	/**
+	 * Notify strategy that entities of given type have been written.
+	 *
+	 * @param type Entity class.
+	 */
+	public void invalidate(Class<?> type) {
+	}
+
+	/**
+	 * Notify strategy that entities of any type have been written.
+	 */
+	public void invalidateAll() {
+	}
+
+	/**
+	 * Run exact count query.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param query         JPQL query.
+	 * @return Count.
+	 */
+	static long exactCount(EntityManager entityManager, String query) {
+		Number count = (Number) entityManager.createQuery(query).getSingleResult();
+		return count == null ? 0 : count.longValue();
+	}
+}
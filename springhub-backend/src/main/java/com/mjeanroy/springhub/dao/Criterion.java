@@ -0,0 +1,22 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/**
+ * Restriction applied to a criteria query or statement.
+ *
+ * @param <T> Type of entity.
+ */
+public interface Criterion<T> {
+
+	/**
+	 * Build predicate.
+	 *
+	 * @param root    Query root.
+	 * @param builder Criteria builder.
+	 * @return Predicate.
+	 */
+	Predicate toPredicate(Root<T> root, CriteriaBuilder builder);
+}
@@ -0,0 +1,18 @@
+package com.mjeanroy.springhub.dao;
+
+/**
+ * Callback invoked for each entity read from a scrollable cursor.
+ *
+ * @param <T> Type of entity.
+ */
+public interface EntityCallback<T> {
+
+	/**
+	 * Process entity.
+	 * Entity may be detached from the persistence context once callback returns, so
+	 * it should not be kept after this call.
+	 *
+	 * @param entity Entity.
+	 */
+	void doWith(T entity);
+}
@@ -0,0 +1,110 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count strategy reading row counts estimated by database statistics.
+ * Exact count is used when dialect is not supported or when estimate is not available.
+ */
+final class EstimatedCountStrategy extends CountStrategy {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(EstimatedCountStrategy.class);
+
+	/** Query used to read estimate with H2. */
+	private static final String H2 = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = UPPER(?)";
+
+	/** Query used to read estimate with PostgreSQL. */
+	private static final String POSTGRESQL = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relkind = 'r' AND relname = LOWER(?)";
+
+	/** Query used to read estimate with MySQL. */
+	private static final String MYSQL = "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?";
+
+	/** Estimated count under which an exact count is returned. */
+	private final long threshold;
+
+	EstimatedCountStrategy(long threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public long count(EntityManager entityManager, Class<?> type, String query) {
+		Session session = entityManager.unwrap(Session.class);
+		SessionFactory sessionFactory = session == null ? null : session.getSessionFactory();
+		if (sessionFactory instanceof SessionFactoryImplementor) {
+			SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+			String sql = estimateQuery(factory.getDialect());
+			String table = tableName(factory, type);
+			if (sql != null && table != null) {
+				Long estimate = estimate(entityManager, sql, table);
+				if (estimate != null && estimate >= threshold) {
+					return estimate;
+				}
+			}
+		}
+
+		return exactCount(entityManager, query);
+	}
+
+	private static Long estimate(EntityManager entityManager, String sql, String table) {
+		List<?> results = entityManager.createNativeQuery(sql)
+				.setParameter(1, table)
+				.getResultList();
+
+		if (results.isEmpty() || results.get(0) == null) {
+			log.debug("No row count estimate available for table {}", table);
+			return null;
+		}
+
+		long estimate = ((Number) results.get(0)).longValue();
+		return estimate < 0 ? null : estimate;
+	}
+
+	private static String estimateQuery(Dialect dialect) {
+		if (dialect instanceof H2Dialect) {
+			return H2;
+		}
+		if (dialect instanceof PostgreSQL81Dialect) {
+			return POSTGRESQL;
+		}
+		if (dialect instanceof MySQLDialect) {
+			return MYSQL;
+		}
+		return null;
+	}
+
+	private static String tableName(SessionFactoryImplementor factory, Class<?> type) {
+		EntityPersister persister = factory.getEntityPersister(type.getName());
+		if (!(persister instanceof AbstractEntityPersister)) {
+			return null;
+		}
+
+		// Only count root tables: estimate of a table shared by several entities would not be valid.
+		AbstractEntityPersister entityPersister = (AbstractEntityPersister) persister;
+		if (entityPersister.isInherited() || entityPersister.hasSubclasses()) {
+			return null;
+		}
+
+		String table = entityPersister.getTableName();
+		int index = table.lastIndexOf('.');
+		return index < 0 ? table : table.substring(index + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "estimated(" + threshold + ")";
+	}
+}
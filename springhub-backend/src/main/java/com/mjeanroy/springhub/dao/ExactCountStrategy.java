@@ -0,0 +1,25 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Count strategy running a {@code SELECT COUNT} query on each call.
+ */
+final class ExactCountStrategy extends CountStrategy {
+
+	/** Strategy instance (strategy is stateless). */
+	static final ExactCountStrategy INSTANCE = new ExactCountStrategy();
+
+	private ExactCountStrategy() {
+	}
+
+	@Override
+	public long count(EntityManager entityManager, Class<?> type, String query) {
+		return exactCount(entityManager, query);
+	}
+
+	@Override
+	public String toString() {
+		return "exact";
+	}
+}
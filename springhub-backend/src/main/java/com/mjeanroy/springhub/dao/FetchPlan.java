@@ -0,0 +1,187 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Subgraph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describe associations that must be loaded with an entity.
+ *
+ * A fetch plan is either a named entity graph (declared with {@link javax.persistence.NamedEntityGraph})
+ * or a list of attribute paths (such as {@code "lines"} or {@code "lines.product"}).
+ * It is given to the entity manager as a fetch graph: attributes of the plan are fetched
+ * in the same query as the root entity, other associations keep their mapping.
+ */
+public final class FetchPlan {
+
+	/** Hint used to give a fetch graph to the entity manager. */
+	public static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+	/**
+	 * Create fetch plan using a named entity graph.
+	 *
+	 * @param graphName Name of entity graph.
+	 * @return Fetch plan.
+	 */
+	public static FetchPlan named(String graphName) {
+		if (graphName == null || graphName.isEmpty()) {
+			throw new IllegalArgumentException("Entity graph name must not be empty");
+		}
+		return new FetchPlan(graphName, null);
+	}
+
+	/**
+	 * Create fetch plan using attribute paths.
+	 * Nested attributes are separated with a dot (for example: {@code "lines.product"}).
+	 *
+	 * @param attributePaths Attribute paths.
+	 * @return Fetch plan.
+	 */
+	public static FetchPlan of(String... attributePaths) {
+		if (attributePaths.length == 0) {
+			throw new IllegalArgumentException("Fetch plan must contain at least one attribute");
+		}
+
+		for (String path : attributePaths) {
+			if (path == null || path.isEmpty() || path.startsWith(".") || path.endsWith(".") || path.contains("..")) {
+				throw new IllegalArgumentException("Attribute path '" + path + "' is not valid");
+			}
+		}
+
+		return new FetchPlan(null, unmodifiableList(asList(attributePaths.clone())));
+	}
+
+	/** Name of entity graph, null if plan is defined with attribute paths. */
+	private final String graphName;
+
+	/** Attribute paths, null if plan is defined with a named entity graph. */
+	private final List<String> attributePaths;
+
+	private FetchPlan(String graphName, List<String> attributePaths) {
+		this.graphName = graphName;
+		this.attributePaths = attributePaths;
+	}
+
+	/**
+	 * Get {@link #graphName}
+	 *
+	 * @return {@link #graphName}
+	 */
+	public String getGraphName() {
+		return graphName;
+	}
+
+	/**
+	 * Get {@link #attributePaths}
+	 *
+	 * @return {@link #attributePaths}
+	 */
+	public List<String> getAttributePaths() {
+		return attributePaths;
+	}
+
+	/**
+	 * Build entity graph of this plan for given entity.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param type          Entity class.
+	 * @param <T>           Type of entity.
+	 * @return Entity graph.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> EntityGraph<T> toGraph(EntityManager entityManager, Class<T> type) {
+		if (graphName != null) {
+			return (EntityGraph<T>) entityManager.getEntityGraph(graphName);
+		}
+
+		EntityGraph<T> graph = entityManager.createEntityGraph(type);
+
+		// Subgraphs indexed by path: attributes sharing a prefix must be added to the same subgraph
+		Map<String, Subgraph<?>> subgraphs = new HashMap<String, Subgraph<?>>();
+
+		// Longest paths first: an attribute that is also a prefix of another path is fetched by its subgraph
+		List<String> paths = new ArrayList<String>(new LinkedHashSet<String>(attributePaths));
+		Collections.sort(paths, new Comparator<String>() {
+			@Override
+			public int compare(String p1, String p2) {
+				return p2.length() - p1.length();
+			}
+		});
+
+		for (String path : paths) {
+			String[] attributes = path.split("\\.");
+			Subgraph<?> parent = null;
+			StringBuilder prefix = new StringBuilder();
+
+			for (int i = 0; i < attributes.length - 1; i++) {
+				if (i > 0) {
+					prefix.append('.');
+				}
+				prefix.append(attributes[i]);
+
+				String key = prefix.toString();
+				Subgraph<?> subgraph = subgraphs.get(key);
+				if (subgraph == null) {
+					subgraph = parent == null ? graph.addSubgraph(attributes[i]) : parent.addSubgraph(attributes[i]);
+					subgraphs.put(key, subgraph);
+				}
+				parent = subgraph;
+			}
+
+			String attribute = attributes[attributes.length - 1];
+			if (!subgraphs.containsKey(path)) {
+				if (parent == null) {
+					graph.addAttributeNodes(attribute);
+				}
+				else {
+					parent.addAttributeNodes(attribute);
+				}
+			}
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Get hints to give to {@link EntityManager#find(Class, Object, Map)}.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param type          Entity class.
+	 * @return Hints.
+	 */
+	Map<String, Object> toHints(EntityManager entityManager, Class<?> type) {
+		Map<String, Object> hints = new HashMap<String, Object>();
+		hints.put(FETCH_GRAPH, toGraph(entityManager, type));
+		return hints;
+	}
+
+	/**
+	 * Add fetch graph hint to given query.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param type          Entity class.
+	 * @param query         Query.
+	 * @param <Q>           Type of query.
+	 * @return Query.
+	 */
+	<Q extends Query> Q apply(EntityManager entityManager, Class<?> type, Q query) {
+		query.setHint(FETCH_GRAPH, toGraph(entityManager, type));
+		return query;
+	}
+
+	@Override
+	public String toString() {
+		return graphName != null ? "FetchPlan{graph=" + graphName + "}" : "FetchPlan{attributes=" + attributePaths + "}";
+	}
+}
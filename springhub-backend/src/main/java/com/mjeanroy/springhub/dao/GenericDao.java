@@ -1,14 +1,18 @@
 package com.mjeanroy.springhub.dao;
 
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.proxy.HibernateProxyHelper;
+
 import com.mjeanroy.springhub.models.entities.JPAEntity;
 
 /** Generic DAO used to retrieve entities. */
@@ -17,6 +21,59 @@ public class GenericDao {
 	@PersistenceContext
 	protected EntityManager entityManager;
 
+	/** Number of rows fetched on each database round trip by read-only queries. */
+	private volatile int fetchSize = AbstractGenericDao.DEFAULT_FETCH_SIZE;
+
+	/** Strategy used by {@link #count(Class)}. */
+	private volatile CountStrategy countStrategy = CountStrategy.exact();
+
+	/**
+	 * Enable or disable read-only mode for current session.
+	 *
+	 * @param readOnly New read-only flag.
+	 * @see AbstractGenericDao#setReadOnly(boolean)
+	 */
+	public void setReadOnly(boolean readOnly) {
+		ReadOnlyMode.set(entityManager, readOnly);
+	}
+
+	/**
+	 * Check if current session is in read-only mode.
+	 *
+	 * @return True if read-only mode is enabled, false otherwise.
+	 */
+	public boolean isReadOnly() {
+		return ReadOnlyMode.isEnabled(entityManager);
+	}
+
+	/**
+	 * Get registry notified of entity writes, install it on entity manager factory if needed.
+	 *
+	 * @return Registry, null if entity manager factory is not available.
+	 * @see InvalidationRegistry#of(javax.persistence.EntityManagerFactory)
+	 */
+	public InvalidationRegistry getInvalidationRegistry() {
+		return InvalidationRegistry.of(entityManager.getEntityManagerFactory());
+	}
+
+	/**
+	 * Get {@link #fetchSize}
+	 *
+	 * @return {@link #fetchSize}
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Set {@link #fetchSize}
+	 *
+	 * @param fetchSize New {@link #fetchSize} (zero or less to use driver default).
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
 	/**
 	 * Persist entity using entity manager.
 	 *
@@ -26,6 +83,7 @@ public class GenericDao {
 	 */
 	public <T extends JPAEntity> T persist(T entity) {
 		entityManager.persist(entity);
+		countStrategy.invalidate(HibernateProxyHelper.getClassWithoutInitializingProxy(entity));
 		return entity;
 	}
 
@@ -37,10 +95,71 @@ public class GenericDao {
 	 */
 	public <T extends JPAEntity> void remove(T entity) {
 		entityManager.remove(entity);
+		countStrategy.invalidate(HibernateProxyHelper.getClassWithoutInitializingProxy(entity));
+	}
+
+	/**
+	 * Persist a large number of entities.
+	 * Persistence context is flushed every {@link #batchSize()} entities and processed
+	 * entities are then detached (other managed entities are left untouched).
+	 *
+	 * @param entities Entities to persist.
+	 * @param <T> Type of entities.
+	 * @return Result of operation.
+	 * @see AbstractGenericDao#saveAll(Iterable, int)
+	 */
+	public <T extends JPAEntity<?>> BatchResult persistAll(Iterable<T> entities) {
+		BatchResult result = Batch.execute(entityManager, entities, batchSize(), Batch.Operation.PERSIST);
+		countStrategy.invalidateAll();
+		return result;
+	}
+
+	/**
+	 * Merge a large number of entities.
+	 * Persistence context is flushed every {@link #batchSize()} entities and processed
+	 * entities are then detached (other managed entities are left untouched).
+	 *
+	 * @param entities Entities to merge.
+	 * @param <T> Type of entities.
+	 * @return Result of operation.
+	 * @see AbstractGenericDao#mergeAll(Iterable, int)
+	 */
+	public <T extends JPAEntity<?>> BatchResult mergeAll(Iterable<T> entities) {
+		BatchResult result = Batch.execute(entityManager, entities, batchSize(), Batch.Operation.MERGE);
+		countStrategy.invalidateAll();
+		return result;
+	}
+
+	/**
+	 * Remove a large number of entities.
+	 * Persistence context is flushed every {@link #batchSize()} entities and processed
+	 * entities are then detached (other managed entities are left untouched).
+	 *
+	 * @param entities Entities to remove.
+	 * @param <T> Type of entities.
+	 * @return Result of operation.
+	 * @see AbstractGenericDao#removeAll(Iterable, int)
+	 */
+	public <T extends JPAEntity<?>> BatchResult removeAll(Iterable<T> entities) {
+		BatchResult result = Batch.execute(entityManager, entities, batchSize(), Batch.Operation.REMOVE);
+		countStrategy.invalidateAll();
+		return result;
+	}
+
+	/**
+	 * Number of entities processed between two flushes in batch operations.
+	 * Should match {@code hibernate.jdbc.batch_size} setting.
+	 *
+	 * @return Batch size.
+	 */
+	protected int batchSize() {
+		return AbstractGenericDao.DEFAULT_BATCH_SIZE;
 	}
 
 	/**
 	 * Retrieve list of entities by id and index them in map using id value as key.
+	 * Ids are split into bounded IN-lists (sized for the database dialect), so the cost
+	 * of this method depends on the number of ids, not on the size of the table.
 	 *
 	 * @param klass Type of entities to look for.
 	 * @param ids List of id.
@@ -48,26 +167,49 @@ public class GenericDao {
 	 * @param <T> Type of entities.
 	 * @return Map of entities.
 	 */
-	@SuppressWarnings("unchecked")
 	public <PK extends Serializable, T extends JPAEntity<PK>> Map<PK, T> indexById(Class<T> klass, Collection<PK> ids) {
-		List<T> entities = (List<T>) entityManager.createQuery("SELECT x FROM " + klass.getSimpleName() + " x").getResultList();
-		Map<PK, T> map = new HashMap<PK, T>();
-		for (T entity : entities) {
-			PK id = entity.getId();
-			map.put(id, entity);
+		Map<PK, T> map = newHashMapWithExpectedSize(ids.size());
+		if (ids.isEmpty()) {
+			return map;
+		}
+
+		String query = "SELECT x FROM " + klass.getSimpleName() + " x WHERE x.id IN :ids";
+		for (List<PK> chunk : InClause.partition(ids, InClause.size(entityManager))) {
+			List<T> entities = prepare(entityManager.createQuery(query, klass))
+					.setParameter("ids", chunk)
+					.getResultList();
+
+			for (T entity : entities) {
+				map.put(entity.getId(), entity);
+			}
 		}
+
 		return map;
 	}
 
 	/**
 	 * Find item in database with its id.
+	 * Item is loaded as read-only if read-only mode is enabled or if current transaction is read-only.
 	 *
 	 * @param klass Entity class of item to look for.
 	 * @param primaryKey Id in database.
 	 * @return Founded item or null.
 	 */
 	public <PK extends Serializable, T extends JPAEntity<PK>> T find(Class<T> klass, PK primaryKey) {
-		return entityManager.find(klass, primaryKey);
+		return ReadOnlyMode.find(entityManager, klass, primaryKey, null);
+	}
+
+	/**
+	 * Find item in database with its id and load associations described by given fetch plan
+	 * in the same query.
+	 *
+	 * @param klass Entity class of item to look for.
+	 * @param primaryKey Id in database.
+	 * @param plan Fetch plan.
+	 * @return Founded item or null.
+	 */
+	public <PK extends Serializable, T extends JPAEntity<PK>> T find(Class<T> klass, PK primaryKey, FetchPlan plan) {
+		return ReadOnlyMode.find(entityManager, klass, primaryKey, plan.toHints(entityManager, klass));
 	}
 
 	/**
@@ -94,7 +236,7 @@ public class GenericDao {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends JPAEntity> List<T> findAll(Class<T> klass) {
-		return (List<T>) entityManager.createQuery("SELECT x FROM " + klass.getSimpleName() + " x").getResultList();
+		return (List<T>) prepare(entityManager.createQuery("SELECT x FROM " + klass.getSimpleName() + " x")).getResultList();
 	}
 
 	/**
@@ -104,6 +246,37 @@ public class GenericDao {
 	 * @return Number of items in database.
 	 */
 	public <T extends JPAEntity> long count(Class<T> klass) {
-		return (Long) entityManager.createQuery("SELECT COUNT(x) FROM " + klass.getSimpleName() + " x").getSingleResult();
+		return countStrategy.count(entityManager, klass, "SELECT COUNT(x) FROM " + klass.getSimpleName() + " x");
+	}
+
+	/**
+	 * Get {@link #countStrategy}
+	 *
+	 * @return {@link #countStrategy}
+	 */
+	public CountStrategy getCountStrategy() {
+		return countStrategy;
+	}
+
+	/**
+	 * Set {@link #countStrategy}
+	 * Default strategy is {@link CountStrategy#exact()}.
+	 *
+	 * @param countStrategy New {@link #countStrategy}
+	 */
+	public void setCountStrategy(CountStrategy countStrategy) {
+		this.countStrategy = countStrategy;
+	}
+
+	/**
+	 * Add read-only and fetch size hints to given query when read-only mode is
+	 * enabled or when current transaction is read-only.
+	 *
+	 * @param query Query.
+	 * @param <Q> Type of query.
+	 * @return Query.
+	 */
+	protected <Q extends Query> Q prepare(Q query) {
+		return ReadOnlyMode.apply(entityManager, query, fetchSize);
 	}
 }
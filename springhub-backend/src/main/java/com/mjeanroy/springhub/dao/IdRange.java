@@ -0,0 +1,112 @@
+package com.mjeanroy.springhub.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range of numeric ids, both bounds are inclusive.
+ * A range can be split into contiguous partitions that are scanned independently.
+ */
+public final class IdRange {
+
+	/** Lowest id. */
+	private final long min;
+
+	/** Highest id. */
+	private final long max;
+
+	/**
+	 * Create new range.
+	 *
+	 * @param min Lowest id.
+	 * @param max Highest id.
+	 */
+	public IdRange(long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Lower bound " + min + " is greater than upper bound " + max);
+		}
+
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * Get {@link #min}
+	 *
+	 * @return {@link #min}
+	 */
+	public long getMin() {
+		return min;
+	}
+
+	/**
+	 * Get {@link #max}
+	 *
+	 * @return {@link #max}
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Split range into contiguous partitions of (almost) equal width.
+	 * Less partitions are returned if range does not contain enough ids.
+	 * Range width ({@code max - min}) must not exceed {@link Long#MAX_VALUE}.
+	 *
+	 * @param partitions Number of partitions.
+	 * @return Partitions, ordered by ids.
+	 */
+	public List<IdRange> split(int partitions) {
+		if (partitions <= 0) {
+			throw new IllegalArgumentException("Number of partitions must be positive");
+		}
+
+		// Number of ids is (max - min + 1): it is not computed directly to avoid overflow.
+		long width = max - min;
+		if (width < 0) {
+			throw new IllegalStateException("Range " + this + " is too large to be split");
+		}
+
+		long count = width < partitions ? width + 1 : partitions;
+		long size = width / count;
+		long remainder = width % count + 1;
+		if (remainder == count) {
+			size++;
+			remainder = 0;
+		}
+
+		// First partitions get one more id when ids cannot be evenly distributed.
+		List<IdRange> ranges = new ArrayList<IdRange>((int) count);
+		long start = min;
+		for (int i = 0; i < count; i++) {
+			long end = start + size - 1 + (i < remainder ? 1 : 0);
+			ranges.add(new IdRange(start, end));
+			start = end + 1;
+		}
+
+		return ranges;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IdRange)) {
+			return false;
+		}
+
+		IdRange range = (IdRange) o;
+		return min == range.min && max == range.max;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (int) (min ^ (min >>> 32)) + (int) (max ^ (max >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return "[" + min + ", " + max + "]";
+	}
+}
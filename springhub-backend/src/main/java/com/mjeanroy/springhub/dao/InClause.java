@@ -0,0 +1,101 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Helpers used to split a large collection of values into bounded IN-lists.
+ */
+final class InClause {
+
+	/** Maximum number of values in a single IN-list when dialect does not define any limit. */
+	static final int DEFAULT_SIZE = 500;
+
+	private InClause() {
+	}
+
+	/**
+	 * Get maximum number of values that can be used in a single IN-list with
+	 * the dialect used by given entity manager.
+	 *
+	 * @param entityManager Entity manager.
+	 * @return Maximum number of values.
+	 */
+	static int size(EntityManager entityManager) {
+		Session session = entityManager.unwrap(Session.class);
+		SessionFactory sessionFactory = session == null ? null : session.getSessionFactory();
+		if (sessionFactory instanceof SessionFactoryImplementor) {
+			int limit = ((SessionFactoryImplementor) sessionFactory).getDialect().getInExpressionCountLimit();
+			if (limit > 0) {
+				return Math.min(limit, DEFAULT_SIZE);
+			}
+		}
+		return DEFAULT_SIZE;
+	}
+
+	/**
+	 * Split values into chunks of given maximum size.
+	 * Null and duplicated values are removed.
+	 *
+	 * Each chunk is padded to the next power of two (repeating its last value), so
+	 * that a small number of different SQL statements are generated and can be cached
+	 * by the database and the JDBC driver.
+	 *
+	 * @param values Values.
+	 * @param size   Maximum number of values in each chunk.
+	 * @param <K>    Type of values.
+	 * @return Chunks of values.
+	 */
+	static <K> List<List<K>> partition(Iterable<K> values, int size) {
+		Set<K> distinct = new LinkedHashSet<K>();
+		for (K value : values) {
+			if (value != null) {
+				distinct.add(value);
+			}
+		}
+
+		List<List<K>> chunks = new ArrayList<List<K>>(distinct.size() / size + 1);
+		List<K> chunk = null;
+		for (K value : distinct) {
+			if (chunk == null) {
+				chunk = new ArrayList<K>(size);
+			}
+
+			chunk.add(value);
+
+			if (chunk.size() == size) {
+				chunks.add(chunk);
+				chunk = null;
+			}
+		}
+
+		if (chunk != null) {
+			chunks.add(pad(chunk, size));
+		}
+
+		return chunks;
+	}
+
+	private static <K> List<K> pad(List<K> chunk, int size) {
+		int padded = Integer.highestOneBit(chunk.size());
+		if (padded < chunk.size()) {
+			padded <<= 1;
+		}
+
+		padded = Math.min(padded, size);
+
+		K last = chunk.get(chunk.size() - 1);
+		while (chunk.size() < padded) {
+			chunk.add(last);
+		}
+
+		return chunk;
+	}
+}
@@ -0,0 +1,190 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of caches that must be invalidated when entities are written.
+ *
+ * Registry is installed as a hibernate event listener of a session factory: it is notified
+ * of every insert, update and delete executed by any session (whatever DAO or service
+ * triggered it, including updates found by dirty checking), and DAOs notify it of bulk statements.
+ * Events are received when statements are executed, that is before transaction commits:
+ * listeners are responsible for invalidating their data once again when transaction completes.
+ */
+public final class InvalidationRegistry implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(InvalidationRegistry.class);
+
+	/**
+	 * Get registry installed on given entity manager factory, install it if needed.
+	 *
+	 * @param entityManagerFactory Entity manager factory.
+	 * @return Registry, null if entity manager factory is not a hibernate entity manager factory.
+	 */
+	public static InvalidationRegistry of(EntityManagerFactory entityManagerFactory) {
+		EventListenerRegistry listeners = listeners(entityManagerFactory);
+		if (listeners == null) {
+			return null;
+		}
+
+		synchronized (listeners) {
+			InvalidationRegistry registry = find(listeners);
+			if (registry == null) {
+				registry = new InvalidationRegistry();
+				listeners.appendListeners(EventType.POST_INSERT, registry);
+				listeners.appendListeners(EventType.POST_UPDATE, registry);
+				listeners.appendListeners(EventType.POST_DELETE, registry);
+				log.debug("Invalidation registry installed");
+			}
+			return registry;
+		}
+	}
+
+	/**
+	 * Notify registry installed on given entity manager factory (if any) that entities
+	 * of given type may have been written without hibernate events (bulk statements).
+	 *
+	 * @param entityManagerFactory Entity manager factory.
+	 * @param type                 Entity class.
+	 */
+	static void invalidateAll(EntityManagerFactory entityManagerFactory, Class<?> type) {
+		EventListenerRegistry listeners = listeners(entityManagerFactory);
+		if (listeners != null) {
+			InvalidationRegistry registry;
+			synchronized (listeners) {
+				registry = find(listeners);
+			}
+
+			if (registry != null) {
+				registry.invalidate(type, null);
+			}
+		}
+	}
+
+	private static EventListenerRegistry listeners(EntityManagerFactory entityManagerFactory) {
+		SessionFactoryImplementor sessionFactory = entityManagerFactory == null ? null : entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		return sessionFactory == null ? null : sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+	}
+
+	private static InvalidationRegistry find(EventListenerRegistry listeners) {
+		EventListenerGroup<PostUpdateEventListener> group = listeners.getEventListenerGroup(EventType.POST_UPDATE);
+		for (PostUpdateEventListener listener : group.listeners()) {
+			if (listener instanceof InvalidationRegistry) {
+				return (InvalidationRegistry) listener;
+			}
+		}
+		return null;
+	}
+
+	/** Registered listeners. */
+	private final List<Registration> registrations;
+
+	private InvalidationRegistry() {
+		this.registrations = new CopyOnWriteArrayList<Registration>();
+	}
+
+	/**
+	 * Register listener notified when entities of given type (or of one of its subclasses) are written.
+	 *
+	 * @param type     Entity class.
+	 * @param listener Listener.
+	 */
+	public void register(Class<?> type, Listener listener) {
+		registrations.add(new Registration(type, listener));
+	}
+
+	/**
+	 * Remove listener.
+	 *
+	 * @param listener Listener.
+	 */
+	public void unregister(Listener listener) {
+		for (Registration registration : registrations) {
+			if (registration.listener == listener) {
+				registrations.remove(registration);
+			}
+		}
+	}
+
+	/**
+	 * Notify listeners that an entity has been written.
+	 *
+	 * @param type Entity class.
+	 * @param id   Entity id, null if any entity of given type may have been written.
+	 */
+	public void invalidate(Class<?> type, Serializable id) {
+		for (Registration registration : registrations) {
+			if (registration.type.isAssignableFrom(type) || (id == null && type.isAssignableFrom(registration.type))) {
+				registration.listener.invalidate(registration.type, id);
+			}
+		}
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		invalidate(event.getPersister().getMappedClass(), event.getId());
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		invalidate(event.getPersister().getMappedClass(), event.getId());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		invalidate(event.getPersister().getMappedClass(), event.getId());
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+
+	/**
+	 * Listener notified when entities are written.
+	 */
+	public interface Listener {
+
+		/**
+		 * Invalidate data of given entity.
+		 *
+		 * @param type Entity class the listener has been registered with.
+		 * @param id   Entity id, null if any entity of given type may have been written.
+		 */
+		void invalidate(Class<?> type, Serializable id);
+	}
+
+	private static class Registration {
+
+		/** Entity class. */
+		private final Class<?> type;
+
+		/** Listener. */
+		private final Listener listener;
+
+		private Registration(Class<?> type, Listener listener) {
+			this.type = type;
+			this.listener = listener;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.Query;
+
+/**
+ * Value bound to a {@link QueryParam}.
+ * Arguments are created with {@link QueryParam#bind(Object)}, so value
+ * type is checked at compile time.
+ */
+public final class QueryArgument {
+
+	/** Parameter name. */
+	private final String name;
+
+	/** Parameter value. */
+	private final Object value;
+
+	QueryArgument(String name, Object value) {
+		this.name = name;
+		this.value = value;
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #value}
+	 *
+	 * @return {@link #value}
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Set parameter value on given query.
+	 *
+	 * @param query Query.
+	 */
+	void apply(Query query) {
+		query.setParameter(name, value);
+	}
+}
@@ -0,0 +1,75 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of a JPQL query declared once (see {@link QueryRegistry}).
+ * Declared queries are validated when first used and registered as named queries,
+ * so they are not parsed again each time they are executed.
+ */
+public final class QueryDefinition {
+
+	/**
+	 * Create new query definition.
+	 *
+	 * @param name   Query name (must be unique for a DAO).
+	 * @param jpql   JPQL query.
+	 * @param params Query parameters.
+	 * @return Query definition.
+	 */
+	public static QueryDefinition of(String name, String jpql, QueryParam<?>... params) {
+		return new QueryDefinition(name, jpql, asList(params));
+	}
+
+	/** Query name. */
+	private final String name;
+
+	/** JPQL query. */
+	private final String jpql;
+
+	/** Query parameters. */
+	private final List<QueryParam<?>> params;
+
+	private QueryDefinition(String name, String jpql, List<QueryParam<?>> params) {
+		this.name = name;
+		this.jpql = jpql;
+		this.params = unmodifiableList(new ArrayList<QueryParam<?>>(params));
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #jpql}
+	 *
+	 * @return {@link #jpql}
+	 */
+	public String getJpql() {
+		return jpql;
+	}
+
+	/**
+	 * Get {@link #params}
+	 *
+	 * @return {@link #params}
+	 */
+	public List<QueryParam<?>> getParams() {
+		return params;
+	}
+
+	@Override
+	public String toString() {
+		return format("%s{name=%s, jpql=%s}", getClass().getSimpleName(), name, jpql);
+	}
+}
@@ -0,0 +1,67 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.lang.String.format;
+
+/**
+ * Typed parameter of a {@link QueryDefinition}.
+ *
+ * @param <V> Type of parameter value.
+ */
+public final class QueryParam<V> {
+
+	/**
+	 * Create new parameter.
+	 *
+	 * @param name Parameter name (as used in JPQL query).
+	 * @param type Parameter type.
+	 * @param <V>  Type of parameter value.
+	 * @return Parameter.
+	 */
+	public static <V> QueryParam<V> of(String name, Class<V> type) {
+		return new QueryParam<V>(name, type);
+	}
+
+	/** Parameter name. */
+	private final String name;
+
+	/** Parameter type. */
+	private final Class<V> type;
+
+	private QueryParam(String name, Class<V> type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #type}
+	 *
+	 * @return {@link #type}
+	 */
+	public Class<V> getType() {
+		return type;
+	}
+
+	/**
+	 * Bind a value to this parameter.
+	 *
+	 * @param value Value.
+	 * @return Query argument.
+	 */
+	public QueryArgument bind(V value) {
+		return new QueryArgument(name, value);
+	}
+
+	@Override
+	public String toString() {
+		return format("%s{name=%s, type=%s}", getClass().getSimpleName(), name, type.getName());
+	}
+}
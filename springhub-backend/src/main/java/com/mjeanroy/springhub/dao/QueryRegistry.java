@@ -0,0 +1,182 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.lang.String.format;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registry of queries declared by a DAO.
+ *
+ * Each query is validated once (JPQL syntax and declared parameters) and is registered as a named
+ * query in the entity manager factory. Executing a declared query does not need to build, parse
+ * or copy anything: named query is retrieved and arguments are bound directly.
+ */
+public class QueryRegistry {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(QueryRegistry.class);
+
+	/** Prefix of named queries (named queries are global to the entity manager factory). */
+	private final String prefix;
+
+	/** Declared queries, associated to their named query name. */
+	private final Map<QueryDefinition, String> queries;
+
+	/** Flag set when queries have been validated and registered. */
+	private volatile boolean registered;
+
+	/**
+	 * Create new registry.
+	 *
+	 * @param prefix Prefix of named queries.
+	 */
+	public QueryRegistry(String prefix) {
+		this.prefix = prefix;
+		this.queries = new LinkedHashMap<QueryDefinition, String>();
+		this.registered = false;
+	}
+
+	/**
+	 * Declare a new query.
+	 * Queries must be declared before registry is initialized.
+	 *
+	 * @param query Query.
+	 * @return Current registry.
+	 */
+	public synchronized QueryRegistry register(QueryDefinition query) {
+		if (registered) {
+			throw new IllegalStateException("Queries have already been registered");
+		}
+
+		String name = prefix + "." + query.getName();
+		if (queries.containsValue(name)) {
+			throw new IllegalArgumentException(format("Query %s is already declared", name));
+		}
+
+		queries.put(query, name);
+		return this;
+	}
+
+	/**
+	 * Check if registry has been initialized.
+	 *
+	 * @return True if queries have been validated and registered, false otherwise.
+	 */
+	public boolean isRegistered() {
+		return registered;
+	}
+
+	/**
+	 * Validate declared queries and register them as named queries.
+	 * This method does nothing if queries have already been registered.
+	 *
+	 * @param entityManagerFactory Entity manager factory.
+	 * @throws IllegalStateException If a query is not valid.
+	 */
+	public synchronized void initialize(EntityManagerFactory entityManagerFactory) {
+		if (registered) {
+			return;
+		}
+
+		if (!queries.isEmpty()) {
+			EntityManager entityManager = entityManagerFactory.createEntityManager();
+			try {
+				for (Map.Entry<QueryDefinition, String> entry : queries.entrySet()) {
+					QueryDefinition definition = entry.getKey();
+					String name = entry.getValue();
+					log.debug("Register query {}: {}", name, definition.getJpql());
+
+					Query query = validate(entityManager, definition, name);
+					entityManagerFactory.addNamedQuery(name, query);
+				}
+			}
+			finally {
+				entityManager.close();
+			}
+		}
+
+		registered = true;
+	}
+
+	/**
+	 * Create query from a declared query definition.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param query         Query definition.
+	 * @param args          Query arguments.
+	 * @return Query.
+	 */
+	public Query create(EntityManager entityManager, QueryDefinition query, QueryArgument... args) {
+		if (!registered) {
+			initialize(entityManager.getEntityManagerFactory());
+		}
+
+		String name = queries.get(query);
+		if (name == null) {
+			throw new IllegalArgumentException(format("Query %s has not been declared", query.getName()));
+		}
+
+		Query q = entityManager.createNamedQuery(name);
+		for (QueryArgument arg : args) {
+			arg.apply(q);
+		}
+		return q;
+	}
+
+	private static Query validate(EntityManager entityManager, QueryDefinition definition, String name) {
+		Query query;
+		try {
+			query = entityManager.createQuery(definition.getJpql());
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalStateException(format("Query %s is not valid: %s", name, ex.getMessage()), ex);
+		}
+
+		Set<String> declared = new HashSet<String>();
+		for (QueryParam<?> param : definition.getParams()) {
+			declared.add(param.getName());
+
+			Parameter<?> parameter = findParameter(query, param.getName());
+			if (parameter == null) {
+				throw new IllegalStateException(format("Query %s does not have parameter %s", name, param.getName()));
+			}
+
+			Class<?> type = parameter.getParameterType();
+			if (type != null && !isAssignable(type, param.getType())) {
+				throw new IllegalStateException(format("Parameter %s of query %s should be a %s", param.getName(), name, type.getName()));
+			}
+		}
+
+		for (Parameter<?> parameter : query.getParameters()) {
+			if (parameter.getName() != null && !declared.contains(parameter.getName())) {
+				throw new IllegalStateException(format("Parameter %s of query %s is not declared", parameter.getName(), name));
+			}
+		}
+
+		return query;
+	}
+
+	private static Parameter<?> findParameter(Query query, String name) {
+		for (Parameter<?> parameter : query.getParameters()) {
+			if (name.equals(parameter.getName())) {
+				return parameter;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isAssignable(Class<?> expected, Class<?> actual) {
+		return ClassUtils.isAssignable(expected, actual);
+	}
+}
@@ -0,0 +1,113 @@
+package com.mjeanroy.springhub.dao;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers used to execute queries in read-only mode.
+ *
+ * Entities loaded in read-only mode are not tracked for dirty checking: hibernate does not keep
+ * a snapshot of their state and does not inspect them when session is flushed.
+ */
+final class ReadOnlyMode {
+
+	/** Flush mode of sessions before read-only mode was enabled (sessions are weakly referenced). */
+	private static final ConcurrentMap<Session, FlushMode> previousFlushModes = new MapMaker().weakKeys().makeMap();
+
+	private ReadOnlyMode() {
+	}
+
+	/**
+	 * Enable or disable read-only mode on session used by given entity manager.
+	 * When read-only mode is enabled, entities are loaded as read-only by default and
+	 * session is never flushed automatically. When it is disabled, session gets back the
+	 * flush mode it had before read-only mode was enabled.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param readOnly      New read-only flag.
+	 */
+	static void set(EntityManager entityManager, boolean readOnly) {
+		Session session = entityManager.unwrap(Session.class);
+		if (readOnly) {
+			FlushMode flushMode = session.getFlushMode();
+			if (!session.isDefaultReadOnly() && flushMode != null) {
+				previousFlushModes.put(session, flushMode);
+			}
+			session.setDefaultReadOnly(true);
+			session.setFlushMode(FlushMode.MANUAL);
+		}
+		else {
+			session.setDefaultReadOnly(false);
+			FlushMode flushMode = previousFlushModes.remove(session);
+			if (flushMode != null) {
+				session.setFlushMode(flushMode);
+			}
+		}
+	}
+
+	/**
+	 * Check if session used by given entity manager is in read-only mode.
+	 *
+	 * @param entityManager Entity manager.
+	 * @return True if read-only mode is enabled, false otherwise.
+	 */
+	static boolean isEnabled(EntityManager entityManager) {
+		Session session = entityManager.unwrap(Session.class);
+		return session != null && session.isDefaultReadOnly();
+	}
+
+	/**
+	 * Find an entity by its primary key.
+	 * If current transaction is read-only, entity is loaded as read-only (as if read-only
+	 * mode was enabled). Entities already managed by the session are not affected.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param type          Entity class.
+	 * @param primaryKey    Primary key.
+	 * @param hints         Hints given to entity manager, may be null.
+	 * @param <T>           Type of entity.
+	 * @return Entity, null if it does not exist.
+	 */
+	static <T> T find(EntityManager entityManager, Class<T> type, Object primaryKey, Map<String, Object> hints) {
+		Session session = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? entityManager.unwrap(Session.class) : null;
+		if (session == null || session.isDefaultReadOnly()) {
+			return hints == null ? entityManager.find(type, primaryKey) : entityManager.find(type, primaryKey, hints);
+		}
+
+		session.setDefaultReadOnly(true);
+		try {
+			return hints == null ? entityManager.find(type, primaryKey) : entityManager.find(type, primaryKey, hints);
+		}
+		finally {
+			session.setDefaultReadOnly(false);
+		}
+	}
+
+	/**
+	 * Add read-only and fetch size hints to given query if read-only mode is enabled
+	 * or if current transaction is read-only.
+	 *
+	 * @param entityManager Entity manager.
+	 * @param query         Query.
+	 * @param fetchSize     Fetch size (zero or less to use driver default).
+	 * @param <Q>           Type of query.
+	 * @return Query.
+	 */
+	static <Q extends Query> Q apply(EntityManager entityManager, Q query, int fetchSize) {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isEnabled(entityManager)) {
+			query.setHint(QueryHints.READ_ONLY, true);
+			if (fetchSize > 0) {
+				query.setHint(QueryHints.FETCH_SIZE, fetchSize);
+			}
+		}
+		return query;
+	}
+}
@@ -0,0 +1,161 @@
+package com.mjeanroy.springhub.dao;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * Iterator over a forward-only scrollable cursor.
+ *
+ * Entities are read from the database one by one and, every {@code clearSize} entities,
+ * persistence context is flushed and entities returned by the iterator are detached, so that
+ * memory usage does not depend on the number of rows. Updates of returned entities are thus
+ * written, and other entities managed by the persistence context (loaded by the caller before
+ * iteration) stay managed. Note that associated entities are detached only if association
+ * cascades detach operation.
+ *
+ * Underlying cursor is automatically closed when last entity has been read, it should
+ * be closed explicitly if iteration is stopped before.
+ *
+ * @param <T> Type of entity.
+ */
+public class ScrollIterator<T> implements Iterator<T>, Closeable {
+
+	/** Scrollable cursor. */
+	private final ScrollableResults results;
+
+	/** Session used to flush the persistence context and detach entities. */
+	private final Session session;
+
+	/** Number of entities to read before flushing persistence context and detaching entities. */
+	private final int clearSize;
+
+	/** Entities returned since persistence context has been flushed. */
+	private final List<Object> returned;
+
+	/** Number of entities returned so far. */
+	private long count;
+
+	/** Flag set when cursor has already been moved to next row. */
+	private boolean fetched;
+
+	/** Flag set when there is a row available at current cursor position. */
+	private boolean available;
+
+	/** Flag set when cursor has been closed. */
+	private boolean closed;
+
+	/**
+	 * Create new iterator.
+	 *
+	 * @param results   Scrollable cursor.
+	 * @param session   Session used to flush the persistence context and detach entities.
+	 * @param clearSize Number of entities to read before detaching them (zero or less to never detach them).
+	 */
+	public ScrollIterator(ScrollableResults results, Session session, int clearSize) {
+		this.results = results;
+		this.session = session;
+		this.clearSize = clearSize;
+		this.returned = new ArrayList<Object>(clearSize > 0 ? clearSize : 0);
+		this.count = 0;
+		this.fetched = false;
+		this.available = false;
+		this.closed = false;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+
+		if (!fetched) {
+			// Detach entities before next row is hydrated.
+			if (clearSize > 0 && count > 0 && count % clearSize == 0) {
+				detach();
+			}
+
+			available = results.next();
+			fetched = true;
+
+			if (!available) {
+				close();
+			}
+		}
+
+		return available;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		fetched = false;
+		count++;
+
+		Object entity = results.get(0);
+		if (clearSize > 0 && entity != null) {
+			returned.add(entity);
+		}
+		return (T) entity;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Get number of entities returned so far.
+	 *
+	 * @return Number of entities.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Check if underlying cursor has been closed.
+	 *
+	 * @return True if cursor is closed, false otherwise.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Flush persistence context (so that updates of returned entities are written), and
+	 * detach returned entities (instead of clearing the whole persistence context, which
+	 * would also detach entities loaded by the caller).
+	 */
+	private void detach() {
+		session.flush();
+		for (Object entity : returned) {
+			if (session.contains(entity)) {
+				session.evict(entity);
+			}
+		}
+		returned.clear();
+	}
+
+	/**
+	 * Close underlying cursor.
+	 * This method can be called several times.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			available = false;
+			results.close();
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.List;
+
+/**
+ * Slice of entities returned by a keyset (seek) pagination query.
+ * A slice contains entities of current page and an opaque token that
+ * should be used to retrieve the next page.
+ *
+ * @param <T> Type of entity.
+ */
+public class Slice<T> {
+
+	/** Entities of current page. */
+	private final List<T> content;
+
+	/** Token to use to retrieve next page, null if current page is the last one. */
+	private final String next;
+
+	/**
+	 * Create new slice.
+	 *
+	 * @param content Entities of current page.
+	 * @param next    Token to use to retrieve next page, null if current page is the last one.
+	 */
+	public Slice(List<T> content, String next) {
+		this.content = unmodifiableList(content);
+		this.next = next;
+	}
+
+	/**
+	 * Get {@link #content}
+	 *
+	 * @return {@link #content}
+	 */
+	public List<T> getContent() {
+		return content;
+	}
+
+	/**
+	 * Get {@link #next}
+	 *
+	 * @return {@link #next}
+	 */
+	public String getNext() {
+		return next;
+	}
+
+	/**
+	 * Check if a next page is available.
+	 *
+	 * @return True if a next page is available, false otherwise.
+	 */
+	public boolean hasNext() {
+		return next != null;
+	}
+
+	/**
+	 * Get number of entities in current page.
+	 *
+	 * @return Number of entities.
+	 */
+	public int size() {
+		return content.size();
+	}
+
+	/**
+	 * Check if current page is empty.
+	 *
+	 * @return True if current page is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return content.isEmpty();
+	}
+}
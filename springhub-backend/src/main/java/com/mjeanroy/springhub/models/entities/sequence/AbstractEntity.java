@@ -0,0 +1,45 @@
+package com.mjeanroy.springhub.models.entities.sequence;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import java.io.Serializable;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.domain.Persistable;
+
+import com.mjeanroy.springhub.models.Model;
+import com.mjeanroy.springhub.models.entities.JPAEntity;
+
+/**
+ * Abstract implementation of jpa entity using an id primary.
+ * Primary key is generated from a database sequence, using an optimizer that
+ * allocates blocks of ids (see {@link Sequence} to configure sequence).
+ *
+ * Contrary to {@link javax.persistence.GenerationType#IDENTITY} generated value, ids are
+ * known before insert, so hibernate can send inserts to the database in JDBC batches.
+ *
+ * A jpa entity implements:
+ * - {@link Model} object.
+ * - {@link JPAEntity} object.
+ * - {@link Persistable} object from spring-data-jpa.
+ *
+ * @param <PK> Generic type of id.
+ */
+@MappedSuperclass
+public abstract class AbstractEntity<PK extends Serializable> extends com.mjeanroy.springhub.models.entities.AbstractEntity<PK> implements Model<PK>, JPAEntity<PK>, Persistable<PK> {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(generator = "springhub-sequence")
+	@GenericGenerator(name = "springhub-sequence", strategy = "com.mjeanroy.springhub.models.entities.sequence.PooledSequenceGenerator")
+	@Column(nullable = false)
+	protected PK id;
+
+	@Override
+	public PK getId() {
+		return id;
+	}
+}
@@ -0,0 +1,60 @@
+package com.mjeanroy.springhub.models.entities.sequence;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.type.Type;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Sequence generator configured with {@link Sequence} annotation of entity class.
+ * Ids are allocated in memory by blocks of {@link Sequence#allocationSize()} ids, so that
+ * a database round trip is not needed for each insert and inserts can be sent to the
+ * database in JDBC batches.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+	/** Default allocation size. */
+	public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+	/** Default suffix appended to table name to get sequence name. */
+	public static final String DEFAULT_SUFFIX = "_seq";
+
+	@Override
+	public void configure(Type type, Properties params, Dialect dialect) throws MappingException {
+		Sequence sequence = findSequence(params.getProperty(IdentifierGenerator.ENTITY_NAME));
+
+		String name = sequence == null ? "" : sequence.name();
+		if (name.isEmpty()) {
+			name = params.getProperty(PersistentIdentifierGenerator.TABLE) + DEFAULT_SUFFIX;
+		}
+
+		int allocationSize = sequence == null ? DEFAULT_ALLOCATION_SIZE : sequence.allocationSize();
+		SequenceOptimizer optimizer = sequence == null ? SequenceOptimizer.POOLED : sequence.optimizer();
+
+		params.setProperty(SEQUENCE_PARAM, name);
+		params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+		params.setProperty(OPT_PARAM, optimizer.getStrategy());
+
+		super.configure(type, params, dialect);
+	}
+
+	private static Sequence findSequence(String entityName) {
+		if (entityName == null) {
+			return null;
+		}
+
+		try {
+			Class<?> klass = ClassUtils.forName(entityName, ClassUtils.getDefaultClassLoader());
+			return AnnotationUtils.findAnnotation(klass, Sequence.class);
+		}
+		catch (ClassNotFoundException ex) {
+			throw new MappingException("Unable to load entity class " + entityName, ex);
+		}
+	}
+}
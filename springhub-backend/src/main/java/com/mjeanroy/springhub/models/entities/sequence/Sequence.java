@@ -0,0 +1,43 @@
+package com.mjeanroy.springhub.models.entities.sequence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configure sequence used to generate ids of an entity extending
+ * {@link AbstractEntity} or {@link AbstractVersionedEntity}.
+ * If an entity is not annotated, default values are used.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Sequence {
+
+	/**
+	 * Name of database sequence.
+	 * Default is the name of entity table with a {@code _seq} suffix.
+	 *
+	 * @return Sequence name.
+	 */
+	String name() default "";
+
+	/**
+	 * Number of ids allocated with a single database round trip.
+	 * Must match the increment of database sequence.
+	 *
+	 * @return Allocation size.
+	 */
+	int allocationSize() default PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+
+	/**
+	 * Optimizer used to allocate ids in memory.
+	 *
+	 * @return Optimizer.
+	 */
+	SequenceOptimizer optimizer() default SequenceOptimizer.POOLED;
+}
@@ -0,0 +1,41 @@
+package com.mjeanroy.springhub.models.entities.sequence;
+
+/**
+ * Optimizers that can be used to allocate ids from a database sequence.
+ */
+public enum SequenceOptimizer {
+
+	/**
+	 * Sequence value is the upper bound of a block of ids.
+	 * Other applications can safely use the same sequence.
+	 */
+	POOLED("pooled"),
+
+	/**
+	 * Sequence value is the lower bound of a block of ids.
+	 * Other applications can safely use the same sequence.
+	 */
+	POOLED_LO("pooled-lo"),
+
+	/**
+	 * Legacy hi/lo algorithm: ids are computed from sequence value and allocation size.
+	 * Other applications cannot use the same sequence without using the same algorithm.
+	 */
+	HILO("hilo");
+
+	/** Name of optimizer for hibernate. */
+	private final String strategy;
+
+	private SequenceOptimizer(String strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Get {@link #strategy}
+	 *
+	 * @return {@link #strategy}
+	 */
+	public String getStrategy() {
+		return strategy;
+	}
+}
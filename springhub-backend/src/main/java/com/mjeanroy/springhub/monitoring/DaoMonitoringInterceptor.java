@@ -0,0 +1,56 @@
+package com.mjeanroy.springhub.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+import com.mjeanroy.springhub.dao.QueryDefinition;
+
+/**
+ * Interceptor recording execution time, number of statements and number of rows
+ * of DAO methods in a {@link QueryMonitor}.
+ */
+public class DaoMonitoringInterceptor implements MethodInterceptor {
+
+	/** Monitor. */
+	private final QueryMonitor monitor;
+
+	/**
+	 * Create interceptor.
+	 *
+	 * @param monitor Monitor.
+	 */
+	public DaoMonitoringInterceptor(QueryMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (!monitor.isEnabled()) {
+			return invocation.proceed();
+		}
+
+		QueryMonitor.Invocation current = monitor.start(name(invocation));
+		long start = System.nanoTime();
+		try {
+			return invocation.proceed();
+		}
+		finally {
+			monitor.end(current, System.nanoTime() - start);
+		}
+	}
+
+	private static String name(MethodInvocation invocation) {
+		Class<?> klass = AopUtils.getTargetClass(invocation.getThis());
+		StringBuilder name = new StringBuilder(klass.getSimpleName())
+				.append('.')
+				.append(invocation.getMethod().getName());
+
+		Object[] args = invocation.getArguments();
+		if (args.length > 0 && args[0] instanceof QueryDefinition) {
+			name.append('[').append(((QueryDefinition) args[0]).getName()).append(']');
+		}
+
+		return name.toString();
+	}
+}
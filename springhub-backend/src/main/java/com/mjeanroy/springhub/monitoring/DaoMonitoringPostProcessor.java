@@ -0,0 +1,47 @@
+package com.mjeanroy.springhub.monitoring;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import com.mjeanroy.springhub.dao.AbstractGenericDao;
+import com.mjeanroy.springhub.dao.GenericDao;
+
+/**
+ * Bean post processor adding {@link DaoMonitoringInterceptor} to DAO beans
+ * ({@link AbstractGenericDao} and {@link GenericDao} sub classes).
+ * Only public methods are monitored.
+ */
+public class DaoMonitoringPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Create post processor.
+	 *
+	 * @param monitor Monitor.
+	 */
+	public DaoMonitoringPostProcessor(QueryMonitor monitor) {
+		StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass) {
+				return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+			}
+		};
+
+		pointcut.setClassFilter(new ClassFilter() {
+			@Override
+			public boolean matches(Class<?> klass) {
+				return AbstractGenericDao.class.isAssignableFrom(klass) || GenericDao.class.isAssignableFrom(klass);
+			}
+		});
+
+		this.advisor = new DefaultPointcutAdvisor(pointcut, new DaoMonitoringInterceptor(monitor));
+		setProxyTargetClass(true);
+		setBeforeExistingAdvisors(true);
+	}
+}
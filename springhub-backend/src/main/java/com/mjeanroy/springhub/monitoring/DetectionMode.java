@@ -0,0 +1,13 @@
+package com.mjeanroy.springhub.monitoring;
+
+/**
+ * Behavior of {@link NPlusOneDetector} when a threshold is crossed.
+ */
+public enum DetectionMode {
+
+	/** Log a warning (once per statement shape and per scope). */
+	WARN,
+
+	/** Throw {@link TooManyStatementsException} from the statement that crossed threshold. */
+	FAIL
+}
@@ -0,0 +1,155 @@
+package com.mjeanroy.springhub.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed buckets (from 100 microseconds to 10 seconds).
+ * Percentiles are approximated with the upper bound of the bucket that contains them.
+ */
+public class LatencyHistogram {
+
+	/** Upper bounds of buckets, in microseconds (last bucket has no upper bound). */
+	private static final long[] BOUNDS = {
+			100, 250, 500,
+			1000, 2500, 5000,
+			10000, 25000, 50000,
+			100000, 250000, 500000,
+			1000000, 2500000, 5000000,
+			10000000
+	};
+
+	/** Number of values in each bucket. */
+	private final AtomicLongArray buckets;
+
+	/** Number of recorded values. */
+	private final AtomicLong count;
+
+	/** Sum of recorded values, in nanoseconds. */
+	private final AtomicLong total;
+
+	/** Maximum recorded value, in nanoseconds. */
+	private final AtomicLong max;
+
+	public LatencyHistogram() {
+		this.buckets = new AtomicLongArray(BOUNDS.length + 1);
+		this.count = new AtomicLong(0);
+		this.total = new AtomicLong(0);
+		this.max = new AtomicLong(0);
+	}
+
+	/**
+	 * Record a value.
+	 *
+	 * @param nanos Value, in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		int index = 0;
+		while (index < BOUNDS.length && micros > BOUNDS[index]) {
+			index++;
+		}
+
+		buckets.incrementAndGet(index);
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+
+		long current = max.get();
+		while (nanos > current && !max.compareAndSet(current, nanos)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Get number of recorded values.
+	 *
+	 * @return Number of values.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Get sum of recorded values.
+	 *
+	 * @return Sum, in milliseconds.
+	 */
+	public double getTotal() {
+		return toMillis(total.get());
+	}
+
+	/**
+	 * Get mean of recorded values.
+	 *
+	 * @return Mean, in milliseconds.
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : toMillis(total.get()) / n;
+	}
+
+	/**
+	 * Get maximum recorded value.
+	 *
+	 * @return Maximum, in milliseconds.
+	 */
+	public double getMax() {
+		return toMillis(max.get());
+	}
+
+	/**
+	 * Get approximate percentile of recorded values.
+	 *
+	 * @param percentile Percentile (between 0 and 100).
+	 * @return Upper bound of bucket containing percentile, in milliseconds (maximum value for last bucket).
+	 */
+	public double getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100");
+		}
+
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(percentile / 100 * n);
+		long seen = 0;
+		for (int i = 0; i < BOUNDS.length; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(BOUNDS[i] / 1000.0, getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * Get number of values in each bucket, indexed by upper bound of bucket (in milliseconds).
+	 * Last bucket (values above 10 seconds) is indexed with {@link Double#POSITIVE_INFINITY}.
+	 *
+	 * @return Buckets.
+	 */
+	public Map<Double, Long> getBuckets() {
+		Map<Double, Long> map = new LinkedHashMap<Double, Long>();
+		for (int i = 0; i < BOUNDS.length; i++) {
+			map.put(BOUNDS[i] / 1000.0, buckets.get(i));
+		}
+		map.put(Double.POSITIVE_INFINITY, buckets.get(BOUNDS.length));
+		return map;
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1000000.0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.2fms, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms",
+				getCount(), getMean(), getPercentile(50), getPercentile(95), getPercentile(99), getMax());
+	}
+}
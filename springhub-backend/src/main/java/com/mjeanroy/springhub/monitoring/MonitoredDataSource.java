@@ -0,0 +1,242 @@
+package com.mjeanroy.springhub.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source recording execution time and number of rows of each SQL statement in a {@link QueryMonitor}
+ * (statements that fail are recorded too, and counted as failures).
+ * When monitor is disabled, connections of target data source are returned as is (and statements of
+ * connections opened before are not recorded).
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+	/** Monitor. */
+	private final QueryMonitor monitor;
+
+	/**
+	 * Create data source.
+	 *
+	 * @param targetDataSource Target data source.
+	 * @param monitor Monitor.
+	 */
+	public MonitoredDataSource(DataSource targetDataSource, QueryMonitor monitor) {
+		super(targetDataSource);
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return monitor(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return monitor(super.getConnection(username, password));
+	}
+
+	private Connection monitor(Connection connection) {
+		if (!monitor.isEnabled()) {
+			return connection;
+		}
+		return proxy(Connection.class, new ConnectionHandler(connection));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	/** Base handler: delegate to target, and implement identity methods. */
+	private abstract static class Handler implements InvocationHandler {
+
+		/** Target object. */
+		private final Object target;
+
+		private Handler(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			return handle(proxy, method, args);
+		}
+
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			return delegate(method, args);
+		}
+
+		final Object delegate(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+	private class ConnectionHandler extends Handler {
+
+		private ConnectionHandler(Connection target) {
+			super(target);
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = delegate(method, args);
+			String name = method.getName();
+			if (result instanceof Statement && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+				return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql));
+			}
+			return result;
+		}
+	}
+
+	private class StatementHandler extends Handler {
+
+		/** SQL of prepared statement (null for plain statements). */
+		private final String sql;
+
+		/** Types of bound parameters (values are never kept). */
+		private final Map<Integer, String> parameters;
+
+		/** SQL of last executed statement. */
+		private String lastSql;
+
+		private StatementHandler(Statement target, String sql) {
+			super(target);
+			this.sql = sql;
+			this.lastSql = sql;
+			this.parameters = new TreeMap<Integer, String>();
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			// Monitoring may have been disabled since connection has been opened.
+			if (!monitor.isEnabled()) {
+				return delegate(method, args);
+			}
+
+			String name = method.getName();
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				boolean isNull = args[1] == null || name.equals("setNull");
+				parameters.put((Integer) args[0], isNull ? "null" : "<" + args[1].getClass().getSimpleName() + ">");
+			}
+			else if (name.equals("clearParameters")) {
+				parameters.clear();
+			}
+			else if (name.startsWith("execute")) {
+				return execute(method, args);
+			}
+			else if (name.equals("getResultSet")) {
+				return wrap(delegate(method, args));
+			}
+
+			return delegate(method, args);
+		}
+
+		private Object execute(Method method, Object[] args) throws Throwable {
+			lastSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+			String masked = parameters.toString();
+
+			long start = System.nanoTime();
+			Object result = null;
+			boolean failed = true;
+			try {
+				result = delegate(method, args);
+				failed = false;
+			}
+			finally {
+				long elapsed = System.nanoTime() - start;
+				monitor.executed(lastSql, elapsed, rows(result), masked, failed);
+			}
+
+			return result instanceof ResultSet ? wrap(result) : result;
+		}
+
+		private long rows(Object result) {
+			if (result instanceof Number) {
+				return ((Number) result).longValue();
+			}
+
+			if (result instanceof int[]) {
+				long rows = 0;
+				for (int count : (int[]) result) {
+					rows += Math.max(count, 0);
+				}
+				return rows;
+			}
+
+			return 0;
+		}
+
+		private Object wrap(Object resultSet) {
+			return resultSet == null ? null : proxy(ResultSet.class, new ResultSetHandler((ResultSet) resultSet, lastSql));
+		}
+	}
+
+	private class ResultSetHandler extends Handler {
+
+		/** SQL of statement that produced result set. */
+		private final String sql;
+
+		/** Number of rows read. */
+		private long rows;
+
+		/** Flag set when number of rows has been recorded. */
+		private boolean recorded;
+
+		private ResultSetHandler(ResultSet target, String sql) {
+			super(target);
+			this.sql = sql;
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("next")) {
+				Boolean next = (Boolean) delegate(method, args);
+				if (next) {
+					rows++;
+				}
+				else {
+					record();
+				}
+				return next;
+			}
+
+			if (name.equals("close")) {
+				record();
+			}
+
+			return delegate(method, args);
+		}
+
+		private void record() {
+			if (!recorded) {
+				recorded = true;
+				monitor.read(sql, rows);
+			}
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package com.mjeanroy.springhub.monitoring;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Detect N+1 queries: count statements executed in a scope, and group them by shape
+ * (SQL with literal values and IN lists replaced by placeholders).
+ *
+ * A scope is opened explicitly (see {@link #begin()} and {@link #end()}, used by web interceptor
+ * and tests), or automatically for each transaction executing statements outside of an explicit
+ * scope. When a shape is executed more than {@link #getMaxRepeatedStatements()} times, or when
+ * scope executes more than {@link #getMaxStatements()} statements, detector logs a warning or
+ * throws {@link TooManyStatementsException} (see {@link DetectionMode}).
+ *
+ * Detector must be registered on a {@link QueryMonitor} (done by constructor).
+ */
+public class NPlusOneDetector implements StatementListener {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(NPlusOneDetector.class);
+
+	/** Default maximum number of executions of a statement shape. */
+	public static final int DEFAULT_MAX_REPEATED_STATEMENTS = 10;
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+	private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+	private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+	/** Scope of current thread. */
+	private final ThreadLocal<Scope> scope;
+
+	/** Behavior when a threshold is crossed. */
+	private volatile DetectionMode mode;
+
+	/** Maximum number of executions of a statement shape in a scope. */
+	private volatile int maxRepeatedStatements;
+
+	/** Maximum number of statements in a scope (zero or less for no limit). */
+	private volatile int maxStatements;
+
+	/** Open a scope for each transaction executing statements outside of an explicit scope. */
+	private volatile boolean transactionScoped;
+
+	/**
+	 * Create detector and register it on monitor.
+	 *
+	 * @param monitor Monitor.
+	 */
+	public NPlusOneDetector(QueryMonitor monitor) {
+		this.scope = new ThreadLocal<Scope>();
+		this.mode = DetectionMode.WARN;
+		this.maxRepeatedStatements = DEFAULT_MAX_REPEATED_STATEMENTS;
+		this.maxStatements = 0;
+		this.transactionScoped = true;
+		monitor.addListener(this);
+	}
+
+	/**
+	 * Get {@link #mode}
+	 *
+	 * @return {@link #mode}
+	 */
+	public DetectionMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Set {@link #mode}
+	 *
+	 * @param mode New {@link #mode}
+	 */
+	public void setMode(DetectionMode mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Get {@link #maxRepeatedStatements}
+	 *
+	 * @return {@link #maxRepeatedStatements}
+	 */
+	public int getMaxRepeatedStatements() {
+		return maxRepeatedStatements;
+	}
+
+	/**
+	 * Set {@link #maxRepeatedStatements}
+	 *
+	 * @param maxRepeatedStatements New {@link #maxRepeatedStatements}
+	 */
+	public void setMaxRepeatedStatements(int maxRepeatedStatements) {
+		this.maxRepeatedStatements = maxRepeatedStatements;
+	}
+
+	/**
+	 * Get {@link #maxStatements}
+	 *
+	 * @return {@link #maxStatements}
+	 */
+	public int getMaxStatements() {
+		return maxStatements;
+	}
+
+	/**
+	 * Set {@link #maxStatements}
+	 *
+	 * @param maxStatements New {@link #maxStatements}
+	 */
+	public void setMaxStatements(int maxStatements) {
+		this.maxStatements = maxStatements;
+	}
+
+	/**
+	 * Get {@link #transactionScoped}
+	 *
+	 * @return {@link #transactionScoped}
+	 */
+	public boolean isTransactionScoped() {
+		return transactionScoped;
+	}
+
+	/**
+	 * Set {@link #transactionScoped}
+	 *
+	 * @param transactionScoped New {@link #transactionScoped}
+	 */
+	public void setTransactionScoped(boolean transactionScoped) {
+		this.transactionScoped = transactionScoped;
+	}
+
+	/**
+	 * Open a scope for current thread.
+	 * Scopes can be nested: statements executed in a nested scope are also counted in enclosing scopes.
+	 */
+	public void begin() {
+		scope.set(new Scope(scope.get()));
+	}
+
+	/**
+	 * Close current scope of current thread.
+	 *
+	 * @return Report of closed scope.
+	 */
+	public QueryReport end() {
+		Scope current = scope.get();
+		if (current == null) {
+			throw new IllegalStateException("No query scope opened for current thread");
+		}
+
+		// Scope of a transaction that completed while this scope was opened is not restored.
+		Scope parent = current.parent;
+		while (parent != null && parent.closed) {
+			parent = parent.parent;
+		}
+
+		if (parent == null) {
+			scope.remove();
+		}
+		else {
+			scope.set(parent);
+		}
+
+		QueryReport report = current.report();
+		log.debug("Query scope closed: {}", report);
+		return report;
+	}
+
+	/**
+	 * Get report of current scope.
+	 *
+	 * @return Report, null if no scope is opened.
+	 */
+	public QueryReport current() {
+		Scope current = scope.get();
+		return current == null ? null : current.report();
+	}
+
+	@Override
+	public void statementExecuted(String sql, long elapsed) {
+		Scope current = scope.get();
+		if (current == null) {
+			if (!transactionScoped || !TransactionSynchronizationManager.isSynchronizationActive()) {
+				return;
+			}
+
+			final Scope created = new Scope(null);
+			scope.set(created);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					// An explicit scope may have been opened (and not yet closed) during transaction.
+					created.closed = true;
+					if (scope.get() == created) {
+						scope.remove();
+					}
+				}
+			});
+
+			current = created;
+		}
+
+		String shape = shape(sql);
+		int max = maxStatements;
+		for (Scope target = current; target != null; target = target.parent) {
+			int count = target.add(shape);
+
+			if (count > maxRepeatedStatements && target.reported.add(shape)) {
+				crossed("Statement executed " + count + " times in the same scope (N+1 queries?): " + shape, target);
+			}
+
+			if (max > 0 && target.statements == max + 1) {
+				crossed("More than " + max + " statements executed in the same scope", target);
+			}
+		}
+	}
+
+	private void crossed(String message, Scope current) {
+		if (mode == DetectionMode.FAIL) {
+			throw new TooManyStatementsException(message, current.report());
+		}
+		log.warn(message);
+	}
+
+	/**
+	 * Compute shape of given SQL statement.
+	 *
+	 * @param sql SQL statement.
+	 * @return Shape.
+	 */
+	static String shape(String sql) {
+		if (sql == null) {
+			return "";
+		}
+
+		String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+		shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+		shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+		return WHITESPACES.matcher(shape).replaceAll(" ").trim();
+	}
+
+	/** Statements executed in a scope. */
+	private static final class Scope {
+
+		/** Number of executions of each shape. */
+		private final Map<String, Integer> shapes = new HashMap<String, Integer>();
+
+		/** Shapes that already crossed threshold. */
+		private final Set<String> reported = new HashSet<String>();
+
+		/** Enclosing scope. */
+		private final Scope parent;
+
+		/** Number of executed statements. */
+		private int statements;
+
+		/** Flag set when transaction of an automatic scope has completed. */
+		private boolean closed;
+
+		private Scope(Scope parent) {
+			this.parent = parent;
+		}
+
+		private int add(String shape) {
+			statements++;
+			Integer count = shapes.get(shape);
+			int value = count == null ? 1 : count + 1;
+			shapes.put(shape, value);
+			return value;
+		}
+
+		private QueryReport report() {
+			return new QueryReport(statements, shapes);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.mjeanroy.springhub.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a monitored operation (a DAO method or a SQL statement):
+ * latency histogram, number of rows, number of statements and number of failures.
+ */
+public class OperationStats {
+
+	/** Operation name. */
+	private final String name;
+
+	/** Latency histogram. */
+	private final LatencyHistogram latency;
+
+	/** Number of rows read or updated. */
+	private final AtomicLong rows;
+
+	/** Number of executed statements. */
+	private final AtomicLong statements;
+
+	/** Number of executions that failed. */
+	private final AtomicLong failures;
+
+	OperationStats(String name) {
+		this.name = name;
+		this.latency = new LatencyHistogram();
+		this.rows = new AtomicLong(0);
+		this.statements = new AtomicLong(0);
+		this.failures = new AtomicLong(0);
+	}
+
+	/**
+	 * Get {@link #name}
+	 *
+	 * @return {@link #name}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get {@link #latency}
+	 *
+	 * @return {@link #latency}
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Get number of executions.
+	 *
+	 * @return Number of executions.
+	 */
+	public long getCount() {
+		return latency.getCount();
+	}
+
+	/**
+	 * Get number of rows read or updated.
+	 *
+	 * @return Number of rows.
+	 */
+	public long getRowCount() {
+		return rows.get();
+	}
+
+	/**
+	 * Get number of executed statements.
+	 *
+	 * @return Number of statements.
+	 */
+	public long getStatementCount() {
+		return statements.get();
+	}
+
+	/**
+	 * Get number of executions that failed (failed executions are also
+	 * counted in {@link #getCount()} and in latency histogram).
+	 *
+	 * @return Number of failures.
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	void addRows(long count) {
+		rows.addAndGet(count);
+	}
+
+	void addStatements(long count) {
+		statements.addAndGet(count);
+	}
+
+	void addFailures(long count) {
+		failures.addAndGet(count);
+	}
+
+	@Override
+	public String toString() {
+		return name + ": " + latency + ", statements=" + getStatementCount() + ", rows=" + getRowCount() + ", failures=" + getFailureCount();
+	}
+}
@@ -0,0 +1,267 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collect latency statistics of DAO methods (see {@link DaoMonitoringInterceptor}) and
+ * SQL statements (see {@link MonitoredDataSource}).
+ *
+ * Statements executed during a DAO method are counted in the statistics of this method.
+ * Statements slower than {@link #getSlowQueryThreshold()} are logged, with bound parameters
+ * masked (only parameter types are logged).
+ *
+ * When monitor is disabled, DAO methods and connections are not instrumented at all.
+ */
+public class QueryMonitor {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(QueryMonitor.class);
+
+	/** Default slow query threshold, in milliseconds. */
+	public static final long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+
+	/** Maximum number of distinct statements, other statements are grouped in {@link #OTHER_STATEMENTS}. */
+	public static final int MAX_STATEMENTS = 1000;
+
+	/** Name of statistics grouping statements above {@link #MAX_STATEMENTS}. */
+	public static final String OTHER_STATEMENTS = "<other>";
+
+	/** Monitoring flag. */
+	private volatile boolean enabled;
+
+	/** Slow query threshold, in milliseconds. */
+	private volatile long slowQueryThreshold;
+
+	/** Statistics of DAO methods. */
+	private final ConcurrentMap<String, OperationStats> methods;
+
+	/** Statistics of SQL statements. */
+	private final ConcurrentMap<String, OperationStats> statements;
+
+	/** Statement listeners. */
+	private final List<StatementListener> listeners;
+
+	/** DAO method executed by current thread. */
+	private final ThreadLocal<Invocation> current;
+
+	public QueryMonitor() {
+		this.enabled = true;
+		this.slowQueryThreshold = DEFAULT_SLOW_QUERY_THRESHOLD;
+		this.methods = new ConcurrentHashMap<String, OperationStats>();
+		this.statements = new ConcurrentHashMap<String, OperationStats>();
+		this.listeners = new CopyOnWriteArrayList<StatementListener>();
+		this.current = new ThreadLocal<Invocation>();
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Set {@link #enabled}
+	 *
+	 * @param enabled New {@link #enabled}
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Get {@link #slowQueryThreshold}
+	 *
+	 * @return {@link #slowQueryThreshold}
+	 */
+	public long getSlowQueryThreshold() {
+		return slowQueryThreshold;
+	}
+
+	/**
+	 * Set {@link #slowQueryThreshold}
+	 *
+	 * @param slowQueryThreshold New {@link #slowQueryThreshold}
+	 */
+	public void setSlowQueryThreshold(long slowQueryThreshold) {
+		this.slowQueryThreshold = slowQueryThreshold;
+	}
+
+	/**
+	 * Register statement listener.
+	 *
+	 * @param listener Listener.
+	 */
+	public void addListener(StatementListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Remove statement listener.
+	 *
+	 * @param listener Listener.
+	 */
+	public void removeListener(StatementListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Get statistics of DAO methods, indexed by method name ({@code FooDao.findAll}).
+	 * Methods executing a declared query are suffixed with query name ({@code FooDao.findAll[foo.findByName]}).
+	 *
+	 * @return Statistics.
+	 */
+	public Map<String, OperationStats> getMethods() {
+		return unmodifiableMap(methods);
+	}
+
+	/**
+	 * Get statistics of SQL statements, indexed by SQL.
+	 *
+	 * @return Statistics.
+	 */
+	public Map<String, OperationStats> getStatements() {
+		return unmodifiableMap(statements);
+	}
+
+	/** Reset statistics. */
+	public void clear() {
+		methods.clear();
+		statements.clear();
+	}
+
+	/**
+	 * Start monitoring of a DAO method.
+	 *
+	 * @param name Method name.
+	 * @return Invocation.
+	 */
+	Invocation start(String name) {
+		Invocation invocation = new Invocation(name, current.get());
+		current.set(invocation);
+		return invocation;
+	}
+
+	/**
+	 * End monitoring of a DAO method.
+	 *
+	 * @param invocation Invocation.
+	 * @param elapsed Execution time, in nanoseconds.
+	 */
+	void end(Invocation invocation, long elapsed) {
+		if (invocation.parent == null) {
+			current.remove();
+		}
+		else {
+			current.set(invocation.parent);
+			invocation.parent.statements += invocation.statements;
+			invocation.parent.rows += invocation.rows;
+		}
+
+		OperationStats stats = stats(methods, invocation.name);
+		stats.getLatency().record(elapsed);
+		stats.addStatements(invocation.statements);
+		stats.addRows(invocation.rows);
+	}
+
+	/**
+	 * Record execution of a SQL statement.
+	 *
+	 * @param sql SQL statement.
+	 * @param elapsed Execution time, in nanoseconds.
+	 * @param rows Number of updated rows.
+	 * @param parameters Bound parameters (masked).
+	 * @param failed True if statement failed, false otherwise.
+	 */
+	void executed(String sql, long elapsed, long rows, Object parameters, boolean failed) {
+		OperationStats stats = statement(sql);
+		stats.getLatency().record(elapsed);
+		stats.addStatements(1);
+		stats.addRows(rows);
+		if (failed) {
+			stats.addFailures(1);
+		}
+
+		Invocation invocation = current.get();
+		if (invocation != null) {
+			invocation.statements++;
+			invocation.rows += rows;
+		}
+
+		long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+		if (millis >= slowQueryThreshold) {
+			log.warn("Slow query ({}ms{}): {} - parameters: {}", millis, invocation == null ? "" : " in " + invocation.name, sql, parameters);
+		}
+
+		for (StatementListener listener : listeners) {
+			listener.statementExecuted(sql, elapsed);
+		}
+	}
+
+	/**
+	 * Record rows read by a SQL statement.
+	 *
+	 * @param sql SQL statement.
+	 * @param rows Number of rows.
+	 */
+	void read(String sql, long rows) {
+		statement(sql).addRows(rows);
+
+		Invocation invocation = current.get();
+		if (invocation != null) {
+			invocation.rows += rows;
+		}
+	}
+
+	private OperationStats statement(String sql) {
+		if (statements.size() >= MAX_STATEMENTS && !statements.containsKey(sql)) {
+			return stats(statements, OTHER_STATEMENTS);
+		}
+		return stats(statements, sql);
+	}
+
+	private static OperationStats stats(ConcurrentMap<String, OperationStats> map, String name) {
+		OperationStats stats = map.get(name);
+		if (stats == null) {
+			OperationStats created = new OperationStats(name);
+			stats = map.putIfAbsent(name, created);
+			if (stats == null) {
+				stats = created;
+			}
+		}
+		return stats;
+	}
+
+	/** DAO method executed by a thread. */
+	static final class Invocation {
+
+		/** Method name. */
+		private final String name;
+
+		/** Enclosing DAO method. */
+		private final Invocation parent;
+
+		/** Number of statements executed during invocation. */
+		private long statements;
+
+		/** Number of rows read or updated during invocation. */
+		private long rows;
+
+		private Invocation(String name, Invocation parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+	}
+}
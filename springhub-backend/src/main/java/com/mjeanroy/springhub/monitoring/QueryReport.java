@@ -0,0 +1,77 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed in a scope (web request, transaction or explicit scope) of {@link NPlusOneDetector}.
+ * Statements are grouped by shape: SQL with literal values replaced by placeholders.
+ */
+public class QueryReport {
+
+	/** Number of executed statements. */
+	private final int statementCount;
+
+	/** Number of executions of each statement shape, sorted by descending number of executions. */
+	private final Map<String, Integer> shapes;
+
+	QueryReport(int statementCount, Map<String, Integer> shapes) {
+		List<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>(shapes.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, Integer>>() {
+			@Override
+			public int compare(Map.Entry<String, Integer> e1, Map.Entry<String, Integer> e2) {
+				return e2.getValue().compareTo(e1.getValue());
+			}
+		});
+
+		Map<String, Integer> sorted = new LinkedHashMap<String, Integer>();
+		for (Map.Entry<String, Integer> entry : entries) {
+			sorted.put(entry.getKey(), entry.getValue());
+		}
+
+		this.statementCount = statementCount;
+		this.shapes = unmodifiableMap(sorted);
+	}
+
+	/**
+	 * Get {@link #statementCount}
+	 *
+	 * @return {@link #statementCount}
+	 */
+	public int getStatementCount() {
+		return statementCount;
+	}
+
+	/**
+	 * Get {@link #shapes}
+	 *
+	 * @return {@link #shapes}
+	 */
+	public Map<String, Integer> getShapes() {
+		return shapes;
+	}
+
+	/**
+	 * Get maximum number of executions of a single statement shape.
+	 *
+	 * @return Maximum number of executions.
+	 */
+	public int getMaxRepeatedStatements() {
+		return shapes.isEmpty() ? 0 : shapes.values().iterator().next();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder().append(statementCount).append(" statement(s)");
+		for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+			sb.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,16 @@
+package com.mjeanroy.springhub.monitoring;
+
+/**
+ * Listener notified each time a SQL statement is executed through a {@link MonitoredDataSource}.
+ * Listeners are called in the thread that executed the statement.
+ */
+public interface StatementListener {
+
+	/**
+	 * Statement has been executed.
+	 *
+	 * @param sql SQL statement.
+	 * @param elapsed Execution time, in nanoseconds.
+	 */
+	void statementExecuted(String sql, long elapsed);
+}
@@ -0,0 +1,27 @@
+package com.mjeanroy.springhub.monitoring;
+
+/**
+ * Exception thrown by {@link NPlusOneDetector} (in {@link DetectionMode#FAIL} mode)
+ * when too many statements are executed in a single scope.
+ */
+public class TooManyStatementsException extends IllegalStateException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Report of scope that crossed threshold. */
+	private final QueryReport report;
+
+	public TooManyStatementsException(String message, QueryReport report) {
+		super(message);
+		this.report = report;
+	}
+
+	/**
+	 * Get {@link #report}
+	 *
+	 * @return {@link #report}
+	 */
+	public QueryReport getReport() {
+		return report;
+	}
+}
@@ -3,13 +3,17 @@ package com.mjeanroy.springhub.services;
 import javax.inject.Inject;
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.mjeanroy.springhub.commons.reflections.ReflectionUtils;
+import com.mjeanroy.springhub.dao.BatchResult;
 import com.mjeanroy.springhub.dao.GenericDao;
+import com.mjeanroy.springhub.dao.InvalidationRegistry;
 import com.mjeanroy.springhub.models.entities.JPAEntity;
 
 /**
@@ -26,20 +30,152 @@ public abstract class AbstractServices<PK extends Serializable, T extends JPAEnt
 	@Inject
 	private GenericDao genericDao;
 
+	/** Optional cache of entities, used by {@link #get(Serializable)}. */
+	private volatile EntityCache<PK, T> cache;
+
+	/** Optional coalescing of concurrent loads, used by {@link #get(Serializable)}. */
+	private volatile SingleFlight<PK, T> singleFlight;
+
+	/** Cache registered in invalidation registry, so that it is invalidated on every write. */
+	private volatile EntityCache<PK, T> registeredCache;
+
+	/** Listener registered in invalidation registry. */
+	private InvalidationRegistry.Listener registeredListener;
+
 	@SuppressWarnings("unchecked")
 	public AbstractServices() {
 		this.type = (Class<T>) ReflectionUtils.getGenericType(getClass(), 1);
 	}
 
+	/**
+	 * Get {@link #cache}
+	 *
+	 * @return {@link #cache}
+	 */
+	public EntityCache<PK, T> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Set {@link #cache}
+	 * Cache is disabled by default.
+	 *
+	 * Cache is invalidated by writes of this service, and by every insert, update or delete of an entity
+	 * of this type that goes through hibernate (see {@link InvalidationRegistry}), including bulk
+	 * statements executed with {@link com.mjeanroy.springhub.dao.AbstractGenericDao}.
+	 *
+	 * @param cache New {@link #cache}, null to disable cache.
+	 */
+	public void setCache(EntityCache<PK, T> cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Get {@link #singleFlight}
+	 *
+	 * @return {@link #singleFlight}
+	 */
+	public SingleFlight<PK, T> getSingleFlight() {
+		return singleFlight;
+	}
+
+	/**
+	 * Set {@link #singleFlight}
+	 * Coalescing is disabled by default.
+	 *
+	 * @param singleFlight New {@link #singleFlight}, null to disable coalescing.
+	 */
+	public void setSingleFlight(SingleFlight<PK, T> singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
 	/**
 	 * Find item in database from its id.
 	 *
+	 * If a cache has been set and current transaction is read-only, item is read from cache: returned
+	 * item is then a detached copy. If coalescing is enabled and current transaction is read-only, concurrent
+	 * lookups of the same id share a single load: items returned to waiting threads are then detached copies.
+	 *
+	 * Items are never read from (or put in) cache and loads are never shared in a read-write
+	 * transaction, since items could have been modified and not committed.
+	 *
 	 * @param id Id to look for.
 	 * @return Item or null if id does not exist.
 	 */
 	@Transactional(readOnly = true, propagation = Propagation.REQUIRED)
-	public T get(PK id) {
-		return genericDao.find(type, id);
+	public T get(final PK id) {
+		final EntityCache<PK, T> cache = this.cache;
+		SingleFlight<PK, T> singleFlight = this.singleFlight;
+		if ((cache == null && singleFlight == null) || id == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return genericDao.find(type, id);
+		}
+
+		if (cache != null && cache != registeredCache) {
+			register(cache);
+		}
+
+		T entity = cache == null ? null : cache.get(id);
+		if (entity != null) {
+			return entity;
+		}
+
+		if (singleFlight == null) {
+			return load(id, cache);
+		}
+
+		return singleFlight.execute(id, new Callable<T>() {
+			@Override
+			public T call() {
+				return load(id, cache);
+			}
+		});
+	}
+
+	private T load(PK id, EntityCache<PK, T> cache) {
+		// Stamp is read before entity is loaded: snapshot is discarded if entity is written in the meantime.
+		long stamp = cache == null ? 0 : cache.stamp(id);
+		T entity = genericDao.find(type, id);
+		if (entity != null && cache != null) {
+			cache.put(id, entity, stamp);
+		}
+		return entity;
+	}
+
+	/**
+	 * Register cache in invalidation registry, so that it is invalidated when entities are written
+	 * by any DAO or service. Registration is done before first entity is put in cache.
+	 *
+	 * @param cache Cache.
+	 */
+	private synchronized void register(final EntityCache<PK, T> cache) {
+		if (cache == registeredCache) {
+			return;
+		}
+
+		InvalidationRegistry registry = genericDao.getInvalidationRegistry();
+		registeredCache = cache;
+		if (registry == null) {
+			return;
+		}
+
+		if (registeredListener != null) {
+			registry.unregister(registeredListener);
+		}
+
+		registeredListener = new InvalidationRegistry.Listener() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public void invalidate(Class<?> type, Serializable id) {
+				if (id == null) {
+					cache.invalidateAll();
+				}
+				else {
+					cache.invalidate((PK) id);
+				}
+			}
+		};
+
+		registry.register(type, registeredListener);
 	}
 
 	/**
@@ -71,9 +207,24 @@ public abstract class AbstractServices<PK extends Serializable, T extends JPAEnt
 	@Transactional(readOnly = false, propagation = Propagation.REQUIRED)
 	public T save(T entity) {
 		genericDao.persist(entity);
+		invalidate(entity);
 		return entity;
 	}
 
+	/**
+	 * Persist a large number of entities in database.
+	 * Entities are flushed in batches and detached when this method returns.
+	 *
+	 * @param entities Entities to persist.
+	 * @return Result of operation.
+	 */
+	@Transactional(readOnly = false, propagation = Propagation.REQUIRED)
+	public BatchResult saveAll(Iterable<T> entities) {
+		BatchResult result = genericDao.persistAll(entities);
+		invalidateAll();
+		return result;
+	}
+
 	/**
 	 * Delete entity in database.
 	 *
@@ -82,5 +233,35 @@ public abstract class AbstractServices<PK extends Serializable, T extends JPAEnt
 	@Transactional(readOnly = false, propagation = Propagation.REQUIRED)
 	public void delete(T entity) {
 		genericDao.remove(entity);
+		invalidate(entity);
+	}
+
+	/**
+	 * Delete a large number of entities in database.
+	 * Entities are flushed in batches.
+	 *
+	 * @param entities Entities to delete.
+	 * @return Result of operation.
+	 */
+	@Transactional(readOnly = false, propagation = Propagation.REQUIRED)
+	public BatchResult deleteAll(Iterable<T> entities) {
+		BatchResult result = genericDao.removeAll(entities);
+		invalidateAll();
+		return result;
+	}
+
+	private void invalidateAll() {
+		// Entities may only be iterated once, so do not look for written ids.
+		EntityCache<PK, T> cache = this.cache;
+		if (cache != null) {
+			cache.invalidateAll();
+		}
+	}
+
+	private void invalidate(T entity) {
+		EntityCache<PK, T> cache = this.cache;
+		if (cache != null && entity.getId() != null) {
+			cache.invalidate(entity.getId());
+		}
 	}
 }
@@ -0,0 +1,119 @@
+package com.mjeanroy.springhub.services;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import com.mjeanroy.springhub.models.entities.JPAEntity;
+
+/**
+ * Asynchronous facade of {@link AbstractServices}.
+ * Each call is run by a {@link TransactionalExecutor}, in its own transaction, so
+ * that independent lookups can be run concurrently.
+ *
+ * Note that entities returned by these methods are detached (transaction is
+ * committed when future completes).
+ *
+ * @param <PK> Type of entity id.
+ * @param <T> Entity class.
+ */
+public class AsyncServices<PK extends Serializable, T extends JPAEntity<PK>> {
+
+	/** Services. */
+	private final AbstractServices<PK, T> services;
+
+	/** Executor. */
+	private final TransactionalExecutor executor;
+
+	/**
+	 * Create facade.
+	 *
+	 * @param services Services.
+	 * @param executor Executor.
+	 */
+	public AsyncServices(AbstractServices<PK, T> services, TransactionalExecutor executor) {
+		this.services = services;
+		this.executor = executor;
+	}
+
+	/**
+	 * Find item in database from its id.
+	 *
+	 * @param id Id to look for.
+	 * @return Future item (null if id does not exist).
+	 * @see AbstractServices#get(Serializable)
+	 */
+	public ListenableFuture<T> get(final PK id) {
+		return executor.submitReadOnly(new Callable<T>() {
+			@Override
+			public T call() {
+				return services.get(id);
+			}
+		});
+	}
+
+	/**
+	 * Find all items in database.
+	 *
+	 * @return Future items.
+	 * @see AbstractServices#getAll()
+	 */
+	public ListenableFuture<List<T>> getAll() {
+		return executor.submitReadOnly(new Callable<List<T>>() {
+			@Override
+			public List<T> call() {
+				return services.getAll();
+			}
+		});
+	}
+
+	/**
+	 * Count all items in database.
+	 *
+	 * @return Future count.
+	 * @see AbstractServices#count()
+	 */
+	public ListenableFuture<Long> count() {
+		return executor.submitReadOnly(new Callable<Long>() {
+			@Override
+			public Long call() {
+				return services.count();
+			}
+		});
+	}
+
+	/**
+	 * Persist entity in database.
+	 *
+	 * @param entity Entity to persist.
+	 * @return Future persisted entity.
+	 * @see AbstractServices#save(JPAEntity)
+	 */
+	public ListenableFuture<T> save(final T entity) {
+		return executor.submit(new Callable<T>() {
+			@Override
+			public T call() {
+				return services.save(entity);
+			}
+		});
+	}
+
+	/**
+	 * Delete entity in database.
+	 *
+	 * @param entity Entity to delete.
+	 * @return Future completed when entity has been deleted.
+	 * @see AbstractServices#delete(JPAEntity)
+	 */
+	public ListenableFuture<Void> delete(final T entity) {
+		return executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() {
+				services.delete(entity);
+				return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,204 @@
+package com.mjeanroy.springhub.services;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory cache of entities of a given type, indexed by id.
+ *
+ * Cache stores snapshots of entities (copies obtained by serialization) and always returns
+ * new copies, so cached entities are never shared between threads or attached to a
+ * persistence context. Lazy associations that were not initialized when an entity was
+ * cached cannot be loaded from a copy.
+ *
+ * Entries are invalidated immediately and once again when current transaction completes, so that
+ * a snapshot loaded by a concurrent transaction before commit cannot be kept. Each invalidation also
+ * increments a generation: a snapshot put with a stamp (see {@link #stamp(Serializable)}) read before
+ * an invalidation of the same entity is discarded, so that a reader that loaded an entity before a
+ * concurrent commit cannot put its stale snapshot after the entity has been invalidated.
+ *
+ * @param <PK> Type of entity id.
+ * @param <T> Type of entity.
+ */
+public class EntityCache<PK extends Serializable, T extends Serializable> {
+
+	/** Number of generations of entries: entities whose ids share the same hash share the same generation. */
+	private static final int GENERATIONS = 64;
+
+	/** Cached snapshots. */
+	private final Cache<PK, T> cache;
+
+	/** Generations of entries, incremented when an entry is invalidated. */
+	private final AtomicLongArray generations;
+
+	/** Generation of the whole cache, incremented when all entries are invalidated. */
+	private final AtomicLong generation;
+
+	/** Lock used to check stamp of a snapshot and put it atomically. */
+	private final Object lock;
+
+	/**
+	 * Create cache.
+	 *
+	 * @param maxSize    Maximum number of entities.
+	 * @param timeToLive Time to live of entities (zero or less means entities never expire).
+	 * @param unit       Time unit of time to live.
+	 */
+	public EntityCache(long maxSize, long timeToLive, TimeUnit unit) {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.recordStats();
+
+		if (timeToLive > 0) {
+			builder.expireAfterWrite(timeToLive, unit);
+		}
+
+		this.cache = builder.build();
+		this.generations = new AtomicLongArray(GENERATIONS);
+		this.generation = new AtomicLong(0);
+		this.lock = new Object();
+	}
+
+	/**
+	 * Get copy of cached entity.
+	 *
+	 * @param id Entity id.
+	 * @return Copy of entity, null if entity is not in cache.
+	 */
+	public T get(PK id) {
+		T snapshot = cache.getIfPresent(id);
+		return snapshot == null ? null : SerializationUtils.clone(snapshot);
+	}
+
+	/**
+	 * Get current stamp of an entity.
+	 * Stamp must be read before entity is loaded, and given to {@link #put(Serializable, Serializable, long)}.
+	 *
+	 * @param id Entity id.
+	 * @return Stamp.
+	 */
+	public long stamp(PK id) {
+		// Both generations only increase: sum changes as soon as one of them is incremented.
+		return generation.get() + generations.get(index(id));
+	}
+
+	/**
+	 * Put snapshot of entity in cache, unless entity has been invalidated since given stamp has been read.
+	 *
+	 * @param id     Entity id.
+	 * @param entity Entity.
+	 * @param stamp  Stamp read before entity has been loaded.
+	 * @return True if snapshot has been put in cache, false if it has been discarded.
+	 */
+	public boolean put(PK id, T entity, long stamp) {
+		T snapshot = SerializationUtils.clone(entity);
+		synchronized (lock) {
+			if (stamp(id) != stamp) {
+				return false;
+			}
+
+			cache.put(id, snapshot);
+			return true;
+		}
+	}
+
+	/**
+	 * Put snapshot of entity in cache.
+	 * Snapshot is not checked against concurrent invalidations: use {@link #put(Serializable, Serializable, long)}
+	 * to cache an entity loaded from database.
+	 *
+	 * @param id     Entity id.
+	 * @param entity Entity.
+	 */
+	public void put(PK id, T entity) {
+		cache.put(id, SerializationUtils.clone(entity));
+	}
+
+	/**
+	 * Invalidate entity now and when current transaction completes.
+	 *
+	 * @param id Entity id.
+	 */
+	public void invalidate(final PK id) {
+		evict(id);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					evict(id);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Invalidate all entities now and when current transaction completes.
+	 */
+	public void invalidateAll() {
+		evictAll();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					evictAll();
+				}
+			});
+		}
+	}
+
+	private void evict(PK id) {
+		synchronized (lock) {
+			generations.incrementAndGet(index(id));
+			cache.invalidate(id);
+		}
+	}
+
+	private void evictAll() {
+		synchronized (lock) {
+			generation.incrementAndGet();
+			cache.invalidateAll();
+		}
+	}
+
+	private static int index(Object id) {
+		return (id.hashCode() & Integer.MAX_VALUE) % GENERATIONS;
+	}
+
+	/**
+	 * Get number of entities in cache.
+	 *
+	 * @return Number of entities.
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * Get cache statistics.
+	 *
+	 * @return Statistics.
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Get ratio of lookups that returned a cached entity.
+	 *
+	 * @return Hit ratio (between 0 and 1).
+	 */
+	public double getHitRatio() {
+		return cache.stats().hitRate();
+	}
+}
@@ -0,0 +1,334 @@
+package com.mjeanroy.springhub.services;
+
+import static java.util.Collections.unmodifiableMap;
+
+import javax.persistence.OptimisticLockException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.StaleStateException;
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Run a unit of work in a new transaction and run it again when transaction fails
+ * because of an optimistic lock conflict (concurrent update of a versioned entity,
+ * such as {@link com.mjeanroy.springhub.models.entities.identity.AbstractVersionedEntity}).
+ *
+ * Each attempt runs in its own transaction (and thus its own persistence context): unit of work
+ * must read entities it updates, so that a new attempt works on fresh state. Attempts are
+ * bounded and separated by an exponential backoff with random jitter, so that concurrent
+ * writers of the same rows do not conflict again at the same time.
+ *
+ * Number of conflicts is recorded per entity type, to find hot rows.
+ */
+public class OptimisticRetryTemplate {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(OptimisticRetryTemplate.class);
+
+	/** Key used to record conflicts when entity type is not known. */
+	public static final String UNKNOWN_ENTITY = "<unknown>";
+
+	/** Default maximum number of attempts. */
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+	/** Default delay before second attempt, in milliseconds. */
+	public static final long DEFAULT_INITIAL_BACKOFF = 10;
+
+	/** Default maximum delay between two attempts, in milliseconds. */
+	public static final long DEFAULT_MAX_BACKOFF = 1000;
+
+	/** Template of read-write transactions. */
+	private final TransactionTemplate template;
+
+	/** Random generator used to compute jitter. */
+	private final Random random;
+
+	/** Number of conflicts, indexed by entity name. */
+	private final ConcurrentMap<String, AtomicLong> conflicts;
+
+	/** Number of attempts that have been retried. */
+	private final AtomicLong retries;
+
+	/** Number of units of work that failed after last attempt. */
+	private final AtomicLong failures;
+
+	/** Maximum number of attempts (first attempt included). */
+	private volatile int maxAttempts;
+
+	/** Delay before second attempt, in milliseconds. */
+	private volatile long initialBackoff;
+
+	/** Maximum delay between two attempts, in milliseconds. */
+	private volatile long maxBackoff;
+
+	/**
+	 * Create template.
+	 *
+	 * @param transactionManager Transaction manager.
+	 */
+	public OptimisticRetryTemplate(PlatformTransactionManager transactionManager) {
+		this.template = new TransactionTemplate(transactionManager);
+		this.template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.random = new Random();
+		this.conflicts = new ConcurrentHashMap<String, AtomicLong>();
+		this.retries = new AtomicLong(0);
+		this.failures = new AtomicLong(0);
+		this.maxAttempts = DEFAULT_MAX_ATTEMPTS;
+		this.initialBackoff = DEFAULT_INITIAL_BACKOFF;
+		this.maxBackoff = DEFAULT_MAX_BACKOFF;
+	}
+
+	/**
+	 * Run unit of work in a new transaction, and run it again in a new transaction if an
+	 * optimistic lock conflict occurs (during unit of work or during commit).
+	 * Other errors are not retried.
+	 *
+	 * @param action Unit of work.
+	 * @param <V>    Type of result.
+	 * @return Result of unit of work.
+	 * @throws RuntimeException Conflict of last attempt if all attempts failed, or any other error.
+	 */
+	public <V> V execute(TransactionCallback<V> action) {
+		int attempt = 1;
+		while (true) {
+			try {
+				return template.execute(action);
+			}
+			catch (RuntimeException ex) {
+				if (!isConflict(ex)) {
+					throw ex;
+				}
+
+				String entityName = entityName(ex);
+				record(entityName);
+
+				if (attempt >= maxAttempts) {
+					failures.incrementAndGet();
+					log.warn("Optimistic lock conflict on {}, giving up after {} attempts", entityName, attempt);
+					throw ex;
+				}
+
+				long delay = backoff(attempt);
+				log.debug("Optimistic lock conflict on {}, attempt {} retried in {} ms", entityName, attempt, delay);
+				if (!sleep(delay)) {
+					failures.incrementAndGet();
+					throw ex;
+				}
+
+				retries.incrementAndGet();
+				attempt++;
+			}
+		}
+	}
+
+	/**
+	 * Get number of conflicts recorded for given entity type.
+	 *
+	 * @param entityClass Entity class.
+	 * @return Number of conflicts.
+	 */
+	public long getConflictCount(Class<?> entityClass) {
+		AtomicLong count = conflicts.get(entityClass.getName());
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * Get number of conflicts of each entity type.
+	 * Conflicts whose entity type is not known are recorded with {@link #UNKNOWN_ENTITY} key.
+	 *
+	 * @return Number of conflicts indexed by entity name.
+	 */
+	public Map<String, Long> getConflicts() {
+		Map<String, Long> map = new HashMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : conflicts.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().get());
+		}
+		return unmodifiableMap(map);
+	}
+
+	/**
+	 * Get number of attempts that have been retried.
+	 *
+	 * @return Number of retries.
+	 */
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+	/**
+	 * Get number of units of work that still failed after last attempt.
+	 *
+	 * @return Number of failures.
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	/** Reset statistics. */
+	public void clear() {
+		conflicts.clear();
+		retries.set(0);
+		failures.set(0);
+	}
+
+	/**
+	 * Get {@link #maxAttempts}
+	 *
+	 * @return {@link #maxAttempts}
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Set {@link #maxAttempts}
+	 * Default is {@link #DEFAULT_MAX_ATTEMPTS}.
+	 *
+	 * @param maxAttempts New {@link #maxAttempts} (first attempt included).
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		if (maxAttempts <= 0) {
+			throw new IllegalArgumentException("Number of attempts must be positive");
+		}
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Get {@link #initialBackoff}
+	 *
+	 * @return {@link #initialBackoff}
+	 */
+	public long getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	/**
+	 * Get {@link #maxBackoff}
+	 *
+	 * @return {@link #maxBackoff}
+	 */
+	public long getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * Set delays between two attempts.
+	 * Delay is doubled after each attempt, up to maximum delay. Actual delay is randomly
+	 * chosen between half of this delay and this delay.
+	 *
+	 * @param initialBackoff Delay before second attempt (zero to retry immediately).
+	 * @param maxBackoff     Maximum delay.
+	 * @param unit           Time unit of delays.
+	 */
+	public void setBackoff(long initialBackoff, long maxBackoff, TimeUnit unit) {
+		if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+			throw new IllegalArgumentException("Backoff delays must be positive and maximum delay must be greater than initial delay");
+		}
+		this.initialBackoff = unit.toMillis(initialBackoff);
+		this.maxBackoff = unit.toMillis(maxBackoff);
+	}
+
+	/**
+	 * Compute delay before next attempt: exponential backoff with "equal jitter" (half
+	 * of the delay is fixed, other half is random).
+	 *
+	 * @param attempt Number of failed attempts.
+	 * @return Delay in milliseconds.
+	 */
+	long backoff(int attempt) {
+		long initial = initialBackoff;
+		long max = maxBackoff;
+		if (initial <= 0) {
+			return 0;
+		}
+
+		// Shift is bounded to avoid overflow
+		long delay = Math.min(max, initial << Math.min(attempt - 1, 30));
+		long half = delay / 2;
+		return half + (long) (random.nextDouble() * (delay - half + 1));
+	}
+
+	private void record(String entityName) {
+		AtomicLong count = conflicts.get(entityName);
+		if (count == null) {
+			AtomicLong newCount = new AtomicLong(0);
+			count = conflicts.putIfAbsent(entityName, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		count.incrementAndGet();
+	}
+
+	private static boolean sleep(long delay) {
+		if (delay <= 0) {
+			return true;
+		}
+
+		try {
+			Thread.sleep(delay);
+			return true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Check if given error (or one of its causes) is an optimistic lock conflict.
+	 *
+	 * @param ex Error.
+	 * @return True if error is an optimistic lock conflict, false otherwise.
+	 */
+	static boolean isConflict(Throwable ex) {
+		for (Throwable t = ex; t != null; t = t.getCause()) {
+			if (t instanceof OptimisticLockingFailureException || t instanceof OptimisticLockException || t instanceof StaleStateException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get name of entity involved in an optimistic lock conflict.
+	 *
+	 * @param ex Conflict.
+	 * @return Entity name, {@link #UNKNOWN_ENTITY} if it is not available.
+	 */
+	static String entityName(Throwable ex) {
+		for (Throwable t = ex; t != null; t = t.getCause()) {
+			String name = null;
+			if (t instanceof ObjectOptimisticLockingFailureException) {
+				name = ((ObjectOptimisticLockingFailureException) t).getPersistentClassName();
+			}
+			else if (t instanceof StaleObjectStateException) {
+				name = ((StaleObjectStateException) t).getEntityName();
+			}
+			else if (t instanceof OptimisticLockException) {
+				Object entity = ((OptimisticLockException) t).getEntity();
+				name = entity == null ? null : HibernateProxyHelper.getClassWithoutInitializingProxy(entity).getName();
+			}
+
+			if (name != null) {
+				return name;
+			}
+		}
+		return UNKNOWN_ENTITY;
+	}
+}
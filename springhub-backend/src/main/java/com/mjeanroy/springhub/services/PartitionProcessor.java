@@ -0,0 +1,26 @@
+package com.mjeanroy.springhub.services;
+
+import java.util.Iterator;
+
+import com.mjeanroy.springhub.dao.IdRange;
+
+/**
+ * Process entities of one partition of a {@link PartitionedScanner} scan.
+ *
+ * Partitions are processed concurrently, each one in its own read-only transaction: implementations
+ * must be thread-safe (or stateless) and should not keep entities once method returns.
+ *
+ * @param <T> Type of entity.
+ * @param <R> Type of partition result.
+ */
+public interface PartitionProcessor<T, R> {
+
+	/**
+	 * Process entities of a partition.
+	 *
+	 * @param range    Range of ids of partition.
+	 * @param entities Entities of partition, ordered by id.
+	 * @return Partition result.
+	 */
+	R process(IdRange range, Iterator<T> entities);
+}
@@ -0,0 +1,244 @@
+package com.mjeanroy.springhub.services;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mjeanroy.springhub.dao.AbstractGenericDao;
+import com.mjeanroy.springhub.dao.IdRange;
+import com.mjeanroy.springhub.dao.ScrollIterator;
+import com.mjeanroy.springhub.models.entities.JPAEntity;
+
+/**
+ * Scan a whole table in parallel.
+ *
+ * Range of ids is split into contiguous partitions that are read concurrently: each partition
+ * is read with a forward-only cursor, in its own read-only transaction (and thus with its
+ * own entity manager and database connection). Partition results are then merged with
+ * a {@link ResultCombiner}.
+ *
+ * Number of partitions read at the same time is bounded by the size of the pool (this
+ * size should not be greater than the size of the connection pool). Entity ids must
+ * be numeric and should be evenly distributed, otherwise some partitions are larger
+ * than others.
+ *
+ * Scan time is roughly the time of the slowest partition: it decreases with the size of the pool
+ * as long as the database is not saturated (CPU or disk bandwidth), and then stops improving.
+ * Use more partitions than threads when partition times are uneven, and measure scan time with
+ * a few pool sizes before choosing one.
+ */
+public class PartitionedScanner {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(PartitionedScanner.class);
+
+	/** Executor reading partitions. */
+	private final ExecutorService executor;
+
+	/** Template of read-only transactions. */
+	private final TransactionTemplate readOnly;
+
+	/** Default number of partitions. */
+	private final int parallelism;
+
+	/**
+	 * Create scanner using a pool of {@code parallelism} threads.
+	 *
+	 * @param transactionManager Transaction manager.
+	 * @param parallelism        Number of partitions read at the same time.
+	 */
+	public PartitionedScanner(PlatformTransactionManager transactionManager, int parallelism) {
+		this(transactionManager, newExecutor(parallelism), parallelism);
+	}
+
+	/**
+	 * Create scanner using given executor service.
+	 *
+	 * @param transactionManager Transaction manager.
+	 * @param executor           Executor service reading partitions.
+	 * @param parallelism        Default number of partitions.
+	 */
+	public PartitionedScanner(PlatformTransactionManager transactionManager, ExecutorService executor, int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive");
+		}
+
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readOnly.setReadOnly(true);
+	}
+
+	/**
+	 * Get {@link #parallelism}
+	 *
+	 * @return {@link #parallelism}
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Scan all entities of given DAO, using one partition per thread.
+	 *
+	 * @param dao       DAO.
+	 * @param processor Processor, invoked once per partition.
+	 * @param combiner  Combiner of partition results.
+	 * @param <PK>      Type of entity id.
+	 * @param <T>       Type of entity.
+	 * @param <R>       Type of result.
+	 * @return Merged result, null if there is no entity.
+	 * @see #scan(AbstractGenericDao, int, PartitionProcessor, ResultCombiner)
+	 */
+	public <PK extends Serializable, T extends JPAEntity<PK>, R> R scan(AbstractGenericDao<PK, T> dao, PartitionProcessor<T, R> processor, ResultCombiner<R> combiner) {
+		return scan(dao, parallelism, processor, combiner);
+	}
+
+	/**
+	 * Scan all entities of given DAO.
+	 * Method returns when all partitions have been processed: as soon as a partition fails, partitions
+	 * not yet processed are cancelled and error is rethrown.
+	 *
+	 * @param dao        DAO.
+	 * @param partitions Number of partitions (use a multiple of the pool size to balance uneven partitions).
+	 * @param processor  Processor, invoked once per partition.
+	 * @param combiner   Combiner of partition results.
+	 * @param <PK>       Type of entity id.
+	 * @param <T>        Type of entity.
+	 * @param <R>        Type of result.
+	 * @return Merged result, null if there is no entity.
+	 */
+	public <PK extends Serializable, T extends JPAEntity<PK>, R> R scan(final AbstractGenericDao<PK, T> dao, int partitions, final PartitionProcessor<T, R> processor, ResultCombiner<R> combiner) {
+		IdRange range = readOnly.execute(new TransactionCallback<IdRange>() {
+			@Override
+			public IdRange doInTransaction(TransactionStatus status) {
+				return dao.findIdRange();
+			}
+		});
+
+		if (range == null) {
+			log.debug("No entity to scan");
+			return null;
+		}
+
+		List<IdRange> ranges = range.split(partitions);
+		log.debug("Scan ids {} using {} partitions", range, ranges.size());
+
+		CompletionService<R> completion = new ExecutorCompletionService<R>(executor);
+		List<Future<R>> futures = new ArrayList<Future<R>>(ranges.size());
+		try {
+			for (IdRange partition : ranges) {
+				futures.add(completion.submit(new PartitionCall<PK, T, R>(readOnly, dao, partition, processor)));
+			}
+
+			// Partitions are awaited in completion order, so that first failure is
+			// detected as soon as it occurs (and not after slower partitions).
+			for (int i = 0; i < futures.size(); i++) {
+				completion.take().get();
+			}
+
+			// All partitions are done: results are combined in order of ids.
+			R result = null;
+			for (int i = 0; i < futures.size(); i++) {
+				R partitionResult = futures.get(i).get();
+				result = i == 0 ? partitionResult : combiner.combine(result, partitionResult);
+			}
+			return result;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Scan has been interrupted", ex);
+		}
+		catch (ExecutionException ex) {
+			throw Throwables.propagate(ex.getCause());
+		}
+		finally {
+			// No-op if scan succeeded
+			for (Future<R> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Shutdown underlying executor: scans already started are completed, but
+	 * new partitions are rejected.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private static ExecutorService newExecutor(int size) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactoryBuilder().setNameFormat("springhub-scan-%d").setDaemon(true).build());
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Partition read in a read-only transaction.
+	 *
+	 * @param <PK> Type of entity id.
+	 * @param <T> Type of entity.
+	 * @param <R> Type of result.
+	 */
+	private static class PartitionCall<PK extends Serializable, T extends JPAEntity<PK>, R> implements Callable<R> {
+
+		/** Transaction template. */
+		private final TransactionTemplate template;
+
+		/** DAO. */
+		private final AbstractGenericDao<PK, T> dao;
+
+		/** Range of ids of partition. */
+		private final IdRange range;
+
+		/** Processor. */
+		private final PartitionProcessor<T, R> processor;
+
+		private PartitionCall(TransactionTemplate template, AbstractGenericDao<PK, T> dao, IdRange range, PartitionProcessor<T, R> processor) {
+			this.template = template;
+			this.dao = dao;
+			this.range = range;
+			this.processor = processor;
+		}
+
+		@Override
+		public R call() {
+			return template.execute(new TransactionCallback<R>() {
+				@Override
+				public R doInTransaction(TransactionStatus status) {
+					ScrollIterator<T> iterator = dao.iterate(range);
+					try {
+						return processor.process(range, iterator);
+					}
+					finally {
+						iterator.close();
+					}
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.mjeanroy.springhub.services;
+
+/**
+ * Merge results of two partitions of a {@link PartitionedScanner} scan.
+ * Results are combined in order of partitions, in the thread that started the scan.
+ *
+ * @param <R> Type of result.
+ */
+public interface ResultCombiner<R> {
+
+	/**
+	 * Merge two results.
+	 *
+	 * @param left  Result of previous partitions.
+	 * @param right Result of next partition.
+	 * @return Merged result.
+	 */
+	R combine(R left, R right);
+}
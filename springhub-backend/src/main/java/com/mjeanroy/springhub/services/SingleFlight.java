@@ -0,0 +1,106 @@
+package com.mjeanroy.springhub.services;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.commons.lang3.SerializationUtils;
+
+/**
+ * Coalesce concurrent loads of the same key.
+ *
+ * First caller (the leader) runs the load, callers asking for the same key while load
+ * is in progress (the followers) wait for it and receive a copy of its result (obtained
+ * by serialization), so that a value attached to the leader persistence context is never
+ * shared with other threads.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of values.
+ */
+public class SingleFlight<K, V extends Serializable> {
+
+	/** Loads in progress. */
+	private final ConcurrentMap<K, FutureTask<V>> calls;
+
+	/** Number of loads that have been executed. */
+	private final AtomicLong loads;
+
+	/** Number of calls that have been served by a load in progress. */
+	private final AtomicLong coalesced;
+
+	/** Create new instance. */
+	public SingleFlight() {
+		this.calls = new ConcurrentHashMap<K, FutureTask<V>>();
+		this.loads = new AtomicLong(0);
+		this.coalesced = new AtomicLong(0);
+	}
+
+	/**
+	 * Get value associated to given key: if a load of the same key is in progress,
+	 * wait for it, otherwise run given loader.
+	 * Exception thrown by loader is thrown to the leader and to all followers.
+	 *
+	 * @param key    Key.
+	 * @param loader Loader.
+	 * @return Value.
+	 */
+	public V execute(K key, Callable<V> loader) {
+		FutureTask<V> task = new FutureTask<V>(loader);
+		FutureTask<V> call = calls.putIfAbsent(key, task);
+
+		if (call != null) {
+			coalesced.incrementAndGet();
+			V value = get(call);
+			return value == null ? null : SerializationUtils.clone(value);
+		}
+
+		loads.incrementAndGet();
+		try {
+			task.run();
+			return get(task);
+		}
+		finally {
+			calls.remove(key, task);
+		}
+	}
+
+	/**
+	 * Get number of loads that have been executed.
+	 *
+	 * @return Number of loads.
+	 */
+	public long getLoadCount() {
+		return loads.get();
+	}
+
+	/**
+	 * Get number of calls that have been served by a load in progress.
+	 *
+	 * @return Number of coalesced calls.
+	 */
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	private static <V> V get(FutureTask<V> task) {
+		try {
+			return Uninterruptibles.getUninterruptibly(task);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new UncheckedExecutionException(cause);
+		}
+	}
+}
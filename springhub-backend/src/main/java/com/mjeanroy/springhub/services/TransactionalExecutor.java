@@ -0,0 +1,259 @@
+package com.mjeanroy.springhub.services;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Run DAO or service calls asynchronously, each call in its own transaction.
+ *
+ * Number of calls submitted and not yet completed is bounded (this bound should not be
+ * greater than the size of the connection pool): when limit is reached, submitting thread waits
+ * until a call completes, and submission is rejected if it cannot be accepted before a
+ * given timeout.
+ *
+ * Logging context (MDC) of submitting thread is propagated to the thread running the call.
+ */
+public class TransactionalExecutor {
+
+	/** Class logger. */
+	private static final Logger log = LoggerFactory.getLogger(TransactionalExecutor.class);
+
+	/** Executor running calls. */
+	private final ListeningExecutorService executor;
+
+	/** Template of read-write transactions. */
+	private final TransactionTemplate readWrite;
+
+	/** Template of read-only transactions. */
+	private final TransactionTemplate readOnly;
+
+	/** Permits of calls submitted and not yet completed. */
+	private final Semaphore permits;
+
+	/** Maximum number of calls submitted and not yet completed. */
+	private final int maxConcurrency;
+
+	/** Maximum time to wait for a permit, in nanoseconds. */
+	private final long timeout;
+
+	/**
+	 * Create executor using a bounded pool of {@code maxConcurrency} threads.
+	 *
+	 * @param transactionManager Transaction manager.
+	 * @param maxConcurrency     Maximum number of calls submitted and not yet completed.
+	 * @param timeout            Maximum time to wait when limit is reached.
+	 * @param unit               Time unit of timeout.
+	 */
+	public TransactionalExecutor(PlatformTransactionManager transactionManager, int maxConcurrency, long timeout, TimeUnit unit) {
+		this(transactionManager, newExecutor(maxConcurrency), maxConcurrency, timeout, unit);
+	}
+
+	/**
+	 * Create executor using given executor service.
+	 *
+	 * @param transactionManager Transaction manager.
+	 * @param executor           Executor service running calls.
+	 * @param maxConcurrency     Maximum number of calls submitted and not yet completed.
+	 * @param timeout            Maximum time to wait when limit is reached.
+	 * @param unit               Time unit of timeout.
+	 */
+	public TransactionalExecutor(PlatformTransactionManager transactionManager, ExecutorService executor, int maxConcurrency, long timeout, TimeUnit unit) {
+		this.executor = MoreExecutors.listeningDecorator(executor);
+		this.readWrite = newTemplate(transactionManager, false);
+		this.readOnly = newTemplate(transactionManager, true);
+		this.permits = new Semaphore(maxConcurrency);
+		this.maxConcurrency = maxConcurrency;
+		this.timeout = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Submit a call, run in a new read-write transaction.
+	 *
+	 * @param callable Call.
+	 * @param <V>      Type of result.
+	 * @return Future result.
+	 * @throws RejectedExecutionException If call cannot be submitted before timeout.
+	 */
+	public <V> ListenableFuture<V> submit(Callable<V> callable) {
+		return submit(readWrite, callable);
+	}
+
+	/**
+	 * Submit a call, run in a new read-only transaction.
+	 *
+	 * @param callable Call.
+	 * @param <V>      Type of result.
+	 * @return Future result.
+	 * @throws RejectedExecutionException If call cannot be submitted before timeout.
+	 */
+	public <V> ListenableFuture<V> submitReadOnly(Callable<V> callable) {
+		return submit(readOnly, callable);
+	}
+
+	/**
+	 * Get number of calls that can be submitted without waiting.
+	 *
+	 * @return Number of available permits.
+	 */
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	/**
+	 * Get number of calls submitted and not yet completed.
+	 *
+	 * @return Number of calls.
+	 */
+	public int getPendingCount() {
+		return maxConcurrency - permits.availablePermits();
+	}
+
+	/**
+	 * Shutdown underlying executor: calls already submitted are executed, but
+	 * new calls are rejected.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <V> ListenableFuture<V> submit(TransactionTemplate template, Callable<V> callable) {
+		acquire();
+
+		ListenableFuture<V> future;
+		try {
+			future = executor.submit(new TransactionalCall<V>(template, callable, MDC.getCopyOfContextMap()));
+		}
+		catch (RejectedExecutionException ex) {
+			permits.release();
+			throw ex;
+		}
+
+		// Permit is released when call completes or is cancelled.
+		future.addListener(new Runnable() {
+			@Override
+			public void run() {
+				permits.release();
+			}
+		}, MoreExecutors.directExecutor());
+
+		return future;
+	}
+
+	private void acquire() {
+		try {
+			if (!permits.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+				log.warn("Unable to submit call, {} calls are already pending", maxConcurrency);
+				throw new RejectedExecutionException("Too many pending calls: " + maxConcurrency);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException(ex);
+		}
+	}
+
+	private static ExecutorService newExecutor(int size) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(size),
+				new ThreadFactoryBuilder().setNameFormat("springhub-async-%d").setDaemon(true).build());
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static TransactionTemplate newTemplate(PlatformTransactionManager transactionManager, boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		template.setReadOnly(readOnly);
+		return template;
+	}
+
+	/**
+	 * Call run in a transaction, with logging context of submitting thread.
+	 *
+	 * @param <V> Type of result.
+	 */
+	private static class TransactionalCall<V> implements Callable<V> {
+
+		/** Transaction template. */
+		private final TransactionTemplate template;
+
+		/** Call. */
+		private final Callable<V> callable;
+
+		/** Logging context of submitting thread (may be null). */
+		private final Map<String, String> context;
+
+		private TransactionalCall(TransactionTemplate template, Callable<V> callable, Map<String, String> context) {
+			this.template = template;
+			this.callable = callable;
+			this.context = context;
+		}
+
+		@Override
+		public V call() throws Exception {
+			Map<String, String> previous = MDC.getCopyOfContextMap();
+			setContext(context);
+			try {
+				return template.execute(new TransactionCallback<V>() {
+					@Override
+					public V doInTransaction(TransactionStatus status) {
+						try {
+							return callable.call();
+						}
+						catch (RuntimeException ex) {
+							throw ex;
+						}
+						catch (Exception ex) {
+							throw new CallException(ex);
+						}
+					}
+				});
+			}
+			catch (CallException ex) {
+				throw (Exception) ex.getCause();
+			}
+			finally {
+				setContext(previous);
+			}
+		}
+
+		private static void setContext(Map<String, String> context) {
+			if (context == null) {
+				MDC.clear();
+			}
+			else {
+				MDC.setContextMap(context);
+			}
+		}
+	}
+
+	/**
+	 * Wrap checked exception thrown by a call, so that transaction is rolled back.
+	 */
+	@SuppressWarnings("serial")
+	private static class CallException extends RuntimeException {
+		private CallException(Exception cause) {
+			super(cause);
+		}
+	}
+}
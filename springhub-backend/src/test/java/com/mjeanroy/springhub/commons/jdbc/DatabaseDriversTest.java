@@ -0,0 +1,46 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DatabaseDriversTest {
+
+	@Mock
+	private DataSource dataSource;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData metaData;
+
+	@Test
+	public void it_should_detect_driver_name_once_and_close_connection() throws Exception {
+		Mockito.when(dataSource.getConnection()).thenReturn(connection);
+		Mockito.when(connection.getMetaData()).thenReturn(metaData);
+		Mockito.when(metaData.getDriverName()).thenReturn("H2 JDBC Driver");
+
+		assertThat(DatabaseDrivers.name(dataSource)).isEqualTo("H2 JDBC Driver");
+		assertThat(DatabaseDrivers.name(dataSource)).isEqualTo("H2 JDBC Driver");
+
+		Mockito.verify(dataSource).getConnection();
+		Mockito.verify(connection).close();
+	}
+
+	@Test
+	public void it_should_return_null_if_database_is_not_available() throws Exception {
+		Mockito.when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+		assertThat(DatabaseDrivers.name(dataSource)).isNull();
+	}
+}
@@ -0,0 +1,117 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledDataSourceTest {
+
+	private PooledDataSource dataSource;
+
+	@Before
+	public void setUp() {
+		dataSource = new PooledDataSource(settings().size(1, 2).maxWait(50));
+	}
+
+	@After
+	public void tearDown() {
+		dataSource.close();
+	}
+
+	@Test
+	public void it_should_track_active_and_idle_connections() throws Exception {
+		Connection c1 = dataSource.getConnection();
+		Connection c2 = dataSource.getConnection();
+
+		PoolMetrics metrics = dataSource.getMetrics();
+		assertThat(metrics.getActive()).isEqualTo(2);
+		assertThat(metrics.getIdle()).isZero();
+		assertThat(metrics.getMaxActive()).isEqualTo(2);
+		assertThat(metrics.getUsage()).isEqualTo(1.0);
+		assertThat(metrics.getAcquisitions()).isEqualTo(2);
+
+		c1.close();
+		c2.close();
+
+		assertThat(metrics.getActive()).isZero();
+		assertThat(metrics.getIdle()).isEqualTo(2);
+		assertThat(metrics.getSize()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_count_timeouts_when_pool_is_exhausted() throws Exception {
+		Connection c1 = dataSource.getConnection();
+		Connection c2 = dataSource.getConnection();
+
+		try {
+			dataSource.getConnection();
+			fail("Pool should be exhausted");
+		}
+		catch (SQLException ex) {
+			// Expected
+		}
+		finally {
+			c1.close();
+			c2.close();
+		}
+
+		PoolMetrics metrics = dataSource.getMetrics();
+		assertThat(metrics.getTimeouts()).isEqualTo(1);
+		assertThat(metrics.getMaxWaitTime()).isGreaterThanOrEqualTo(40);
+		assertThat(metrics.getAverageWaitTime()).isGreaterThan(0.0);
+
+		metrics.clear();
+		assertThat(metrics.getTimeouts()).isZero();
+		assertThat(metrics.getAcquisitions()).isZero();
+	}
+
+	@Test
+	public void it_should_configure_leak_detection_and_statement_cache() {
+		PoolProperties properties = settings()
+				.leakDetection(60, true)
+				.statementCache(100)
+				.queryTimeout(10)
+				.toPoolProperties();
+
+		assertThat(properties.isRemoveAbandoned()).isTrue();
+		assertThat(properties.isLogAbandoned()).isTrue();
+		assertThat(properties.getRemoveAbandonedTimeout()).isEqualTo(60);
+		assertThat(properties.getJdbcInterceptors()).contains("StatementCache(prepared=true,callable=false,max=100)");
+		assertThat(properties.getJdbcInterceptors()).contains("QueryTimeoutInterceptor(queryTimeout=10)");
+	}
+
+	@Test
+	public void it_should_only_log_leaks_if_removal_is_disabled() {
+		PoolProperties properties = settings()
+				.leakDetection(60, false)
+				.toPoolProperties();
+
+		assertThat(properties.isRemoveAbandoned()).isFalse();
+		assertThat(properties.isLogAbandoned()).isTrue();
+		assertThat(properties.getSuspectTimeout()).isEqualTo(60);
+		assertThat(properties.getJdbcInterceptors()).doesNotContain("StatementCache");
+	}
+
+	@Test
+	public void it_should_validate_connections_with_jdbc4_by_default() {
+		PoolProperties properties = settings().toPoolProperties();
+		assertThat(properties.isTestOnBorrow()).isTrue();
+		assertThat(properties.getValidator()).isInstanceOf(JdbcValidator.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_reject_invalid_size() {
+		settings().size(3, 2);
+	}
+
+	private static PoolSettings settings() {
+		return PoolSettings.of("org.h2.Driver", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
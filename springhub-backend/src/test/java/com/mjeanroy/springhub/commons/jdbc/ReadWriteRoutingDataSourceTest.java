@@ -0,0 +1,269 @@
+package com.mjeanroy.springhub.commons.jdbc;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class ReadWriteRoutingDataSourceTest {
+
+	private EmbeddedDatabase primary;
+
+	private EmbeddedDatabase replica1;
+
+	private EmbeddedDatabase replica2;
+
+	@Before
+	public void setUp() {
+		primary = database("primary");
+		replica1 = database("replica1");
+		replica2 = database("replica2");
+	}
+
+	@After
+	public void tearDown() {
+		primary.shutdown();
+		replica1.shutdown();
+		replica2.shutdown();
+	}
+
+	@Test
+	public void it_should_route_read_only_transactions_to_replica() {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica1), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+		assertThat(node(dataSource, false)).isEqualTo("primary");
+	}
+
+	@Test
+	public void it_should_select_replicas_using_round_robin() {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica1, replica2), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+		assertThat(node(dataSource, true)).isEqualTo("replica2");
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+	}
+
+	@Test
+	public void it_should_select_replica_with_least_connections() throws Exception {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica1, replica2), ReplicaSelection.LEAST_CONNECTIONS);
+		DataSource dataSource = routing.lazy();
+
+		Connection connection;
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			connection = routing.getConnection();
+		}
+		finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+
+		try {
+			assertThat(node(dataSource, true)).isEqualTo("replica2");
+			assertThat(node(dataSource, true)).isEqualTo("replica2");
+		}
+		finally {
+			connection.close();
+		}
+
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+	}
+
+	@Test
+	public void it_should_fallback_to_primary_if_replica_is_down() {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		replica.down = true;
+		routing.checkHealth();
+
+		assertThat(routing.getHealthyReplicas()).isZero();
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+	}
+
+	@Test
+	public void it_should_fallback_to_primary_if_replica_fails_before_health_check() {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		replica.down = true;
+
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+		assertThat(routing.getHealthyReplicas()).isZero();
+	}
+
+	@Test
+	public void it_should_skip_unhealthy_replica() {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList(replica, replica2), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		replica.down = true;
+		routing.checkHealth();
+
+		assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+		assertThat(node(dataSource, true)).isEqualTo("replica2");
+		assertThat(node(dataSource, true)).isEqualTo("replica2");
+	}
+
+	@Test
+	public void it_should_restore_replica_once_healthy() {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		DataSource dataSource = routing.lazy();
+
+		replica.down = true;
+		routing.checkHealth();
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+
+		replica.down = false;
+		routing.checkHealth();
+		assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+	}
+
+	@Test
+	public void it_should_retry_unhealthy_replica_after_retry_delay() throws Exception {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		routing.setRetryDelay(20);
+		DataSource dataSource = routing.lazy();
+
+		// No periodic health check: data source is not initialized as a bean
+		replica.down = true;
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+		assertThat(routing.getHealthyReplicas()).isZero();
+
+		replica.down = false;
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+
+		Thread.sleep(40);
+		assertThat(node(dataSource, true)).isEqualTo("replica1");
+		assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_not_retry_unhealthy_replica_if_retries_are_disabled() throws Exception {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		routing.setRetryDelay(0);
+		DataSource dataSource = routing.lazy();
+
+		replica.down = true;
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+
+		replica.down = false;
+		Thread.sleep(5);
+		assertThat(node(dataSource, true)).isEqualTo("primary");
+	}
+
+	@Test
+	public void it_should_route_jpa_read_only_transactions_and_retry_replica() throws Exception {
+		UnstableDataSource replica = new UnstableDataSource(replica1);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, asList((DataSource) replica), ReplicaSelection.ROUND_ROBIN);
+		routing.setRetryDelay(20);
+
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setPersistenceProviderClass(HibernatePersistenceProvider.class);
+		factory.setDataSource(routing.lazy());
+		factory.afterPropertiesSet();
+
+		try {
+			JpaTransactionManager transactionManager = new JpaTransactionManager(factory.getObject());
+			assertThat(jpaNode(transactionManager, true)).isEqualTo("replica1");
+			assertThat(jpaNode(transactionManager, false)).isEqualTo("primary");
+
+			replica.down = true;
+			assertThat(jpaNode(transactionManager, true)).isEqualTo("primary");
+			assertThat(routing.getHealthyReplicas()).isZero();
+
+			replica.down = false;
+			Thread.sleep(40);
+			assertThat(jpaNode(transactionManager, true)).isEqualTo("replica1");
+			assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+		}
+		finally {
+			factory.destroy();
+		}
+	}
+
+	private static String jpaNode(final JpaTransactionManager transactionManager, boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(readOnly);
+		return template.execute(new TransactionCallback<String>() {
+			@Override
+			public String doInTransaction(TransactionStatus status) {
+				EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(transactionManager.getEntityManagerFactory());
+				return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+			}
+		});
+	}
+
+	private static String node(DataSource dataSource, boolean readOnly) {
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		template.setReadOnly(readOnly);
+		return template.execute(new TransactionCallback<String>() {
+			@Override
+			public String doInTransaction(TransactionStatus status) {
+				return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+			}
+		});
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(name)
+				.build();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+		return database;
+	}
+
+	private static class UnstableDataSource extends DelegatingDataSource {
+
+		private volatile boolean down;
+
+		private UnstableDataSource(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (down) {
+				throw new SQLException("Database is down");
+			}
+			return super.getConnection();
+		}
+	}
+}
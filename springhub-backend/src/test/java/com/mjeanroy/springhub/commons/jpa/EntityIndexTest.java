@@ -0,0 +1,196 @@
+package com.mjeanroy.springhub.commons.jpa;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.DefaultPersistenceUnitManager;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
+
+import com.mjeanroy.springhub.models.entities.AbstractEntity;
+import com.mjeanroy.springhub.utils.BarEntity;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+public class EntityIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void it_should_generate_index_at_compile_time() throws Exception {
+		File output = folder.newFolder("classes");
+		compile(output,
+				"package com.acme;\n@javax.persistence.Entity public class User { @javax.persistence.Id Long id; }",
+				"package com.acme;\n@javax.persistence.Embeddable public class Address { String city; }",
+				"package com.acme;\npublic class UserService { }"
+		);
+
+		EntityIndex index = load(output);
+
+		assertThat(index.isEmpty()).isFalse();
+		assertThat(index.getClassNames()).containsExactly("com.acme.Address", "com.acme.User");
+	}
+
+	@Test
+	public void it_should_merge_index_of_previous_compilation() throws Exception {
+		File output = folder.newFolder("classes");
+		compile(output,
+				"package com.acme;\n@javax.persistence.Entity public class User { @javax.persistence.Id Long id; }",
+				"package com.acme;\n@javax.persistence.Embeddable public class Address { String city; }"
+		);
+
+		// Incremental compilation: only one class is compiled
+		compile(output, "package com.acme;\n@javax.persistence.Entity public class Group { @javax.persistence.Id Long id; }");
+		assertThat(load(output).getClassNames()).containsExactly("com.acme.Address", "com.acme.Group", "com.acme.User");
+
+		// Class compiled again without annotation is removed
+		compile(output, "package com.acme;\npublic class Address { String city; }");
+		assertThat(load(output).getClassNames()).containsExactly("com.acme.Group", "com.acme.User");
+	}
+
+	@Test
+	public void it_should_load_index_of_test_entities() {
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+		assertThat(index.getClassNames()).contains(FooEntity.class.getName(), BarEntity.class.getName());
+	}
+
+	@Test
+	public void it_should_filter_index_by_packages() {
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+		assertThat(index.getClassNames(singletonList("com.mjeanroy.springhub.utils"))).contains(FooEntity.class.getName(), BarEntity.class.getName());
+		assertThat(index.getClassNames(singletonList("com.mjeanroy.springhub.util"))).isEmpty();
+		assertThat(index.getClassNames(singletonList("org"))).isEmpty();
+	}
+
+	@Test
+	public void it_should_be_empty_without_index() {
+		EntityIndex index = EntityIndex.load(new URLClassLoader(new URL[0], null));
+		assertThat(index.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void it_should_register_indexed_classes_in_persistence_unit() {
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+		MutablePersistenceUnitInfo pui = new MutablePersistenceUnitInfo();
+		pui.addManagedClassName(FooEntity.class.getName());
+
+		new EntityIndexPostProcessor(index, singletonList(FooEntity.class.getPackage().getName())).postProcessPersistenceUnitInfo(pui);
+
+		assertThat(pui.getManagedClassNames()).contains(FooEntity.class.getName(), BarEntity.class.getName());
+		assertThat(pui.getManagedClassNames().indexOf(FooEntity.class.getName())).isEqualTo(pui.getManagedClassNames().lastIndexOf(FooEntity.class.getName()));
+	}
+
+	@Test
+	public void it_should_scan_class_path_roots_without_index() {
+		// Main classes are compiled without processor, test classes are indexed
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+
+		List<String> scanned = index.scanUnindexed(singletonList("com.mjeanroy.springhub"));
+
+		assertThat(scanned).contains(AbstractEntity.class.getName()).doesNotContain(FooEntity.class.getName());
+	}
+
+	@Test
+	public void it_should_not_scan_indexed_class_path_roots() {
+		// Test classes are indexed: registering test entities does not need any scanning
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+
+		List<String> scanned = index.scanUnindexed(singletonList(FooEntity.class.getPackage().getName()));
+
+		assertThat(index.isIndexed(FooEntity.class.getResource(FooEntity.class.getSimpleName() + ".class"))).isTrue();
+		assertThat(scanned).isEmpty();
+	}
+
+	@Test
+	public void it_should_register_same_classes_as_package_scanning() {
+		List<String> packages = singletonList("com.mjeanroy.springhub");
+
+		DefaultPersistenceUnitManager scanning = new DefaultPersistenceUnitManager();
+		scanning.setPackagesToScan(packages.get(0));
+		scanning.afterPropertiesSet();
+
+		DefaultPersistenceUnitManager indexed = new DefaultPersistenceUnitManager();
+		indexed.setPackagesToScan();
+		indexed.setPersistenceUnitPostProcessors(new EntityIndexPostProcessor(EntityIndex.load(getClass().getClassLoader()), packages));
+		indexed.afterPropertiesSet();
+
+		List<String> expected = scanning.obtainDefaultPersistenceUnitInfo().getManagedClassNames();
+		List<String> classNames = indexed.obtainDefaultPersistenceUnitInfo().getManagedClassNames();
+		assertThat(new HashSet<String>(classNames)).isEqualTo(new HashSet<String>(expected));
+	}
+
+	@Test
+	public void it_should_scan_packages_without_index() {
+		LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		EntityIndex index = EntityIndex.load(new URLClassLoader(new URL[0], null));
+
+		boolean result = EntityIndexPostProcessor.configure(entityManagerFactory, index, singletonList("com"));
+
+		assertThat(result).isFalse();
+	}
+
+	@Test
+	public void it_should_use_index_if_available() {
+		LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		EntityIndex index = EntityIndex.load(getClass().getClassLoader());
+
+		boolean result = EntityIndexPostProcessor.configure(entityManagerFactory, index, singletonList("com"));
+
+		assertThat(result).isTrue();
+	}
+
+	private void compile(File output, String... sources) throws IOException {
+		File src = folder.newFolder();
+
+		File[] files = new File[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			String source = sources[i];
+			String className = source.substring(source.indexOf(" class ") + 7, source.indexOf(" ", source.indexOf(" class ") + 7));
+			files[i] = new File(src, className + ".java");
+
+			Writer writer = new OutputStreamWriter(new FileOutputStream(files[i]), "UTF-8");
+			try {
+				writer.write(source);
+			}
+			finally {
+				writer.close();
+			}
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+		try {
+			String classPath = System.getProperty("java.class.path") + File.pathSeparator + output.getAbsolutePath();
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(files);
+			List<String> options = asList("-d", output.getAbsolutePath(), "-classpath", classPath);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+			task.setProcessors(singletonList(new EntityIndexProcessor()));
+			assertThat(task.call()).isTrue();
+		}
+		finally {
+			fileManager.close();
+		}
+	}
+
+	private static EntityIndex load(File output) throws IOException {
+		return EntityIndex.load(new URLClassLoader(new URL[] { output.toURI().toURL() }, null));
+	}
+}
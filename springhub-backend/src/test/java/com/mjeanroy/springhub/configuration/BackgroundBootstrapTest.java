@@ -0,0 +1,94 @@
+package com.mjeanroy.springhub.configuration;
+
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.sql.DataSource;
+import java.util.List;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+		BackgroundBootstrapTest.DataSourceConfiguration.class,
+		BackgroundBootstrapTest.BackgroundConfiguration.class
+})
+public class BackgroundBootstrapTest {
+
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private LocalContainerEntityManagerFactoryBean factoryBean;
+
+	@Test
+	public void it_should_bootstrap_entity_manager_factory_in_background() {
+		assertThat(factoryBean).isInstanceOf(BackgroundEntityManagerFactoryBean.class);
+
+		EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			FooEntity foo = em.find(FooEntity.class, 1L);
+			assertThat(foo).isNotNull();
+			assertThat(foo.getName()).isEqualTo("foo");
+		}
+		finally {
+			em.close();
+		}
+
+		assertThat(((BackgroundEntityManagerFactoryBean) factoryBean).isBootstrapped()).isTrue();
+	}
+
+	@Test
+	public void it_should_detect_dialect_in_bootstrap_thread() {
+		entityManagerFactory.createEntityManager().close();
+		assertThat(factoryBean.getJpaPropertyMap().get(AvailableSettings.DIALECT)).isEqualTo(H2Dialect.class.getName());
+	}
+
+	@Configuration
+	public static class DataSourceConfiguration {
+
+		@Bean(destroyMethod = "shutdown")
+		public DataSource dataSource() {
+			return new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.setName("background")
+					.addScript("/foo.sql")
+					.build();
+		}
+	}
+
+	@Configuration
+	public static class BackgroundConfiguration extends DatabaseConfiguration {
+
+		@Override
+		protected List<String> packagesToScan() {
+			return singletonList(FooEntity.class.getPackage().getName());
+		}
+
+		@Override
+		protected boolean backgroundBootstrap() {
+			return true;
+		}
+
+		@Override
+		protected Class dialect(String driver) {
+			return driver.contains("H2") ? H2Dialect.class : null;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.mjeanroy.springhub.configuration;
+
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mjeanroy.springhub.utils.FooDao;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+		BackgroundQueryRegistrationTest.DataSourceConfiguration.class,
+		BackgroundQueryRegistrationTest.BackgroundConfiguration.class
+})
+public class BackgroundQueryRegistrationTest {
+
+	/** Bootstrap thread waits for this latch: context must start while bootstrap is not over. */
+	private static final CountDownLatch bootstrap = new CountDownLatch(1);
+
+	@Autowired
+	private LocalContainerEntityManagerFactoryBean factoryBean;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private FooDao fooDao;
+
+	@Test
+	public void it_should_not_wait_for_bootstrap_to_register_declared_queries() {
+		BackgroundEntityManagerFactoryBean background = (BackgroundEntityManagerFactoryBean) factoryBean;
+		assertThat(background.isBootstrapped()).isFalse();
+
+		bootstrap.countDown();
+
+		List<FooEntity> foos = new TransactionTemplate(transactionManager).execute(new TransactionCallback<List<FooEntity>>() {
+			@Override
+			public List<FooEntity> doInTransaction(TransactionStatus status) {
+				return fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+			}
+		});
+
+		assertThat(foos).hasSize(1);
+		assertThat(background.isBootstrapped()).isTrue();
+	}
+
+	@Configuration
+	public static class DataSourceConfiguration {
+
+		@Bean(destroyMethod = "shutdown")
+		public DataSource dataSource() {
+			return new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.setName("background-queries")
+					.addScript("/foo.sql")
+					.build();
+		}
+	}
+
+	@Configuration
+	public static class BackgroundConfiguration extends DatabaseConfiguration {
+
+		@Bean
+		public FooDao fooDao() {
+			return new FooDao();
+		}
+
+		@Override
+		protected List<String> packagesToScan() {
+			return singletonList(FooEntity.class.getPackage().getName());
+		}
+
+		@Override
+		protected boolean backgroundBootstrap() {
+			return true;
+		}
+
+		@Override
+		protected Class dialect(String driver) {
+			// Called by bootstrap thread: bootstrap is over when test releases latch
+			// (timeout only avoids a deadlock if application context waits for bootstrap).
+			Uninterruptibles.awaitUninterruptibly(bootstrap, 5, TimeUnit.SECONDS);
+			return driver.contains("H2") ? H2Dialect.class : null;
+		}
+	}
+}
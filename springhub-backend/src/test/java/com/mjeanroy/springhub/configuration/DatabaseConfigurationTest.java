@@ -0,0 +1,140 @@
+package com.mjeanroy.springhub.configuration;
+
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.sql.DataSource;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.mjeanroy.springhub.utils.BarEntity;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+		DatabaseConfigurationTest.DataSourceConfiguration.class,
+		DatabaseConfigurationTest.CacheConfiguration.class
+})
+public class DatabaseConfigurationTest {
+
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheStatistics cacheStatistics;
+
+	@Before
+	public void setUp() {
+		entityManagerFactory.getCache().evictAll();
+		cacheStatistics.clear();
+	}
+
+	@Test
+	public void it_should_cache_entity_declared_in_cache_regions() {
+		String region = FooEntity.class.getName();
+
+		FooEntity foo = find(FooEntity.class, 1L);
+		assertThat(foo).isNotNull();
+		assertThat(cacheStatistics.getMissCount(region)).isEqualTo(1L);
+		assertThat(cacheStatistics.getHitCount(region)).isZero();
+
+		assertThat(find(FooEntity.class, 1L)).isNotNull();
+		assertThat(cacheStatistics.getHitCount(region)).isEqualTo(1L);
+		assertThat(cacheStatistics.getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void it_should_limit_size_of_cache_region() {
+		String region = FooEntity.class.getName();
+
+		find(FooEntity.class, 1L);
+		find(FooEntity.class, 2L);
+
+		assertThat(cacheStatistics.getPutCount()).isEqualTo(2L);
+		assertThat(cacheStatistics.getSize(region)).isEqualTo(1L);
+	}
+
+	@Test
+	public void it_should_cache_annotated_entity() {
+		EntityManager em = entityManagerFactory.createEntityManager();
+		Long id;
+		try {
+			em.getTransaction().begin();
+			BarEntity bar = new BarEntity("bar");
+			em.persist(bar);
+			em.getTransaction().commit();
+			id = bar.getId();
+		}
+		finally {
+			em.close();
+		}
+
+		entityManagerFactory.getCache().evictAll();
+		cacheStatistics.clear();
+
+		find(BarEntity.class, id);
+		find(BarEntity.class, id);
+
+		assertThat(cacheStatistics.getHitCount(BarEntity.class.getName())).isEqualTo(1L);
+	}
+
+	private <T> T find(Class<T> klass, Object id) {
+		EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			return em.find(klass, id);
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	@Configuration
+	public static class DataSourceConfiguration {
+
+		@Bean(destroyMethod = "shutdown")
+		public DataSource dataSource() {
+			return new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.setName("cache")
+					.addScript("/foo.sql")
+					.build();
+		}
+	}
+
+	@Configuration
+	public static class CacheConfiguration extends DatabaseConfiguration {
+
+		@Override
+		protected List<String> packagesToScan() {
+			return singletonList(FooEntity.class.getPackage().getName());
+		}
+
+		@Override
+		protected boolean secondLevelCache() {
+			return true;
+		}
+
+		@Override
+		protected boolean queryCache() {
+			return true;
+		}
+
+		@Override
+		protected List<CacheRegion> cacheRegions() {
+			return singletonList(CacheRegion.entity(FooEntity.class).maxEntries(1).readOnly());
+		}
+	}
+}
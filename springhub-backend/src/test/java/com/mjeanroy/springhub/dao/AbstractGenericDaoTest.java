@@ -7,22 +7,34 @@ import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mjeanroy.springhub.utils.DaoTestConfiguration;
 import com.mjeanroy.springhub.utils.FooDao;
 import com.mjeanroy.springhub.utils.FooEntity;
+import com.mjeanroy.springhub.utils.FooSummary;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = DaoTestConfiguration.class)
@@ -136,6 +148,77 @@ public class AbstractGenericDaoTest {
 		assertThat(newFoo.getName()).isEqualTo("foobar");
 	}
 
+	@Test
+	public void it_should_save_all_entities() {
+		String sql = "SELECT COUNT(foo) FROM FooEntity foo";
+		Long countBefore = (Long) entityManager.createQuery(sql).getSingleResult();
+
+		List<FooEntity> foos = new ArrayList<FooEntity>();
+		for (int i = 0; i < 10; i++) {
+			FooEntity foo = new FooEntity();
+			foo.setName("batch" + i);
+			foos.add(foo);
+		}
+
+		BatchResult result = fooDao.saveAll(foos, 3);
+
+		assertThat(result.getCount()).isEqualTo(10);
+		assertThat(result.getRowsPerSecond()).isPositive();
+		assertThat(entityManager.contains(foos.get(9))).isFalse();
+
+		Long countAfter = (Long) entityManager.createQuery(sql).getSingleResult();
+		assertThat(countAfter).isEqualTo(countBefore + 10);
+	}
+
+	@Test
+	public void it_should_not_detach_entities_managed_before_batch() {
+		FooEntity foo = entityManager.find(FooEntity.class, 1L);
+
+		List<FooEntity> foos = new ArrayList<FooEntity>();
+		for (int i = 0; i < 5; i++) {
+			FooEntity entity = new FooEntity();
+			entity.setName("foo" + i);
+			foos.add(entity);
+		}
+
+		fooDao.saveAll(foos, 2);
+
+		assertThat(entityManager.contains(foo)).isTrue();
+		for (FooEntity entity : foos) {
+			assertThat(entityManager.contains(entity)).isFalse();
+		}
+	}
+
+	@Test
+	public void it_should_merge_all_entities() {
+		FooEntity foo1 = entityManager.find(FooEntity.class, 1L);
+		FooEntity foo2 = entityManager.find(FooEntity.class, 2L);
+		entityManager.clear();
+
+		foo1.setName("foobar1");
+		foo2.setName("foobar2");
+
+		BatchResult result = fooDao.mergeAll(asList(foo1, foo2), 1);
+
+		assertThat(result.getCount()).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM foo WHERE id = 1", String.class)).isEqualTo("foobar1");
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM foo WHERE id = 2", String.class)).isEqualTo("foobar2");
+	}
+
+	@Test
+	public void it_should_remove_all_entities() {
+		int countBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+
+		FooEntity foo1 = entityManager.find(FooEntity.class, 1L);
+		FooEntity foo2 = entityManager.find(FooEntity.class, 2L);
+
+		BatchResult result = fooDao.removeAll(asList(foo1, foo2), 1);
+
+		assertThat(result.getCount()).isEqualTo(2);
+		int countAfter = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+		assertThat(countAfter).isEqualTo(countBefore - 2);
+	}
+
 	@Test
 	public void it_should_remove_entity() {
 		String sql = "SELECT COUNT(foo) FROM FooEntity foo";
@@ -161,6 +244,24 @@ public class AbstractGenericDaoTest {
 		assertThat(foo).isNull();
 	}
 
+	@Test
+	public void findOne_should_fetch_attributes_of_fetch_plan() {
+		FooEntity foo = fooDao.findOne(1L);
+		assertThat(Hibernate.isInitialized(foo.getBazs())).isFalse();
+		entityManager.clear();
+
+		foo = fooDao.findOne(1L, FetchPlan.of("bazs"));
+		assertThat(Hibernate.isInitialized(foo.getBazs())).isTrue();
+		assertThat(foo.getBazs()).hasSize(2);
+	}
+
+	@Test
+	public void findOne_should_fetch_named_entity_graph() {
+		FooEntity foo = fooDao.findOne(1L, FetchPlan.named("foo.bazs"));
+		assertThat(Hibernate.isInitialized(foo.getBazs())).isTrue();
+		assertThat(foo.getBazs()).hasSize(2);
+	}
+
 	@Test
 	public void findAll_should_return_everything() {
 		int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
@@ -175,6 +276,16 @@ public class AbstractGenericDaoTest {
 		assertThat(foos).isNotNull().hasSize(ids.size());
 	}
 
+	@Test
+	public void findAll_by_id_should_fetch_attributes_of_fetch_plan() {
+		List<FooEntity> foos = fooDao.findAll(asList(1L, 2L), FetchPlan.of("bazs"));
+		assertThat(foos).hasSize(2);
+		for (FooEntity foo : foos) {
+			assertThat(Hibernate.isInitialized(foo.getBazs())).isTrue();
+			assertThat(foo.getBazs()).hasSize(foo.getId() == 1L ? 2 : 0);
+		}
+	}
+
 	@Test
 	public void index_by_id() {
 		List<Long> ids = asList(1L, 2L);
@@ -184,6 +295,103 @@ public class AbstractGenericDaoTest {
 		assertThat(foos.get(2L).getId()).isEqualTo(2L);
 	}
 
+	@Test
+	public void multiLoad_should_keep_order_of_ids() {
+		List<FooEntity> foos = fooDao.multiLoad(asList(2L, 1000L, 1L));
+		assertThat(foos).hasSize(2);
+		assertThat(foos.get(0).getId()).isEqualTo(2L);
+		assertThat(foos.get(1).getId()).isEqualTo(1L);
+	}
+
+	@Test
+	public void multiLoad_should_use_managed_entities() {
+		FooEntity foo1 = entityManager.find(FooEntity.class, 1L);
+		FooEntity foo2 = entityManager.find(FooEntity.class, 2L);
+
+		// Entities should not be read from database again.
+		jdbcTemplate.update("UPDATE foo SET name = 'updated'");
+
+		List<FooEntity> foos = fooDao.multiLoad(asList(1L, 2L));
+		assertThat(foos).hasSize(2);
+		assertThat(foos.get(0)).isSameAs(foo1);
+		assertThat(foos.get(1)).isSameAs(foo2);
+		assertThat(foos.get(0).getName()).isEqualTo("foo");
+	}
+
+	@Test
+	public void multiLoad_should_skip_removed_entities() {
+		FooEntity foo1 = entityManager.find(FooEntity.class, 1L);
+		entityManager.remove(foo1);
+
+		List<FooEntity> foos = fooDao.multiLoad(asList(1L, 2L));
+		assertThat(foos).hasSize(1);
+		assertThat(foos.get(0).getId()).isEqualTo(2L);
+	}
+
+	@Test
+	public void multiLoad_should_not_skip_removed_entities() {
+		FooEntity foo1 = entityManager.find(FooEntity.class, 1L);
+		entityManager.remove(foo1);
+
+		List<FooEntity> foos = fooDao.multiLoad(asList(1L, 2L), false);
+		assertThat(foos).hasSize(2);
+		assertThat(foos.get(0)).isSameAs(foo1);
+	}
+
+	@Test
+	public void findSlice_should_walk_through_pages_sorted_by_id() {
+		for (int i = 0; i < 5; i++) {
+			jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "slice" + i);
+		}
+
+		int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+
+		List<Long> ids = new ArrayList<Long>();
+		String token = null;
+		int pages = 0;
+		do {
+			Slice<FooEntity> slice = fooDao.findSlice(token, 2);
+			assertThat(slice.size()).isLessThanOrEqualTo(2);
+			for (FooEntity foo : slice.getContent()) {
+				ids.add(foo.getId());
+			}
+			token = slice.getNext();
+			pages++;
+		} while (token != null);
+
+		assertThat(ids).hasSize(count);
+		assertThat(pages).isEqualTo((count + 1) / 2);
+		for (int i = 1; i < ids.size(); i++) {
+			assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+		}
+	}
+
+	@Test
+	public void findSlice_should_walk_through_pages_sorted_by_attribute() {
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "bar");
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "bar");
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "zzz");
+
+		int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+
+		List<FooEntity> foos = new ArrayList<FooEntity>();
+		Slice<FooEntity> slice = fooDao.findSlice("name", false, null, 2);
+		foos.addAll(slice.getContent());
+		while (slice.hasNext()) {
+			slice = fooDao.findSlice("name", false, slice.getNext(), 2);
+			foos.addAll(slice.getContent());
+		}
+
+		assertThat(foos).hasSize(count).doesNotHaveDuplicates();
+		assertThat(foos.get(0).getName()).isEqualTo("zzz");
+		assertThat(foos.get(count - 1).getName()).isEqualTo("bar");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void findSlice_should_fail_with_invalid_token() {
+		fooDao.findSlice("foo", 2);
+	}
+
 	@Test
 	public void count_should_return_number_of_entities() {
 		int realCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
@@ -219,6 +427,98 @@ public class AbstractGenericDaoTest {
 		assertThat(foos).isNotNull().isNotEmpty();
 	}
 
+	@Test
+	public void iterate_should_read_every_entity_and_close_cursor() {
+		int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+
+		ScrollIterator<FooEntity> iterator = fooDao.iterate();
+		List<FooEntity> foos = new ArrayList<FooEntity>();
+		while (iterator.hasNext()) {
+			foos.add(iterator.next());
+		}
+
+		assertThat(foos).hasSize(count);
+		assertThat(iterator.getCount()).isEqualTo(count);
+		assertThat(iterator.isClosed()).isTrue();
+	}
+
+	@Test
+	public void iterate_should_be_closed_explicitly() {
+		ScrollIterator<FooEntity> iterator = fooDao.iterate();
+		assertThat(iterator.hasNext()).isTrue();
+
+		iterator.close();
+
+		assertThat(iterator.isClosed()).isTrue();
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+	@Test
+	public void scroll_should_process_every_entity_and_clear_persistence_context() {
+		for (int i = 0; i < 10; i++) {
+			jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "scroll" + i);
+		}
+
+		String jpql = "SELECT foo FROM FooEntity foo WHERE foo.name LIKE :name ORDER BY foo.id";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", "scroll%");
+
+		final List<FooEntity> foos = new ArrayList<FooEntity>();
+		long count = fooDao.scroll(jpql, params, 2, 3, new EntityCallback<FooEntity>() {
+			@Override
+			public void doWith(FooEntity entity) {
+				foos.add(entity);
+			}
+		});
+
+		assertThat(count).isEqualTo(10);
+		assertThat(foos).hasSize(10);
+		assertThat(entityManager.contains(foos.get(0))).isFalse();
+		assertThat(entityManager.contains(foos.get(9))).isTrue();
+	}
+
+	@Test
+	public void scroll_should_write_updates_of_detached_entities() {
+		for (int i = 0; i < 10; i++) {
+			jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "scroll" + i);
+		}
+
+		FooEntity foo = entityManager.find(FooEntity.class, 1L);
+
+		String jpql = "SELECT foo FROM FooEntity foo WHERE foo.name LIKE :name ORDER BY foo.id";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", "scroll%");
+
+		long count = fooDao.scroll(jpql, params, 2, 3, new EntityCallback<FooEntity>() {
+			@Override
+			public void doWith(FooEntity entity) {
+				entity.setName("updated");
+			}
+		});
+
+		entityManager.flush();
+
+		assertThat(count).isEqualTo(10);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo WHERE name = 'updated'", Integer.class)).isEqualTo(10);
+		assertThat(entityManager.contains(foo)).isTrue();
+	}
+
+	@Test
+	public void scroll_should_process_every_entity() {
+		int realCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo", Integer.class);
+
+		final List<FooEntity> foos = new ArrayList<FooEntity>();
+		long count = fooDao.scroll(new EntityCallback<FooEntity>() {
+			@Override
+			public void doWith(FooEntity entity) {
+				foos.add(entity);
+			}
+		});
+
+		assertThat(count).isEqualTo(realCount);
+		assertThat(foos).hasSize(realCount);
+	}
+
 	@Test
 	public void findOne_using_jpql_query() {
 		String jpql = "SELECT foo FROM FooEntity foo WHERE foo.id = 1";
@@ -277,4 +577,239 @@ public class AbstractGenericDaoTest {
 		long count = fooDao.count(query);
 		assertThat(count).isNotNull().isNotZero();
 	}
+
+	@Test
+	public void findAll_using_declared_query() {
+		List<FooEntity> foos = fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+		assertThat(foos).hasSize(1);
+		assertThat(foos.get(0).getName()).isEqualTo("foo");
+	}
+
+	@Test
+	public void findOne_using_declared_query() {
+		FooEntity foo = fooDao.findOne(FooDao.FIND_BY_NAME, FooDao.NAME.bind("bar"));
+		assertThat(foo).isNotNull();
+		assertThat(foo.getName()).isEqualTo("bar");
+
+		assertThat(fooDao.findOne(FooDao.FIND_BY_NAME, FooDao.NAME.bind("unknown"))).isNull();
+	}
+
+	@Test
+	public void count_using_declared_query() {
+		long count = fooDao.count(FooDao.COUNT_BY_NAME, FooDao.NAME.bind("foo"));
+		assertThat(count).isEqualTo(1L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_undeclared_query() {
+		QueryDefinition query = QueryDefinition.of("findByName", "SELECT foo FROM FooEntity foo WHERE foo.name = :name", FooDao.NAME);
+		fooDao.findAll(query, FooDao.NAME.bind("foo"));
+	}
+
+	@Test
+	public void it_should_render_findAll_and_count_queries_once() {
+		String findAllQuery = fooDao.findAllQuery();
+		String countQuery = fooDao.countQuery();
+
+		assertThat(findAllQuery).isEqualTo("SELECT x FROM FooEntity x");
+		assertThat(countQuery).isEqualTo("SELECT COUNT(x) FROM FooEntity x");
+		assertThat(fooDao.findAllQuery()).isSameAs(findAllQuery);
+		assertThat(fooDao.countQuery()).isSameAs(countQuery);
+	}
+
+	@Test
+	public void findAllAs_using_constructor_expression() {
+		entityManager.clear();
+
+		List<FooSummary> foos = fooDao.findAllAs(FooSummary.class, "id", "name");
+
+		assertThat(foos).hasSize(2);
+		assertThat(names(foos)).containsOnly("foo", "bar");
+		assertThat(foos.get(0).getId()).isNotNull();
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+
+	@Test
+	public void findAllAs_using_jpql_query() {
+		String jpql = "SELECT NEW com.mjeanroy.springhub.utils.FooSummary(foo.id, foo.name) FROM FooEntity foo WHERE foo.name = :name";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", "foo");
+
+		List<FooSummary> foos = fooDao.findAllAs(FooSummary.class, jpql, params);
+
+		assertThat(foos).hasSize(1);
+		assertThat(foos.get(0).getName()).isEqualTo("foo");
+	}
+
+	@Test
+	public void findAllAsBeans_using_setters() {
+		entityManager.clear();
+
+		List<FooSummary> foos = fooDao.findAllAsBeans(FooSummary.class, "id", "name");
+
+		assertThat(foos).hasSize(2);
+		assertThat(names(foos)).containsOnly("foo", "bar");
+		assertThat(foos.get(0).getId()).isNotNull();
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+
+	@Test
+	public void findTuples_with_aliases() {
+		List<Tuple> tuples = fooDao.findTuples("id", "name");
+
+		assertThat(tuples).hasSize(2);
+		List<String> names = new ArrayList<String>();
+		for (Tuple tuple : tuples) {
+			assertThat(tuple.get("id")).isNotNull();
+			names.add(tuple.get("name", String.class));
+		}
+		assertThat(names).containsOnly("foo", "bar");
+	}
+
+	private static List<String> names(List<FooSummary> foos) {
+		List<String> names = new ArrayList<String>(foos.size());
+		for (FooSummary foo : foos) {
+			names.add(foo.getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void it_should_load_read_only_entities_in_read_only_mode() {
+		entityManager.clear();
+		fooDao.setReadOnly(true);
+		try {
+			assertThat(fooDao.isReadOnly()).isTrue();
+
+			Session session = entityManager.unwrap(Session.class);
+			assertThat(session.getFlushMode()).isEqualTo(FlushMode.MANUAL);
+
+			List<FooEntity> foos = fooDao.findAll();
+			assertThat(foos).hasSize(2);
+			for (FooEntity foo : foos) {
+				assertThat(session.isReadOnly(foo)).isTrue();
+				foo.setName(foo.getName() + "_updated");
+			}
+
+			session.flush();
+			long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM foo WHERE name LIKE '%_updated'", Long.class);
+			assertThat(count).isZero();
+		}
+		finally {
+			fooDao.setReadOnly(false);
+		}
+
+		assertThat(fooDao.isReadOnly()).isFalse();
+	}
+
+	@Test
+	public void it_should_restore_flush_mode_when_read_only_mode_is_disabled() {
+		Session session = entityManager.unwrap(Session.class);
+		session.setFlushMode(FlushMode.COMMIT);
+
+		fooDao.setReadOnly(true);
+		assertThat(session.getFlushMode()).isEqualTo(FlushMode.MANUAL);
+
+		fooDao.setReadOnly(false);
+		assertThat(session.getFlushMode()).isEqualTo(FlushMode.COMMIT);
+	}
+
+	@Test
+	public void it_should_find_read_only_entity_in_read_only_mode() {
+		entityManager.clear();
+		fooDao.setReadOnly(true);
+		try {
+			FooEntity foo = fooDao.findOne(1L);
+			assertThat(entityManager.unwrap(Session.class).isReadOnly(foo)).isTrue();
+		}
+		finally {
+			fooDao.setReadOnly(false);
+		}
+	}
+
+	@Test
+	public void it_should_add_read_only_hint_to_iterated_query_in_read_only_mode() {
+		Query query = Mockito.spy(entityManager.createQuery("SELECT foo FROM FooEntity foo"));
+
+		fooDao.setReadOnly(true);
+		try {
+			fooDao.iterate(query, 2, 0).close();
+		}
+		finally {
+			fooDao.setReadOnly(false);
+		}
+
+		Mockito.verify(query).setHint(QueryHints.READ_ONLY, true);
+	}
+
+	@Test
+	public void iterate_should_use_fetch_size_of_dao() {
+		FooDao dao = Mockito.spy(new FooDao());
+		ReflectionTestUtils.setField(dao, "entityManager", entityManager);
+		dao.setFetchSize(7);
+
+		String jpql = "SELECT foo FROM FooEntity foo";
+		dao.iterate().close();
+		dao.iterate(jpql, null).close();
+
+		Mockito.verify(dao, Mockito.times(2)).iterate(Mockito.any(CharSequence.class), Mockito.anyMap(), Mockito.eq(7), Mockito.eq(AbstractGenericDao.DEFAULT_CLEAR_SIZE));
+	}
+
+	@Test
+	public void bulkDelete_with_criterion() {
+		FooEntity foo = fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo")).get(0);
+
+		int rows = fooDao.bulkDelete(nameIs("foo"));
+
+		assertThat(rows).isEqualTo(1);
+		assertThat(fooDao.isManaged(foo)).isFalse();
+		assertThat(fooDao.findOne(foo.getId())).isNull();
+		assertThat(fooDao.count()).isEqualTo(1L);
+	}
+
+	@Test
+	public void bulkUpdate_with_criterion() {
+		FooEntity foo = fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo")).get(0);
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("name", "quix");
+		int rows = fooDao.bulkUpdate(values, nameIs("foo"));
+
+		assertThat(rows).isEqualTo(1);
+		assertThat(fooDao.isManaged(foo)).isFalse();
+		assertThat(fooDao.findOne(foo.getId()).getName()).isEqualTo("quix");
+	}
+
+	@Test
+	public void bulkUpdate_should_flush_pending_changes() {
+		FooEntity foo = new FooEntity();
+		foo.setName("foo");
+		fooDao.persist(foo);
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("name", "quix");
+		int rows = fooDao.bulkUpdate(values, nameIs("foo"));
+
+		assertThat(rows).isEqualTo(2);
+	}
+
+	@Test
+	public void bulkExecute_with_jpql_query() {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", "bar");
+
+		int rows = fooDao.bulkExecute("DELETE FROM FooEntity foo WHERE foo.name = :name", params);
+
+		assertThat(rows).isEqualTo(1);
+		assertThat(fooDao.count()).isEqualTo(1L);
+	}
+
+	private static Criterion<FooEntity> nameIs(final String name) {
+		return new Criterion<FooEntity>() {
+			@Override
+			public Predicate toPredicate(Root<FooEntity> root, CriteriaBuilder builder) {
+				return builder.equal(root.get("name"), name);
+			}
+		};
+	}
 }
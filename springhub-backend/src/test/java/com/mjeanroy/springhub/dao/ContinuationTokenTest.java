@@ -0,0 +1,61 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.junit.Test;
+
+public class ContinuationTokenTest {
+
+	@Test
+	public void it_should_encode_and_decode_token() {
+		String token = ContinuationToken.encode("foo", 1L);
+		ContinuationToken result = ContinuationToken.decode(token, String.class, Long.class);
+		assertThat(result.getValue()).isEqualTo("foo");
+		assertThat(result.getId()).isEqualTo(1L);
+	}
+
+	@Test
+	public void it_should_encode_and_decode_dates() {
+		Date date = new Date();
+		String token = ContinuationToken.encode(date, 1L);
+		ContinuationToken result = ContinuationToken.decode(token, Date.class, Long.class);
+		assertThat(result.getValue()).isEqualTo(date);
+	}
+
+	@Test
+	public void it_should_keep_nanoseconds_of_timestamps() {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		timestamp.setNanos(123456789);
+
+		String token = ContinuationToken.encode(timestamp, 1L);
+		ContinuationToken result = ContinuationToken.decode(token, Date.class, Long.class);
+
+		assertThat(result.getValue()).isEqualTo(timestamp);
+	}
+
+	@Test
+	public void it_should_encode_values_with_separator() {
+		String token = ContinuationToken.encode("foo.bar", 1L);
+		ContinuationToken result = ContinuationToken.decode(token, String.class, Long.class);
+		assertThat(result.getValue()).isEqualTo("foo.bar");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_token() {
+		ContinuationToken.decode("foo", String.class, Long.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_id() {
+		String token = ContinuationToken.encode("foo", "bar");
+		ContinuationToken.decode(token, String.class, Long.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_null_values() {
+		ContinuationToken.encode(null, 1L);
+	}
+}
@@ -0,0 +1,147 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooDao;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class CountStrategyTest {
+
+	private static final String QUERY = "SELECT COUNT(x) FROM FooEntity x";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FooDao fooDao;
+
+	@Autowired
+	private GenericDao genericDao;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@After
+	public void tearDown() {
+		fooDao.setCountStrategy(CountStrategy.exact());
+	}
+
+	@Test
+	public void exact_count() {
+		CountStrategy strategy = CountStrategy.exact();
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(2L);
+
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES('quix')");
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(3L);
+	}
+
+	@Test
+	public void cached_count() {
+		CountStrategy strategy = CountStrategy.cached(1, TimeUnit.HOURS);
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(2L);
+
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES('quix')");
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(2L);
+
+		strategy.invalidate(FooEntity.class);
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(3L);
+	}
+
+	@Test
+	public void cached_count_should_expire() {
+		CountStrategy strategy = CountStrategy.cached(1, TimeUnit.NANOSECONDS);
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(2L);
+
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES('quix')");
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(3L);
+	}
+
+	@Test
+	public void cached_count_should_be_invalidated_by_dao() {
+		fooDao.setCountStrategy(CountStrategy.cached(1, TimeUnit.HOURS));
+		assertThat(fooDao.count()).isEqualTo(2L);
+
+		FooEntity foo = new FooEntity();
+		foo.setName("quix");
+		fooDao.persist(foo);
+
+		assertThat(fooDao.count()).isEqualTo(3L);
+	}
+
+	@Test
+	public void cached_count_should_be_invalidated_by_other_dao() {
+		fooDao.setCountStrategy(CountStrategy.cached(1, TimeUnit.HOURS));
+		assertThat(fooDao.count()).isEqualTo(2L);
+
+		// Generic DAO uses its own (exact) count strategy
+		FooEntity foo = new FooEntity();
+		foo.setName("quix");
+		genericDao.persist(foo);
+
+		assertThat(fooDao.count()).isEqualTo(3L);
+
+		// Registry is notified when delete statement is executed
+		genericDao.remove(foo);
+		entityManager.flush();
+		assertThat(fooDao.count()).isEqualTo(2L);
+	}
+
+	@Test
+	public void cached_count_should_not_be_kept_if_invalidated_while_counting() {
+		final CountStrategy strategy = CountStrategy.cached(1, TimeUnit.HOURS);
+
+		EntityManager em = Mockito.mock(EntityManager.class);
+		Query query = Mockito.mock(Query.class);
+		Mockito.when(em.createQuery(QUERY)).thenReturn(query);
+		Mockito.when(query.getSingleResult()).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) {
+				// Concurrent transaction commits while count is computed
+				strategy.invalidate(FooEntity.class);
+				return 2L;
+			}
+		});
+
+		assertThat(strategy.count(em, FooEntity.class, QUERY)).isEqualTo(2L);
+		assertThat(strategy.count(em, FooEntity.class, QUERY)).isEqualTo(2L);
+		Mockito.verify(query, Mockito.times(2)).getSingleResult();
+	}
+
+	@Test
+	public void estimated_count() {
+		jdbcTemplate.update("INSERT INTO foo(name) VALUES('quix')");
+
+		CountStrategy strategy = CountStrategy.estimated(0);
+		long expected = jdbcTemplate.queryForObject("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'FOO'", Long.class);
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(expected);
+	}
+
+	@Test
+	public void estimated_count_should_use_exact_count_under_threshold() {
+		CountStrategy strategy = CountStrategy.estimated(Long.MAX_VALUE);
+		assertThat(strategy.count(entityManager, FooEntity.class, QUERY)).isEqualTo(2L);
+	}
+}
@@ -0,0 +1,85 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.NamedQueryDefinition;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooDao;
+
+/**
+ * Check that queries declared in {@link QueryRegistry} are registered once as named queries,
+ * and that each execution reuses the same named query.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class DeclaredQueryReuseTest {
+
+	private static final String NAME = FooDao.class.getName() + "." + FooDao.FIND_BY_NAME.getName();
+
+	@Autowired
+	private FooDao fooDao;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private SessionFactoryImplementor sessionFactory;
+
+	private Statistics statistics;
+
+	@Before
+	public void setUp() {
+		sessionFactory = (SessionFactoryImplementor) entityManager.unwrap(Session.class).getSessionFactory();
+		statistics = sessionFactory.getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+
+	@After
+	public void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	public void it_should_register_declared_query_once() {
+		fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+
+		NamedQueryDefinition definition = sessionFactory.getNamedQuery(NAME);
+		assertThat(definition).isNotNull();
+		assertThat(definition.getQueryString()).isEqualTo(FooDao.FIND_BY_NAME.getJpql());
+
+		fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("bar"));
+		fooDao.initializeQueries();
+
+		assertThat(sessionFactory.getNamedQuery(NAME)).isSameAs(definition);
+	}
+
+	@Test
+	public void it_should_reuse_declared_query() {
+		for (int i = 0; i < 3; i++) {
+			fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+		}
+
+		// Every execution runs the same query, and only the statement of this query
+		assertThat(statistics.getQueries()).containsOnly(FooDao.FIND_BY_NAME.getJpql());
+		assertThat(statistics.getQueryStatistics(FooDao.FIND_BY_NAME.getJpql()).getExecutionCount()).isEqualTo(3L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L);
+	}
+}
@@ -0,0 +1,61 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class FetchPlanTest {
+
+	@Test
+	public void it_should_use_named_entity_graph() {
+		EntityManager entityManager = mock(EntityManager.class);
+		EntityGraph graph = mock(EntityGraph.class);
+		when(entityManager.getEntityGraph("foo.bazs")).thenReturn(graph);
+
+		FetchPlan plan = FetchPlan.named("foo.bazs");
+
+		assertThat(plan.getGraphName()).isEqualTo("foo.bazs");
+		assertThat(plan.toGraph(entityManager, Object.class)).isSameAs(graph);
+		assertThat(plan.toHints(entityManager, Object.class)).containsKey(FetchPlan.FETCH_GRAPH);
+	}
+
+	@Test
+	public void it_should_build_entity_graph_with_attribute_paths() {
+		EntityManager entityManager = mock(EntityManager.class);
+		EntityGraph<Object> graph = mock(EntityGraph.class);
+		Subgraph<Object> lines = mock(Subgraph.class);
+		Subgraph<Object> product = mock(Subgraph.class);
+		when(entityManager.createEntityGraph(Object.class)).thenReturn(graph);
+		when(graph.addSubgraph("lines")).thenReturn((Subgraph) lines);
+		when(lines.addSubgraph("product")).thenReturn((Subgraph) product);
+
+		FetchPlan plan = FetchPlan.of("customer", "lines", "lines.product.category", "lines.tax", "customer");
+
+		assertThat(plan.toGraph(entityManager, Object.class)).isSameAs(graph);
+		verify(graph).addAttributeNodes("customer");
+		verify(graph).addSubgraph("lines");
+		verify(lines).addSubgraph("product");
+		verify(lines).addAttributeNodes("tax");
+		verify(product).addAttributeNodes("category");
+		verifyNoMoreInteractions(graph, lines, product);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_reject_empty_plan() {
+		FetchPlan.of();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_reject_invalid_path() {
+		FetchPlan.of("lines..product");
+	}
+}
@@ -1,12 +1,19 @@
 package com.mjeanroy.springhub.dao;
 
+import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.fest.assertions.api.Assertions;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -34,6 +41,19 @@ public class GenericDaoTest {
 		Mockito.verify(entityManager).find(FooEntity.class, 1L);
 	}
 
+	@Test
+	public void test_find_class_with_fetch_plan() {
+		EntityGraph<FooEntity> graph = Mockito.mock(EntityGraph.class);
+		Mockito.when(entityManager.createEntityGraph(FooEntity.class)).thenReturn(graph);
+		Mockito.when(entityManager.find(Mockito.eq(FooEntity.class), Mockito.eq(1L), Mockito.anyMap())).thenReturn(new FooEntity());
+
+		FooEntity result = dao.find(FooEntity.class, 1L, FetchPlan.of("bars"));
+
+		Assertions.assertThat(result).isNotNull();
+		Mockito.verify(graph).addAttributeNodes("bars");
+		Mockito.verify(entityManager).find(FooEntity.class, 1L, Collections.<String, Object>singletonMap(FetchPlan.FETCH_GRAPH, graph));
+	}
+
 	@Test
 	public void test_getReference_class() {
 		Mockito.when(entityManager.getReference(FooEntity.class, 1L)).thenReturn(new FooEntity());
@@ -78,6 +98,94 @@ public class GenericDaoTest {
 		Mockito.verify(query).getSingleResult();
 	}
 
+	@Test
+	public void test_indexById_class() {
+		String str = "SELECT x FROM FooEntity x WHERE x.id IN :ids";
+
+		List<Long> ids = new ArrayList<Long>();
+		for (long i = 0; i < 1200; i++) {
+			ids.add(i);
+		}
+
+		TypedQuery<FooEntity> query = Mockito.mock(TypedQuery.class);
+		Mockito.when(entityManager.createQuery(str, FooEntity.class)).thenReturn(query);
+		Mockito.when(query.setParameter(Mockito.eq("ids"), Mockito.any())).thenReturn(query);
+		Mockito.when(query.getResultList()).thenReturn(new ArrayList<FooEntity>());
+
+		Map<Long, FooEntity> result = dao.indexById(FooEntity.class, ids);
+
+		Assertions.assertThat(result).isNotNull().isEmpty();
+		Mockito.verify(entityManager, Mockito.times(3)).createQuery(str, FooEntity.class);
+		Mockito.verify(query, Mockito.times(3)).getResultList();
+	}
+
+	@Test
+	public void test_indexById_class_without_ids() {
+		Map<Long, FooEntity> result = dao.indexById(FooEntity.class, Collections.<Long>emptyList());
+		Assertions.assertThat(result).isNotNull().isEmpty();
+		Mockito.verifyZeroInteractions(entityManager);
+	}
+
+	@Test
+	public void test_persistAll() {
+		List<FooEntity> entities = new ArrayList<FooEntity>();
+		for (int i = 0; i < 120; i++) {
+			entities.add(new FooEntity());
+		}
+
+		BatchResult result = dao.persistAll(entities);
+
+		Assertions.assertThat(result.getCount()).isEqualTo(120);
+		Mockito.verify(entityManager, Mockito.times(120)).persist(Mockito.any(FooEntity.class));
+		Mockito.verify(entityManager, Mockito.times(3)).flush();
+		Mockito.verify(entityManager, Mockito.times(120)).detach(Mockito.any(FooEntity.class));
+		Mockito.verify(entityManager, Mockito.never()).clear();
+	}
+
+	@Test
+	public void test_removeAll_detached_entities() {
+		FooEntity entity = new FooEntity();
+		FooEntity managed = new FooEntity();
+		Mockito.when(entityManager.contains(entity)).thenReturn(false);
+		Mockito.when(entityManager.merge(entity)).thenReturn(managed);
+
+		BatchResult result = dao.removeAll(Collections.singletonList(entity));
+
+		Assertions.assertThat(result.getCount()).isEqualTo(1);
+		Mockito.verify(entityManager).remove(managed);
+		Mockito.verify(entityManager).flush();
+	}
+
+	@Test
+	public void test_setReadOnly() {
+		Session session = Mockito.mock(Session.class);
+		Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+		dao.setReadOnly(true);
+
+		Mockito.verify(session).setDefaultReadOnly(true);
+		Mockito.verify(session).setFlushMode(FlushMode.MANUAL);
+	}
+
+	@Test
+	public void test_findAll_class_in_read_only_mode() {
+		String str = "SELECT x FROM FooEntity x";
+
+		Session session = Mockito.mock(Session.class);
+		Mockito.when(session.isDefaultReadOnly()).thenReturn(true);
+		Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+		Query query = Mockito.mock(Query.class);
+		Mockito.when(entityManager.createQuery(str)).thenReturn(query);
+		Mockito.when(query.getResultList()).thenReturn(new ArrayList<FooEntity>());
+
+		dao.setFetchSize(20);
+		dao.findAll(FooEntity.class);
+
+		Mockito.verify(query).setHint(QueryHints.READ_ONLY, true);
+		Mockito.verify(query).setHint(QueryHints.FETCH_SIZE, 20);
+	}
+
 	private static class FooEntity extends AbstractEntity {
 
 	}
@@ -0,0 +1,39 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class IdRangeTest {
+
+	@Test
+	public void it_should_split_range_in_contiguous_partitions() {
+		List<IdRange> ranges = new IdRange(1, 10).split(3);
+		assertThat(ranges).containsExactly(new IdRange(1, 4), new IdRange(5, 7), new IdRange(8, 10));
+	}
+
+	@Test
+	public void it_should_split_range_in_partitions_of_same_width() {
+		List<IdRange> ranges = new IdRange(0, 7).split(4);
+		assertThat(ranges).containsExactly(new IdRange(0, 1), new IdRange(2, 3), new IdRange(4, 5), new IdRange(6, 7));
+	}
+
+	@Test
+	public void it_should_return_less_partitions_than_ids() {
+		List<IdRange> ranges = new IdRange(5, 7).split(10);
+		assertThat(ranges).containsExactly(new IdRange(5, 5), new IdRange(6, 6), new IdRange(7, 7));
+	}
+
+	@Test
+	public void it_should_split_very_large_range() {
+		List<IdRange> ranges = new IdRange(0, Long.MAX_VALUE).split(2);
+		assertThat(ranges).containsExactly(new IdRange(0, Long.MAX_VALUE / 2), new IdRange(Long.MAX_VALUE / 2 + 1, Long.MAX_VALUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_reject_invalid_range() {
+		new IdRange(2, 1);
+	}
+}
@@ -0,0 +1,51 @@
+package com.mjeanroy.springhub.dao;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class InClauseTest {
+
+	@Test
+	public void it_should_split_values_in_chunks() {
+		List<Integer> values = new ArrayList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			values.add(i);
+		}
+
+		List<List<Integer>> chunks = InClause.partition(values, 4);
+
+		assertThat(chunks).hasSize(3);
+		assertThat(chunks.get(0)).containsExactly(0, 1, 2, 3);
+		assertThat(chunks.get(1)).containsExactly(4, 5, 6, 7);
+		assertThat(chunks.get(2)).containsExactly(8, 9);
+	}
+
+	@Test
+	public void it_should_pad_last_chunk_to_next_power_of_two() {
+		List<List<Integer>> chunks = InClause.partition(asList(1, 2, 3, 4, 5), 100);
+
+		assertThat(chunks).hasSize(1);
+		assertThat(chunks.get(0)).containsExactly(1, 2, 3, 4, 5, 5, 5, 5);
+	}
+
+	@Test
+	public void it_should_not_pad_last_chunk_over_maximum_size() {
+		List<List<Integer>> chunks = InClause.partition(asList(1, 2, 3, 4, 5), 6);
+
+		assertThat(chunks).hasSize(1);
+		assertThat(chunks.get(0)).containsExactly(1, 2, 3, 4, 5, 5);
+	}
+
+	@Test
+	public void it_should_remove_null_and_duplicated_values() {
+		List<List<Integer>> chunks = InClause.partition(asList(1, null, 2, 1), 10);
+
+		assertThat(chunks).hasSize(1);
+		assertThat(chunks.get(0)).containsExactly(1, 2);
+	}
+}
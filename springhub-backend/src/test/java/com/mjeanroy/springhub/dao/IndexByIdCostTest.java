@@ -0,0 +1,97 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+/**
+ * Check that cost of {@link GenericDao#indexById(Class, java.util.Collection)} depends on the
+ * number of ids and not on the size of the table.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class IndexByIdCostTest {
+
+	private static final int TABLE_SIZE = 2000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private GenericDao dao;
+
+	private Statistics statistics;
+
+	@Before
+	public void setUp() {
+		List<Object[]> rows = new ArrayList<Object[]>(TABLE_SIZE);
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			rows.add(new Object[]{"cost" + i});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO foo(name) VALUES(?)", rows);
+
+		dao = new GenericDao();
+		ReflectionTestUtils.setField(dao, "entityManager", entityManager);
+
+		statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+
+	@After
+	public void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	public void it_should_load_only_requested_entities() {
+		List<Long> ids = firstIds(3);
+
+		Map<Long, FooEntity> foos = dao.indexById(FooEntity.class, ids);
+
+		assertThat(foos).hasSize(3);
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(3L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void it_should_run_one_query_per_in_list() {
+		List<Long> ids = firstIds(InClause.DEFAULT_SIZE * 2);
+
+		Map<Long, FooEntity> foos = dao.indexById(FooEntity.class, ids);
+
+		assertThat(foos).hasSize(ids.size());
+		assertThat(statistics.getEntityLoadCount()).isEqualTo((long) ids.size());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L);
+	}
+
+	private List<Long> firstIds(int size) {
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM foo ORDER BY id", Long.class);
+		return new ArrayList<Long>(ids.subList(0, size));
+	}
+}
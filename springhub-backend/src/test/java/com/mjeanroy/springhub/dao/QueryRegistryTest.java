@@ -0,0 +1,80 @@
+package com.mjeanroy.springhub.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class QueryRegistryTest {
+
+	private static final QueryParam<String> NAME = QueryParam.of("name", String.class);
+
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void it_should_register_named_query() {
+		QueryDefinition query = QueryDefinition.of("findByName", "SELECT foo FROM FooEntity foo WHERE foo.name = :name", NAME);
+		QueryRegistry registry = new QueryRegistry("QueryRegistryTest").register(query);
+
+		registry.initialize(entityManagerFactory);
+
+		assertThat(registry.isRegistered()).isTrue();
+		List<FooEntity> foos = entityManager.createNamedQuery("QueryRegistryTest.findByName")
+				.setParameter("name", "foo")
+				.getResultList();
+		assertThat(foos).hasSize(1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_with_invalid_query() {
+		QueryDefinition query = QueryDefinition.of("invalid", "SELECT foo FROM UnknownEntity foo");
+		new QueryRegistry("QueryRegistryTest").register(query).initialize(entityManagerFactory);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_with_missing_parameter() {
+		QueryDefinition query = QueryDefinition.of("missing", "SELECT foo FROM FooEntity foo", NAME);
+		new QueryRegistry("QueryRegistryTest").register(query).initialize(entityManagerFactory);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_with_undeclared_parameter() {
+		QueryDefinition query = QueryDefinition.of("undeclared", "SELECT foo FROM FooEntity foo WHERE foo.name = :name");
+		new QueryRegistry("QueryRegistryTest").register(query).initialize(entityManagerFactory);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_with_parameter_of_wrong_type() {
+		QueryDefinition query = QueryDefinition.of("wrongType", "SELECT foo FROM FooEntity foo WHERE foo.id = :id", QueryParam.of("id", String.class));
+		new QueryRegistry("QueryRegistryTest").register(query).initialize(entityManagerFactory);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_duplicated_query() {
+		new QueryRegistry("QueryRegistryTest")
+				.register(QueryDefinition.of("duplicated", "SELECT foo FROM FooEntity foo"))
+				.register(QueryDefinition.of("duplicated", "SELECT foo FROM FooEntity foo"));
+	}
+}
@@ -0,0 +1,66 @@
+package com.mjeanroy.springhub.models.entities.sequence;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.utils.BarEntity;
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class PooledSequenceGeneratorTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void it_should_allocate_ids_by_blocks() {
+		List<BarEntity> bars = new ArrayList<BarEntity>();
+		for (int i = 0; i < 12; i++) {
+			BarEntity bar = new BarEntity("bar" + i);
+			entityManager.persist(bar);
+			bars.add(bar);
+		}
+
+		for (int i = 1; i < bars.size(); i++) {
+			assertThat(bars.get(i).getId()).isEqualTo(bars.get(i - 1).getId() + 1);
+		}
+
+		// Sequence is incremented by blocks of five ids, and should not be ahead of more than one block.
+		long lastId = bars.get(bars.size() - 1).getId();
+		long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR bar_seq", Long.class);
+		assertThat(next % 5).isEqualTo(1);
+		assertThat(next - lastId).isGreaterThan(0).isLessThanOrEqualTo(2 * 5);
+	}
+
+	@Test
+	public void it_should_persist_versioned_entity() {
+		BarEntity bar = new BarEntity("bar");
+		entityManager.persist(bar);
+		entityManager.flush();
+
+		assertThat(bar.getId()).isNotNull();
+		assertThat(bar.getVersion()).isZero();
+
+		int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bar WHERE id = ?", Integer.class, bar.getId());
+		assertThat(count).isEqualTo(1);
+	}
+}
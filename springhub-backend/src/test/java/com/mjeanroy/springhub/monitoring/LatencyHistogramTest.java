@@ -0,0 +1,60 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void it_should_record_values() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(4));
+
+		assertThat(histogram.getCount()).isEqualTo(2);
+		assertThat(histogram.getTotal()).isEqualTo(6.0);
+		assertThat(histogram.getMean()).isEqualTo(3.0);
+		assertThat(histogram.getMax()).isEqualTo(4.0);
+	}
+
+	@Test
+	public void it_should_compute_percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(50));
+		}
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(300));
+
+		assertThat(histogram.getPercentile(50)).isEqualTo(0.1);
+		assertThat(histogram.getPercentile(99)).isEqualTo(0.1);
+		assertThat(histogram.getPercentile(100)).isEqualTo(300.0);
+	}
+
+	@Test
+	public void it_should_fill_buckets() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+		histogram.record(TimeUnit.SECONDS.toNanos(20));
+
+		Map<Double, Long> buckets = histogram.getBuckets();
+		assertThat(buckets.get(1.0)).isEqualTo(1L);
+		assertThat(buckets.get(Double.POSITIVE_INFINITY)).isEqualTo(1L);
+		assertThat(buckets.get(0.1)).isZero();
+	}
+
+	@Test
+	public void it_should_return_zero_without_values() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getMean()).isZero();
+		assertThat(histogram.getPercentile(99)).isZero();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_reject_invalid_percentile() {
+		new LatencyHistogram().getPercentile(101);
+	}
+}
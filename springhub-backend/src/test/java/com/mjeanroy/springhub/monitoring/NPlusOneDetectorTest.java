@@ -0,0 +1,157 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class NPlusOneDetectorTest {
+
+	private NPlusOneDetector detector;
+
+	@Before
+	public void setUp() {
+		detector = new NPlusOneDetector(new QueryMonitor());
+		detector.setMaxRepeatedStatements(2);
+	}
+
+	@Test
+	public void it_should_compute_statement_shape() {
+		assertThat(NPlusOneDetector.shape("select * from foo foo0_ where foo0_.id=12")).isEqualTo("select * from foo foo0_ where foo0_.id=?");
+		assertThat(NPlusOneDetector.shape("select * from foo where name = 'it''s'")).isEqualTo("select * from foo where name = ?");
+		assertThat(NPlusOneDetector.shape("select * from foo where id in (?, ?,  ?)")).isEqualTo("select * from foo where id in (?)");
+		assertThat(NPlusOneDetector.shape("select *\n  from foo")).isEqualTo("select * from foo");
+	}
+
+	@Test
+	public void it_should_group_statements_by_shape() {
+		detector.begin();
+		detector.statementExecuted("select * from bar where foo_id=1", 0);
+		detector.statementExecuted("select * from bar where foo_id=2", 0);
+		detector.statementExecuted("select * from foo", 0);
+		QueryReport report = detector.end();
+
+		assertThat(report.getStatementCount()).isEqualTo(3);
+		assertThat(report.getMaxRepeatedStatements()).isEqualTo(2);
+		assertThat(report.getShapes().keySet()).containsExactly("select * from bar where foo_id=?", "select * from foo");
+	}
+
+	@Test
+	public void it_should_warn_when_threshold_is_crossed() {
+		detector.begin();
+		for (int i = 0; i < 5; i++) {
+			detector.statementExecuted("select * from bar where foo_id=" + i, 0);
+		}
+		QueryReport report = detector.end();
+
+		assertThat(report.getMaxRepeatedStatements()).isEqualTo(5);
+	}
+
+	@Test
+	public void it_should_fail_when_threshold_is_crossed() {
+		detector.setMode(DetectionMode.FAIL);
+		detector.begin();
+		try {
+			detector.statementExecuted("select * from bar where foo_id=1", 0);
+			detector.statementExecuted("select * from bar where foo_id=2", 0);
+			detector.statementExecuted("select * from bar where foo_id=3", 0);
+			fail("Detector should fail");
+		}
+		catch (TooManyStatementsException ex) {
+			assertThat(ex.getReport().getStatementCount()).isEqualTo(3);
+		}
+		finally {
+			detector.end();
+		}
+	}
+
+	@Test
+	public void it_should_fail_when_max_statements_is_crossed() {
+		detector.setMode(DetectionMode.FAIL);
+		detector.setMaxStatements(2);
+		detector.begin();
+		try {
+			detector.statementExecuted("select * from foo", 0);
+			detector.statementExecuted("select * from bar", 0);
+			detector.statementExecuted("select * from baz", 0);
+			fail("Detector should fail");
+		}
+		catch (TooManyStatementsException ex) {
+			assertThat(ex.getMessage()).contains("More than 2 statements");
+		}
+		finally {
+			detector.end();
+		}
+	}
+
+	@Test
+	public void it_should_count_nested_scopes_in_enclosing_scope() {
+		detector.begin();
+		detector.statementExecuted("select * from foo", 0);
+
+		detector.begin();
+		detector.statementExecuted("select * from bar", 0);
+		QueryReport nested = detector.end();
+
+		QueryReport report = detector.end();
+
+		assertThat(nested.getStatementCount()).isEqualTo(1);
+		assertThat(report.getStatementCount()).isEqualTo(2);
+		assertThat(detector.current()).isNull();
+	}
+
+	@Test
+	public void it_should_open_scope_for_transaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			detector.statementExecuted("select * from foo", 0);
+			detector.statementExecuted("select * from bar", 0);
+			assertThat(detector.current().getStatementCount()).isEqualTo(2);
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(detector.current()).isNull();
+	}
+
+	@Test
+	public void it_should_keep_explicit_scope_opened_during_transaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			detector.statementExecuted("select * from foo", 0);
+			detector.begin();
+			detector.statementExecuted("select * from bar", 0);
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		detector.statementExecuted("select * from baz", 0);
+		assertThat(detector.current().getStatementCount()).isEqualTo(2);
+		assertThat(detector.end().getStatementCount()).isEqualTo(2);
+		assertThat(detector.current()).isNull();
+	}
+
+	@Test
+	public void it_should_ignore_statements_outside_of_scope() {
+		detector.statementExecuted("select * from foo", 0);
+		assertThat(detector.current()).isNull();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void it_should_fail_to_end_unknown_scope() {
+		detector.end();
+	}
+}
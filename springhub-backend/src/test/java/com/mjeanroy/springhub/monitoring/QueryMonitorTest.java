@@ -0,0 +1,197 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mjeanroy.springhub.configuration.MonitoringConfiguration;
+import com.mjeanroy.springhub.utils.FooDao;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = QueryMonitorTest.MonitoredConfiguration.class)
+@TransactionConfiguration(defaultRollback = true)
+@Transactional
+public class QueryMonitorTest {
+
+	@Autowired
+	private QueryMonitor monitor;
+
+	@Autowired
+	private FooDao fooDao;
+
+	@Before
+	public void setUp() {
+		monitor.clear();
+		monitor.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		monitor.setEnabled(true);
+		monitor.setSlowQueryThreshold(QueryMonitor.DEFAULT_SLOW_QUERY_THRESHOLD);
+	}
+
+	@Test
+	public void it_should_monitor_dao_methods() {
+		List<FooEntity> foos = fooDao.findAll();
+		assertThat(foos).hasSize(2);
+
+		OperationStats stats = monitor.getMethods().get("FooDao.findAll");
+		assertThat(stats).isNotNull();
+		assertThat(stats.getCount()).isEqualTo(1);
+		assertThat(stats.getStatementCount()).isEqualTo(1);
+		assertThat(stats.getRowCount()).isEqualTo(2);
+		assertThat(stats.getLatency().getCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_monitor_declared_queries() {
+		fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+
+		OperationStats stats = monitor.getMethods().get("FooDao.findAll[findByName]");
+		assertThat(stats).isNotNull();
+		assertThat(stats.getStatementCount()).isEqualTo(1);
+		assertThat(stats.getRowCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_monitor_statements() {
+		fooDao.findAll();
+		fooDao.findAll();
+
+		Map<String, OperationStats> statements = monitor.getStatements();
+		assertThat(statements).hasSize(1);
+
+		OperationStats stats = statements.values().iterator().next();
+		assertThat(stats.getName()).containsIgnoringCase("from foo");
+		assertThat(stats.getCount()).isEqualTo(2);
+		assertThat(stats.getRowCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void it_should_count_updated_rows() {
+		fooDao.bulkExecute("UPDATE FooEntity foo SET foo.name = 'baz'", null);
+
+		OperationStats stats = monitor.getMethods().get("FooDao.bulkExecute");
+		assertThat(stats).isNotNull();
+		assertThat(stats.getRowCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_monitor_failed_statements() {
+		try {
+			// Name column is not nullable
+			fooDao.bulkExecute("UPDATE FooEntity foo SET foo.name = NULL", null);
+			fail("Statement should have failed");
+		}
+		catch (RuntimeException ex) {
+			// Expected
+		}
+
+		Map<String, OperationStats> statements = monitor.getStatements();
+		assertThat(statements).hasSize(1);
+
+		OperationStats stats = statements.values().iterator().next();
+		assertThat(stats.getCount()).isEqualTo(1);
+		assertThat(stats.getFailureCount()).isEqualTo(1);
+		assertThat(stats.getRowCount()).isEqualTo(0);
+		assertThat(monitor.getMethods().get("FooDao.bulkExecute").getStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_notify_listeners() {
+		final List<String> statements = new ArrayList<String>();
+		StatementListener listener = new StatementListener() {
+			@Override
+			public void statementExecuted(String sql, long elapsed) {
+				statements.add(sql);
+			}
+		};
+
+		monitor.addListener(listener);
+		try {
+			monitor.setSlowQueryThreshold(0);
+			fooDao.findAll(FooDao.FIND_BY_NAME, FooDao.NAME.bind("foo"));
+		}
+		finally {
+			monitor.removeListener(listener);
+		}
+
+		assertThat(statements).hasSize(1);
+	}
+
+	@Test
+	public void it_should_not_monitor_if_disabled() {
+		monitor.setEnabled(false);
+		fooDao.findAll();
+
+		assertThat(monitor.getMethods()).isEmpty();
+		assertThat(monitor.getStatements()).isEmpty();
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	@Import(MonitoringConfiguration.class)
+	public static class MonitoredConfiguration {
+
+		@Bean(destroyMethod = "shutdown")
+		public EmbeddedDatabase database() {
+			return new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.setName("monitoring")
+					.addScript("/foo.sql")
+					.build();
+		}
+
+		@Bean
+		public DataSource dataSource(QueryMonitor queryMonitor) {
+			return new MonitoredDataSource(database(), queryMonitor);
+		}
+
+		@Bean
+		public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+			LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+			em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+			em.setPersistenceProviderClass(HibernatePersistenceProvider.class);
+			em.setDataSource(dataSource);
+			return em;
+		}
+
+		@Bean
+		public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+			return new JpaTransactionManager(entityManagerFactory.getObject());
+		}
+
+		@Bean
+		public FooDao fooDao() {
+			return new FooDao();
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package com.mjeanroy.springhub.services;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.fest.assertions.api.Assertions;
 import org.junit.Test;
@@ -10,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.mjeanroy.springhub.dao.GenericDao;
 import com.mjeanroy.springhub.models.entities.identity.AbstractEntity;
@@ -58,6 +61,20 @@ public class AbstractServicesTest {
 		Mockito.verify(dao).persist(foo);
 	}
 
+	@Test
+	public void test_saveAll() {
+		List<FooEntity> foos = Collections.singletonList(new FooEntity());
+		service.saveAll(foos);
+		Mockito.verify(dao).persistAll(foos);
+	}
+
+	@Test
+	public void test_deleteAll() {
+		List<FooEntity> foos = Collections.singletonList(new FooEntity());
+		service.deleteAll(foos);
+		Mockito.verify(dao).removeAll(foos);
+	}
+
 	@Test
 	public void test_delete() {
 		FooEntity foo = new FooEntity();
@@ -65,11 +82,91 @@ public class AbstractServicesTest {
 		Mockito.verify(dao).remove(foo);
 	}
 
+	@Test
+	public void test_find_with_cache_in_read_only_transaction() {
+		service.setCache(new EntityCache<Long, FooEntity>(10, 0, TimeUnit.MINUTES));
+		Mockito.when(dao.find(FooEntity.class, 1L)).thenReturn(new FooEntity());
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			FooEntity first = service.get(1L);
+			FooEntity second = service.get(1L);
+			Assertions.assertThat(first).isNotNull();
+			Assertions.assertThat(second).isNotNull().isNotSameAs(first);
+		}
+		finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+
+		Mockito.verify(dao, Mockito.times(1)).find(FooEntity.class, 1L);
+		Assertions.assertThat(service.getCache().getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void test_find_with_cache_in_read_write_transaction() {
+		service.setCache(new EntityCache<Long, FooEntity>(10, 0, TimeUnit.MINUTES));
+		Mockito.when(dao.find(FooEntity.class, 1L)).thenReturn(new FooEntity());
+
+		service.get(1L);
+		service.get(1L);
+
+		Mockito.verify(dao, Mockito.times(2)).find(FooEntity.class, 1L);
+		Assertions.assertThat(service.getCache().size()).isZero();
+	}
+
+	@Test
+	public void test_find_with_single_flight_in_read_only_transaction() {
+		service.setSingleFlight(new SingleFlight<Long, FooEntity>());
+		Mockito.when(dao.find(FooEntity.class, 1L)).thenReturn(new FooEntity());
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			Assertions.assertThat(service.get(1L)).isNotNull();
+		}
+		finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+
+		Mockito.verify(dao).find(FooEntity.class, 1L);
+		Assertions.assertThat(service.getSingleFlight().getLoadCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void test_delete_should_invalidate_cache() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.MINUTES);
+		service.setCache(cache);
+
+		FooEntity foo = new FooEntity();
+		foo.setId(1L);
+		cache.put(1L, foo);
+
+		service.delete(foo);
+
+		Assertions.assertThat(cache.get(1L)).isNull();
+	}
+
+	@Test
+	public void test_saveAll_should_invalidate_cache() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.MINUTES);
+		service.setCache(cache);
+
+		FooEntity foo = new FooEntity();
+		foo.setId(1L);
+		cache.put(1L, foo);
+
+		service.saveAll(Collections.singletonList(foo));
+
+		Assertions.assertThat(cache.size()).isZero();
+	}
+
 	private static class Service extends AbstractServices<Long, FooEntity> {
 
 	}
 
 	private static class FooEntity extends AbstractEntity<Long> {
 
+		public void setId(Long id) {
+			this.id = id;
+		}
 	}
 }
@@ -0,0 +1,122 @@
+package com.mjeanroy.springhub.services;
+
+import static java.util.Collections.singletonMap;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mjeanroy.springhub.dao.GenericDao;
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooDao;
+import com.mjeanroy.springhub.utils.FooEntity;
+import com.mjeanroy.springhub.utils.FooService;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+public class EntityCacheInvalidationTest {
+
+	@Autowired
+	private FooService fooService;
+
+	@Autowired
+	private FooDao fooDao;
+
+	@Autowired
+	private GenericDao genericDao;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private EntityCache<Long, FooEntity> cache;
+
+	private TransactionTemplate readWrite;
+
+	private TransactionTemplate readOnly;
+
+	@Before
+	public void setUp() {
+		cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.MINUTES);
+		fooService.setCache(cache);
+
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		assertThat(get(1L).getName()).isEqualTo("foo");
+		assertThat(cache.size()).isEqualTo(1L);
+	}
+
+	@After
+	public void tearDown() {
+		fooService.setCache(null);
+		jdbcTemplate.update("UPDATE foo SET name = 'foo' WHERE id = 1");
+	}
+
+	@Test
+	public void it_should_invalidate_entity_updated_by_dirty_checking() {
+		readWrite.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				genericDao.find(FooEntity.class, 1L).setName("foo_updated");
+			}
+		});
+
+		assertThat(cache.size()).isZero();
+		assertThat(get(1L).getName()).isEqualTo("foo_updated");
+	}
+
+	@Test
+	public void it_should_invalidate_merged_entity() {
+		final FooEntity foo = get(1L);
+		foo.setName("foo_merged");
+
+		readWrite.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				fooDao.merge(foo);
+			}
+		});
+
+		assertThat(get(1L).getName()).isEqualTo("foo_merged");
+	}
+
+	@Test
+	public void it_should_invalidate_entities_updated_by_bulk_statement() {
+		readWrite.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				fooDao.bulkUpdate(singletonMap("name", "foo_bulk"), null);
+			}
+		});
+
+		assertThat(cache.size()).isZero();
+		assertThat(get(1L).getName()).isEqualTo("foo_bulk");
+		jdbcTemplate.update("UPDATE foo SET name = 'bar' WHERE id = 2");
+	}
+
+	private FooEntity get(final Long id) {
+		return readOnly.execute(new TransactionCallback<FooEntity>() {
+			@Override
+			public FooEntity doInTransaction(TransactionStatus status) {
+				return fooService.get(id);
+			}
+		});
+	}
+}
@@ -0,0 +1,140 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mjeanroy.springhub.models.entities.identity.AbstractEntity;
+
+public class EntityCacheTest {
+
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void it_should_return_copies_of_cached_entity() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		FooEntity foo = new FooEntity(1L, "foo");
+
+		cache.put(1L, foo);
+		foo.name = "bar";
+
+		FooEntity first = cache.get(1L);
+		FooEntity second = cache.get(1L);
+
+		assertThat(first).isNotSameAs(foo).isNotSameAs(second);
+		assertThat(first.name).isEqualTo("foo");
+		assertThat(second.name).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_compute_hit_ratio() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		cache.put(1L, new FooEntity(1L, "foo"));
+
+		assertThat(cache.get(1L)).isNotNull();
+		assertThat(cache.get(2L)).isNull();
+
+		assertThat(cache.getHitRatio()).isEqualTo(0.5);
+		assertThat(cache.getStats().hitCount()).isEqualTo(1L);
+		assertThat(cache.getStats().missCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void it_should_evict_entities_when_cache_is_full() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(2, 0, TimeUnit.SECONDS);
+		cache.put(1L, new FooEntity(1L, "foo"));
+		cache.put(2L, new FooEntity(2L, "bar"));
+		cache.put(3L, new FooEntity(3L, "quix"));
+
+		assertThat(cache.size()).isEqualTo(2L);
+	}
+
+	@Test
+	public void it_should_invalidate_entity_when_transaction_completes() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		cache.put(1L, new FooEntity(1L, "foo"));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.invalidate(1L);
+		assertThat(cache.get(1L)).isNull();
+
+		// Concurrent transaction loads entity before commit
+		cache.put(1L, new FooEntity(1L, "foo"));
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+
+		assertThat(cache.get(1L)).isNull();
+	}
+
+	@Test
+	public void it_should_discard_snapshot_loaded_before_invalidation() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+
+		// Reader reads stamp and loads entity before a concurrent transaction commits
+		long stamp = cache.stamp(1L);
+		FooEntity stale = new FooEntity(1L, "foo");
+
+		// Writer commits and invalidates entity before reader puts its snapshot
+		cache.invalidate(1L);
+
+		assertThat(cache.put(1L, stale, stamp)).isFalse();
+		assertThat(cache.get(1L)).isNull();
+
+		assertThat(cache.put(1L, new FooEntity(1L, "bar"), cache.stamp(1L))).isTrue();
+		assertThat(cache.get(1L).name).isEqualTo("bar");
+	}
+
+	@Test
+	public void it_should_discard_snapshot_loaded_before_invalidation_of_all_entities() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		long stamp = cache.stamp(1L);
+
+		cache.invalidateAll();
+
+		assertThat(cache.put(1L, new FooEntity(1L, "foo"), stamp)).isFalse();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void it_should_keep_stamps_of_other_entities() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		long stamp = cache.stamp(1L);
+
+		cache.invalidate(2L);
+
+		assertThat(cache.put(1L, new FooEntity(1L, "foo"), stamp)).isTrue();
+	}
+
+	@Test
+	public void it_should_invalidate_all_entities() {
+		EntityCache<Long, FooEntity> cache = new EntityCache<Long, FooEntity>(10, 0, TimeUnit.SECONDS);
+		cache.put(1L, new FooEntity(1L, "foo"));
+		cache.put(2L, new FooEntity(2L, "bar"));
+
+		cache.invalidateAll();
+
+		assertThat(cache.size()).isZero();
+	}
+
+	private static class FooEntity extends AbstractEntity<Long> {
+
+		private String name;
+
+		public FooEntity(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+}
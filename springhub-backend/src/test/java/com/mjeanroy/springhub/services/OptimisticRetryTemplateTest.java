@@ -0,0 +1,166 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceContext;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.StaleObjectStateException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+
+import com.mjeanroy.springhub.utils.BarEntity;
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+public class OptimisticRetryTemplateTest {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private OptimisticRetryTemplate template;
+
+	@Before
+	public void setUp() {
+		jdbcTemplate.update("INSERT INTO bar(id, version, name) VALUES(1000, 0, 'bar')");
+		template = new OptimisticRetryTemplate(transactionManager);
+		template.setBackoff(1, 5, TimeUnit.MILLISECONDS);
+	}
+
+	@After
+	public void tearDown() {
+		jdbcTemplate.update("DELETE FROM bar WHERE id = 1000");
+	}
+
+	@Test
+	public void it_should_retry_unit_of_work_on_conflict() {
+		final AtomicInteger attempts = new AtomicInteger(0);
+
+		String name = template.execute(new TransactionCallback<String>() {
+			@Override
+			public String doInTransaction(TransactionStatus status) {
+				BarEntity bar = entityManager.find(BarEntity.class, 1000L);
+				if (attempts.incrementAndGet() == 1) {
+					// Concurrent update, committed before current transaction (in another thread, so that
+					// current transaction connection is not used)
+					concurrentUpdate();
+				}
+
+				bar.setName(bar.getName() + "-updated");
+				return bar.getName();
+			}
+		});
+
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(name).isEqualTo("concurrent-updated");
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM bar WHERE id = 1000", String.class)).isEqualTo("concurrent-updated");
+		assertThat(template.getConflictCount(BarEntity.class)).isEqualTo(1L);
+		assertThat(template.getRetryCount()).isEqualTo(1L);
+		assertThat(template.getFailureCount()).isZero();
+	}
+
+	private void concurrentUpdate() {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				jdbcTemplate.update("UPDATE bar SET version = version + 1, name = 'concurrent' WHERE id = 1000");
+			}
+		});
+
+		thread.start();
+		try {
+			thread.join(5000);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void it_should_stop_after_last_attempt() {
+		template.setMaxAttempts(2);
+		final AtomicInteger attempts = new AtomicInteger(0);
+
+		try {
+			template.execute(new TransactionCallback<Void>() {
+				@Override
+				public Void doInTransaction(TransactionStatus status) {
+					attempts.incrementAndGet();
+					throw new ObjectOptimisticLockingFailureException(BarEntity.class, 1000L);
+				}
+			});
+
+			fail("Unit of work should fail");
+		}
+		catch (ObjectOptimisticLockingFailureException ex) {
+			assertThat(attempts.get()).isEqualTo(2);
+			assertThat(template.getConflictCount(BarEntity.class)).isEqualTo(2L);
+			assertThat(template.getRetryCount()).isEqualTo(1L);
+			assertThat(template.getFailureCount()).isEqualTo(1L);
+		}
+	}
+
+	@Test
+	public void it_should_not_retry_other_errors() {
+		final AtomicInteger attempts = new AtomicInteger(0);
+
+		try {
+			template.execute(new TransactionCallback<Void>() {
+				@Override
+				public Void doInTransaction(TransactionStatus status) {
+					attempts.incrementAndGet();
+					throw new IllegalStateException("fail");
+				}
+			});
+
+			fail("Unit of work should fail");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(attempts.get()).isEqualTo(1);
+			assertThat(template.getConflicts()).isEmpty();
+		}
+	}
+
+	@Test
+	public void it_should_get_entity_name_of_conflict() {
+		BarEntity bar = new BarEntity("bar");
+
+		assertThat(OptimisticRetryTemplate.entityName(new OptimisticLockException("conflict", null, bar))).isEqualTo(BarEntity.class.getName());
+		assertThat(OptimisticRetryTemplate.entityName(new RuntimeException(new StaleObjectStateException("Bar", 1L)))).isEqualTo("Bar");
+		assertThat(OptimisticRetryTemplate.entityName(new OptimisticLockException())).isEqualTo(OptimisticRetryTemplate.UNKNOWN_ENTITY);
+		assertThat(OptimisticRetryTemplate.isConflict(new RuntimeException(new OptimisticLockException()))).isTrue();
+		assertThat(OptimisticRetryTemplate.isConflict(new RuntimeException())).isFalse();
+	}
+
+	@Test
+	public void it_should_compute_jittered_exponential_backoff() {
+		template.setBackoff(10, 100, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(template.backoff(1)).isGreaterThanOrEqualTo(5L).isLessThanOrEqualTo(10L);
+			assertThat(template.backoff(3)).isGreaterThanOrEqualTo(20L).isLessThanOrEqualTo(40L);
+			assertThat(template.backoff(10)).isGreaterThanOrEqualTo(50L).isLessThanOrEqualTo(100L);
+		}
+	}
+}
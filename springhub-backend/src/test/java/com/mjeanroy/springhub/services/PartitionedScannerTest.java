@@ -0,0 +1,174 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mjeanroy.springhub.dao.IdRange;
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooDao;
+import com.mjeanroy.springhub.utils.FooEntity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+public class PartitionedScannerTest {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FooDao fooDao;
+
+	private PartitionedScanner scanner;
+
+	@Before
+	public void setUp() {
+		for (int i = 0; i < 20; i++) {
+			jdbcTemplate.update("INSERT INTO foo(name) VALUES(?)", "scan" + i);
+		}
+		scanner = new PartitionedScanner(transactionManager, 4);
+	}
+
+	@After
+	public void tearDown() {
+		scanner.shutdown();
+		jdbcTemplate.update("DELETE FROM foo WHERE name LIKE 'scan%'");
+	}
+
+	@Test
+	public void it_should_scan_all_entities_in_parallel() {
+		final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		final Set<Boolean> readOnly = Collections.newSetFromMap(new ConcurrentHashMap<Boolean, Boolean>());
+
+		List<Long> ids = scanner.scan(fooDao, 8, new PartitionProcessor<FooEntity, List<Long>>() {
+			@Override
+			public List<Long> process(IdRange range, Iterator<FooEntity> entities) {
+				threads.add(Thread.currentThread().getName());
+				readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+
+				List<Long> ids = new ArrayList<Long>();
+				while (entities.hasNext()) {
+					FooEntity foo = entities.next();
+					assertThat(foo.getId()).isGreaterThanOrEqualTo(range.getMin()).isLessThanOrEqualTo(range.getMax());
+					ids.add(foo.getId());
+				}
+				return ids;
+			}
+		}, new ResultCombiner<List<Long>>() {
+			@Override
+			public List<Long> combine(List<Long> left, List<Long> right) {
+				left.addAll(right);
+				return left;
+			}
+		});
+
+		List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM foo ORDER BY id", Long.class);
+		assertThat(ids).isEqualTo(expected);
+		assertThat(readOnly).containsOnly(true);
+		assertThat(threads).isNotEmpty();
+		for (String thread : threads) {
+			assertThat(thread).startsWith("springhub-scan-");
+		}
+	}
+
+	@Test
+	public void it_should_read_partitions_concurrently() {
+		final long sleep = 200;
+		PartitionProcessor<FooEntity, Integer> processor = new PartitionProcessor<FooEntity, Integer>() {
+			@Override
+			public Integer process(IdRange range, Iterator<FooEntity> entities) {
+				Uninterruptibles.sleepUninterruptibly(sleep, TimeUnit.MILLISECONDS);
+				return 1;
+			}
+		};
+
+		long start = System.nanoTime();
+		Integer partitions = scanner.scan(fooDao, 4, processor, sum());
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// Partitions are read at the same time: scan does not last as long as the sum of partitions
+		assertThat(partitions).isEqualTo(4);
+		assertThat(elapsed).isLessThan(4 * sleep);
+	}
+
+	@Test
+	public void it_should_fail_as_soon_as_a_partition_fails() {
+		final long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM foo", Long.class);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		long start = System.nanoTime();
+		try {
+			scanner.scan(fooDao, 4, new PartitionProcessor<FooEntity, Integer>() {
+				@Override
+				public Integer process(IdRange range, Iterator<FooEntity> entities) {
+					// First partition is slow, next ones fail
+					if (range.getMin() == minId) {
+						Uninterruptibles.awaitUninterruptibly(release, 10, TimeUnit.SECONDS);
+						return 0;
+					}
+					throw new UnsupportedOperationException("fail");
+				}
+			}, sum());
+
+			fail("Scan should fail");
+		}
+		catch (UnsupportedOperationException ex) {
+			assertThat(ex.getMessage()).isEqualTo("fail");
+		}
+		finally {
+			release.countDown();
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertThat(elapsed).isLessThan(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	@Test
+	public void it_should_rethrow_partition_failure() {
+		try {
+			scanner.scan(fooDao, new PartitionProcessor<FooEntity, Integer>() {
+				@Override
+				public Integer process(IdRange range, Iterator<FooEntity> entities) {
+					throw new UnsupportedOperationException("fail");
+				}
+			}, sum());
+
+			fail("Scan should fail");
+		}
+		catch (UnsupportedOperationException ex) {
+			assertThat(ex.getMessage()).isEqualTo("fail");
+		}
+	}
+
+	private static ResultCombiner<Integer> sum() {
+		return new ResultCombiner<Integer>() {
+			@Override
+			public Integer combine(Integer left, Integer right) {
+				return left + right;
+			}
+		};
+	}
+}
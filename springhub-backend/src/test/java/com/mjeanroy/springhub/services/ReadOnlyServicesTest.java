@@ -0,0 +1,94 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mjeanroy.springhub.dao.GenericDao;
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooEntity;
+import com.mjeanroy.springhub.utils.FooService;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+public class ReadOnlyServicesTest {
+
+	@Autowired
+	private FooService fooService;
+
+	@Autowired
+	private GenericDao genericDao;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private TransactionTemplate template;
+
+	@Before
+	public void setUp() {
+		template = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	public void it_should_get_read_only_entity_in_read_only_transaction() {
+		template.setReadOnly(true);
+
+		boolean readOnly = template.execute(new TransactionCallback<Boolean>() {
+			@Override
+			public Boolean doInTransaction(TransactionStatus status) {
+				FooEntity foo = fooService.get(1L);
+				return entityManager.unwrap(Session.class).isReadOnly(foo);
+			}
+		});
+
+		assertThat(readOnly).isTrue();
+	}
+
+	@Test
+	public void it_should_get_read_only_entity_in_read_only_mode() {
+		boolean readOnly = template.execute(new TransactionCallback<Boolean>() {
+			@Override
+			public Boolean doInTransaction(TransactionStatus status) {
+				genericDao.setReadOnly(true);
+				try {
+					FooEntity foo = fooService.get(1L);
+					return entityManager.unwrap(Session.class).isReadOnly(foo);
+				}
+				finally {
+					genericDao.setReadOnly(false);
+				}
+			}
+		});
+
+		assertThat(readOnly).isTrue();
+	}
+
+	@Test
+	public void it_should_get_writable_entity_in_read_write_transaction() {
+		boolean readOnly = template.execute(new TransactionCallback<Boolean>() {
+			@Override
+			public Boolean doInTransaction(TransactionStatus status) {
+				FooEntity foo = fooService.get(1L);
+				return entityManager.unwrap(Session.class).isReadOnly(foo);
+			}
+		});
+
+		assertThat(readOnly).isFalse();
+	}
+}
@@ -0,0 +1,121 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mjeanroy.springhub.utils.DaoTestConfiguration;
+import com.mjeanroy.springhub.utils.FooEntity;
+import com.mjeanroy.springhub.utils.FooService;
+
+/**
+ * Contention benchmark: many threads look up the same entity at the same time
+ * through {@link AbstractServices#get(java.io.Serializable)}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = DaoTestConfiguration.class)
+public class SingleFlightContentionTest {
+
+	private static final int THREADS = 32;
+
+	private static final int LOOKUPS = 50;
+
+	@Autowired
+	private FooService fooService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private ExecutorService executor;
+
+	private Statistics statistics;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(THREADS);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		statistics.setStatisticsEnabled(false);
+		fooService.setSingleFlight(null);
+	}
+
+	@Test
+	public void it_should_share_loads_of_contended_entity() throws Exception {
+		fooService.setSingleFlight(null);
+		statistics.clear();
+		run();
+		long uncoalescedLoads = statistics.getEntityLoadCount();
+
+		SingleFlight<Long, FooEntity> singleFlight = new SingleFlight<Long, FooEntity>();
+		fooService.setSingleFlight(singleFlight);
+		statistics.clear();
+		run();
+		long coalescedLoads = statistics.getEntityLoadCount();
+
+		// Without coalescing, each lookup loads entity
+		assertThat(uncoalescedLoads).isEqualTo((long) THREADS * LOOKUPS);
+
+		assertThat(singleFlight.getLoadCount() + singleFlight.getCoalescedCount()).isEqualTo((long) THREADS * LOOKUPS);
+		assertThat(coalescedLoads).isEqualTo(singleFlight.getLoadCount()).isLessThan(uncoalescedLoads);
+	}
+
+	private void run() throws Exception {
+		final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					start.await();
+					for (int j = 0; j < LOOKUPS; j++) {
+						readOnly.execute(new TransactionCallback<FooEntity>() {
+							@Override
+							public FooEntity doInTransaction(TransactionStatus status) {
+								return fooService.get(1L);
+							}
+						});
+					}
+					return null;
+				}
+			}));
+		}
+
+		start.countDown();
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+	}
+}
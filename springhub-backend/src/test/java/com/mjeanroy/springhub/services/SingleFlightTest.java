@@ -0,0 +1,131 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.mjeanroy.springhub.models.entities.identity.AbstractEntity;
+
+public class SingleFlightTest {
+
+	@Test
+	public void it_should_run_loader() {
+		SingleFlight<Long, FooEntity> singleFlight = new SingleFlight<Long, FooEntity>();
+		final FooEntity foo = new FooEntity();
+
+		FooEntity result = singleFlight.execute(1L, new Callable<FooEntity>() {
+			@Override
+			public FooEntity call() {
+				return foo;
+			}
+		});
+
+		assertThat(result).isSameAs(foo);
+		assertThat(singleFlight.getLoadCount()).isEqualTo(1L);
+		assertThat(singleFlight.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	public void it_should_coalesce_concurrent_loads() throws Exception {
+		final int threads = 8;
+		final SingleFlight<Long, FooEntity> singleFlight = new SingleFlight<Long, FooEntity>();
+		final AtomicInteger calls = new AtomicInteger(0);
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final Callable<FooEntity> loader = new Callable<FooEntity>() {
+			@Override
+			public FooEntity call() throws Exception {
+				calls.incrementAndGet();
+				started.countDown();
+
+				// Wait for all other threads to join the load in progress
+				long timeout = System.currentTimeMillis() + 5000;
+				while (singleFlight.getCoalescedCount() < threads - 1 && System.currentTimeMillis() < timeout) {
+					Thread.sleep(5);
+				}
+
+				return new FooEntity();
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<FooEntity>> futures = new ArrayList<Future<FooEntity>>();
+			futures.add(executor.submit(task(singleFlight, loader)));
+			started.await(5, TimeUnit.SECONDS);
+
+			for (int i = 1; i < threads; i++) {
+				futures.add(executor.submit(task(singleFlight, loader)));
+			}
+
+			List<FooEntity> results = new ArrayList<FooEntity>();
+			for (Future<FooEntity> future : futures) {
+				FooEntity result = future.get(5, TimeUnit.SECONDS);
+				assertThat(result).isNotNull();
+				for (FooEntity other : results) {
+					assertThat(result).isNotSameAs(other);
+				}
+				results.add(result);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(calls.get()).isEqualTo(1);
+		assertThat(singleFlight.getLoadCount()).isEqualTo(1L);
+		assertThat(singleFlight.getCoalescedCount()).isEqualTo(threads - 1L);
+	}
+
+	@Test
+	public void it_should_throw_loader_exception() {
+		SingleFlight<Long, FooEntity> singleFlight = new SingleFlight<Long, FooEntity>();
+		Callable<FooEntity> loader = new Callable<FooEntity>() {
+			@Override
+			public FooEntity call() {
+				throw new IllegalStateException("fail");
+			}
+		};
+
+		try {
+			singleFlight.execute(1L, loader);
+			fail("Exception should have been thrown");
+		}
+		catch (IllegalStateException ex) {
+			assertThat(ex.getMessage()).isEqualTo("fail");
+		}
+
+		// Failed load should not be kept
+		final FooEntity foo = new FooEntity();
+		FooEntity result = singleFlight.execute(1L, new Callable<FooEntity>() {
+			@Override
+			public FooEntity call() {
+				return foo;
+			}
+		});
+		assertThat(result).isSameAs(foo);
+	}
+
+	private static Callable<FooEntity> task(final SingleFlight<Long, FooEntity> singleFlight, final Callable<FooEntity> loader) {
+		return new Callable<FooEntity>() {
+			@Override
+			public FooEntity call() {
+				return singleFlight.execute(1L, loader);
+			}
+		};
+	}
+
+	private static class FooEntity extends AbstractEntity<Long> {
+	}
+}
@@ -0,0 +1,146 @@
+package com.mjeanroy.springhub.services;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.MDC;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionalExecutorTest {
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private TransactionStatus transactionStatus;
+
+	private TransactionalExecutor executor;
+
+	@Before
+	public void setUp() {
+		Mockito.when(transactionManager.getTransaction(Mockito.any(TransactionDefinition.class))).thenReturn(transactionStatus);
+		executor = new TransactionalExecutor(transactionManager, 2, 50, TimeUnit.MILLISECONDS);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+		MDC.clear();
+	}
+
+	@Test
+	public void it_should_run_call_in_new_read_only_transaction() throws Exception {
+		ListenableFuture<String> future = executor.submitReadOnly(new Callable<String>() {
+			@Override
+			public String call() {
+				return "foo";
+			}
+		});
+
+		assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("foo");
+
+		ArgumentCaptor<TransactionDefinition> captor = ArgumentCaptor.forClass(TransactionDefinition.class);
+		Mockito.verify(transactionManager).getTransaction(captor.capture());
+		Mockito.verify(transactionManager).commit(transactionStatus);
+		assertThat(captor.getValue().getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		assertThat(captor.getValue().isReadOnly()).isTrue();
+	}
+
+	@Test
+	public void it_should_rollback_transaction_if_call_fails() throws Exception {
+		ListenableFuture<String> future = executor.submit(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				throw new Exception("fail");
+			}
+		});
+
+		try {
+			future.get(1, TimeUnit.SECONDS);
+			fail("Exception should have been thrown");
+		}
+		catch (ExecutionException ex) {
+			assertThat(ex.getCause()).isInstanceOf(Exception.class).hasMessage("fail");
+		}
+
+		Mockito.verify(transactionManager).rollback(transactionStatus);
+		Mockito.verify(transactionManager, Mockito.never()).commit(transactionStatus);
+	}
+
+	@Test
+	public void it_should_propagate_logging_context() throws Exception {
+		MDC.put("request", "42");
+
+		ListenableFuture<String> future = executor.submit(new Callable<String>() {
+			@Override
+			public String call() {
+				return MDC.get("request");
+			}
+		});
+
+		assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("42");
+	}
+
+	@Test
+	public void it_should_reject_calls_when_limit_is_reached() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		Callable<Boolean> blocking = new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return latch.await(5, TimeUnit.SECONDS);
+			}
+		};
+
+		ListenableFuture<Boolean> first = executor.submit(blocking);
+		ListenableFuture<Boolean> second = executor.submit(blocking);
+		assertThat(executor.getPendingCount()).isEqualTo(2);
+
+		try {
+			executor.submit(blocking);
+			fail("Call should have been rejected");
+		}
+		catch (RejectedExecutionException ex) {
+			// Expected
+		}
+
+		latch.countDown();
+		assertThat(first.get(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(second.get(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void it_should_run_service_calls_concurrently() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		Callable<Boolean> call = new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				latch.countDown();
+				return latch.await(5, TimeUnit.SECONDS);
+			}
+		};
+
+		ListenableFuture<Boolean> first = executor.submitReadOnly(call);
+		ListenableFuture<Boolean> second = executor.submitReadOnly(call);
+
+		assertThat(first.get(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(second.get(1, TimeUnit.SECONDS)).isTrue();
+	}
+}
@@ -0,0 +1,34 @@
+package com.mjeanroy.springhub.utils;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import com.mjeanroy.springhub.models.entities.sequence.AbstractVersionedEntity;
+import com.mjeanroy.springhub.models.entities.sequence.Sequence;
+
+@Entity
+@Cacheable
+@Table(name = "bar")
+@Sequence(allocationSize = 5)
+public class BarEntity extends AbstractVersionedEntity<Long> {
+
+	@Column(name = "name", nullable = false)
+	private String name;
+
+	public BarEntity() {
+	}
+
+	public BarEntity(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,33 @@
+package com.mjeanroy.springhub.utils;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import com.mjeanroy.springhub.models.entities.identity.AbstractEntity;
+
+@Entity
+@Table(name = "baz")
+public class BazEntity extends AbstractEntity<Long> {
+
+	@Column(name = "name", nullable = false)
+	private String name;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "foo_id", nullable = false)
+	private FooEntity foo;
+
+	public BazEntity() {
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public FooEntity getFoo() {
+		return foo;
+	}
+}
@@ -15,6 +15,8 @@ import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.mjeanroy.springhub.dao.GenericDao;
+
 @Configuration
 @EnableTransactionManagement
 @ComponentScan(basePackageClasses = FooDao.class)
@@ -52,6 +54,11 @@ public class DaoTestConfiguration {
 		return txManager;
 	}
 
+	@Bean
+	public GenericDao genericDao() {
+		return new GenericDao();
+	}
+
 	@Bean
 	public JdbcTemplate jdbcTemplate() {
 		return new JdbcTemplate(dataSource());
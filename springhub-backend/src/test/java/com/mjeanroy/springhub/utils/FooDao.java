@@ -6,10 +6,21 @@ import javax.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
 
 import com.mjeanroy.springhub.dao.AbstractGenericDao;
+import com.mjeanroy.springhub.dao.QueryDefinition;
+import com.mjeanroy.springhub.dao.QueryParam;
+import com.mjeanroy.springhub.dao.QueryRegistry;
 
 @Repository
 public class FooDao extends AbstractGenericDao<Long, FooEntity> {
 
+	public static final QueryParam<String> NAME = QueryParam.of("name", String.class);
+
+	public static final QueryDefinition FIND_BY_NAME = QueryDefinition.of("findByName",
+			"SELECT foo FROM FooEntity foo WHERE foo.name = :name", NAME);
+
+	public static final QueryDefinition COUNT_BY_NAME = QueryDefinition.of("countByName",
+			"SELECT COUNT(foo) FROM FooEntity foo WHERE foo.name = :name", NAME);
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
@@ -17,4 +28,10 @@ public class FooDao extends AbstractGenericDao<Long, FooEntity> {
 	protected EntityManager entityManager() {
 		return entityManager;
 	}
+
+	@Override
+	protected void declareQueries(QueryRegistry registry) {
+		registry.register(FIND_BY_NAME);
+		registry.register(COUNT_BY_NAME);
+	}
 }
@@ -2,17 +2,25 @@ package com.mjeanroy.springhub.utils;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import java.util.List;
 
 import com.mjeanroy.springhub.models.entities.identity.AbstractEntity;
 
 @Entity
 @Table(name = "foo")
+@NamedEntityGraph(name = "foo.bazs", attributeNodes = @NamedAttributeNode("bazs"))
 public class FooEntity extends AbstractEntity<Long> {
 
 	@Column(name = "name", nullable = false)
 	private String name;
 
+	@OneToMany(mappedBy = "foo")
+	private List<BazEntity> bazs;
+
 	public FooEntity() {
 	}
 
@@ -20,6 +28,10 @@ public class FooEntity extends AbstractEntity<Long> {
 		return name;
 	}
 
+	public List<BazEntity> getBazs() {
+		return bazs;
+	}
+
 	public void setId(Long id) {
 		this.id = id;
 	}
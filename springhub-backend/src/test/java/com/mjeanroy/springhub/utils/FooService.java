@@ -0,0 +1,9 @@
+package com.mjeanroy.springhub.utils;
+
+import org.springframework.stereotype.Service;
+
+import com.mjeanroy.springhub.services.AbstractServices;
+
+@Service
+public class FooService extends AbstractServices<Long, FooEntity> {
+}
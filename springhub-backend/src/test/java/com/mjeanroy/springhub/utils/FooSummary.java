@@ -0,0 +1,32 @@
+package com.mjeanroy.springhub.utils;
+
+public class FooSummary {
+
+	private Long id;
+
+	private String name;
+
+	public FooSummary() {
+	}
+
+	public FooSummary(Long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -9,3 +9,28 @@ CREATE TABLE foo (
 
 INSERT INTO foo(name) VALUES('foo');
 INSERT INTO foo(name) VALUES('bar');
+
+--
+-- Create bar table (entity using a sequence) to use in unit tests.
+--
+
+CREATE SEQUENCE bar_seq START WITH 1 INCREMENT BY 5;
+
+CREATE TABLE bar (
+  id BIGINT NOT NULL PRIMARY KEY,
+  version INT NOT NULL,
+  name VARCHAR(50) NOT NULL
+);
+
+--
+-- Create baz table (entity associated to foo) to use in unit tests.
+--
+
+CREATE TABLE baz (
+  id BIGINT auto_increment NOT NULL,
+  foo_id BIGINT NOT NULL,
+  name VARCHAR(50) NOT NULL
+);
+
+INSERT INTO baz(foo_id, name) VALUES(1, 'baz1');
+INSERT INTO baz(foo_id, name) VALUES(1, 'baz2');
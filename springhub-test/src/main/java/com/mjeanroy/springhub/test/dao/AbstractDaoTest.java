@@ -1,9 +1,12 @@
 package com.mjeanroy.springhub.test.dao;
 
+import com.mjeanroy.springhub.monitoring.NPlusOneDetector;
+import com.mjeanroy.springhub.monitoring.QueryReport;
 import com.mjeanroy.springhub.test.db.AbstractDatabaseTest;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +22,13 @@ public abstract class AbstractDaoTest extends AbstractDatabaseTest {
 	@PersistenceContext
 	private EntityManager entityManager;
 
+	/**
+	 * N+1 queries detector, available if test configuration declares it
+	 * (and a monitored data source).
+	 */
+	@Autowired(required = false)
+	private NPlusOneDetector detector;
+
 	@AfterClass
 	public static void afterClass() throws Exception {
 		stopHsqlDb();
@@ -61,4 +71,29 @@ public abstract class AbstractDaoTest extends AbstractDatabaseTest {
 		PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
 		return unitUtil.isLoaded(entity);
 	}
+
+	/**
+	 * Start counting statements executed by current thread.
+	 * Statements are counted until {@link #stopQueryCount()} is called.
+	 */
+	protected void startQueryCount() {
+		detector().begin();
+	}
+
+	/**
+	 * Stop counting statements.
+	 * Use {@link com.mjeanroy.springhub.test.utils.QueryReportAssert} to check result.
+	 *
+	 * @return Statements executed since {@link #startQueryCount()}.
+	 */
+	protected QueryReport stopQueryCount() {
+		return detector().end();
+	}
+
+	private NPlusOneDetector detector() {
+		if (detector == null) {
+			throw new IllegalStateException("Query count needs a NPlusOneDetector bean in test configuration");
+		}
+		return detector;
+	}
 }
@@ -0,0 +1,48 @@
+package com.mjeanroy.springhub.test.utils;
+
+import com.mjeanroy.springhub.monitoring.QueryReport;
+import org.fest.assertions.api.AbstractAssert;
+import org.fest.assertions.api.Fail;
+
+/**
+ * Assertions on statements executed in a {@link com.mjeanroy.springhub.monitoring.NPlusOneDetector} scope.
+ * Failure messages contain executed statements, grouped by shape.
+ */
+public class QueryReportAssert extends AbstractAssert<QueryReportAssert, QueryReport> {
+
+	public QueryReportAssert(QueryReport actual) {
+		super(actual, QueryReportAssert.class);
+	}
+
+	public static QueryReportAssert assertThat(QueryReport actual) {
+		return new QueryReportAssert(actual);
+	}
+
+	/**
+	 * Check that at most given number of statements have been executed.
+	 *
+	 * @param max Maximum number of statements.
+	 * @return Current assertion.
+	 */
+	public QueryReportAssert hasAtMostStatements(int max) {
+		isNotNull();
+		if (actual.getStatementCount() > max) {
+			Fail.fail(String.format("Expected at most <%s> statement(s) but was <%s>", max, actual));
+		}
+		return this;
+	}
+
+	/**
+	 * Check that no statement shape has been executed more than given number of times.
+	 *
+	 * @param max Maximum number of executions of a statement shape.
+	 * @return Current assertion.
+	 */
+	public QueryReportAssert hasAtMostRepeatedStatements(int max) {
+		isNotNull();
+		if (actual.getMaxRepeatedStatements() > max) {
+			Fail.fail(String.format("Expected statements to be executed at most <%s> time(s) but was <%s>", max, actual));
+		}
+		return this;
+	}
+}
@@ -0,0 +1,41 @@
+package com.mjeanroy.springhub.test.utils;
+
+import static com.mjeanroy.springhub.test.utils.QueryReportAssert.assertThat;
+
+import com.mjeanroy.springhub.monitoring.NPlusOneDetector;
+import com.mjeanroy.springhub.monitoring.QueryMonitor;
+import com.mjeanroy.springhub.monitoring.QueryReport;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryReportAssertTest {
+
+	private QueryReport report;
+
+	@Before
+	public void setUp() {
+		NPlusOneDetector detector = new NPlusOneDetector(new QueryMonitor());
+		detector.begin();
+		detector.statementExecuted("select * from foo", 0);
+		detector.statementExecuted("select * from bar where foo_id = 1", 0);
+		detector.statementExecuted("select * from bar where foo_id = 2", 0);
+		report = detector.end();
+	}
+
+	@Test
+	public void it_should_pass_if_statements_are_below_thresholds() {
+		assertThat(report)
+				.hasAtMostStatements(3)
+				.hasAtMostRepeatedStatements(2);
+	}
+
+	@Test(expected = AssertionError.class)
+	public void it_should_fail_if_too_many_statements() {
+		assertThat(report).hasAtMostStatements(2);
+	}
+
+	@Test(expected = AssertionError.class)
+	public void it_should_fail_if_statements_are_repeated() {
+		assertThat(report).hasAtMostRepeatedStatements(1);
+	}
+}
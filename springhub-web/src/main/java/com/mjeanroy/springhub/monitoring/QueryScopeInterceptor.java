@@ -0,0 +1,38 @@
+package com.mjeanroy.springhub.monitoring;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Interceptor opening a {@link NPlusOneDetector} scope for each web request:
+ * statements executed while request is handled (including view rendering and
+ * lazy loading outside of transactions) are counted together.
+ */
+@Slf4j
+public class QueryScopeInterceptor extends HandlerInterceptorAdapter {
+
+	/** Detector. */
+	private final NPlusOneDetector detector;
+
+	public QueryScopeInterceptor(NPlusOneDetector detector) {
+		this.detector = detector;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		detector.begin();
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+		QueryReport report = detector.end();
+		if (report.getStatementCount() > 0) {
+			log.debug("{} {}: {}", request.getMethod(), request.getRequestURI(), report);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.mjeanroy.springhub.monitoring;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryScopeInterceptorTest {
+
+	@Mock
+	private HttpServletRequest request;
+
+	@Mock
+	private HttpServletResponse response;
+
+	private NPlusOneDetector detector;
+
+	private QueryScopeInterceptor interceptor;
+
+	@Before
+	public void setUp() {
+		detector = new NPlusOneDetector(new QueryMonitor());
+		interceptor = new QueryScopeInterceptor(detector);
+	}
+
+	@Test
+	public void it_should_open_scope_for_request() throws Exception {
+		boolean result = interceptor.preHandle(request, response, new Object());
+		assertThat(result).isTrue();
+
+		detector.statementExecuted("select * from foo", 0);
+		assertThat(detector.current().getStatementCount()).isEqualTo(1);
+
+		interceptor.afterCompletion(request, response, new Object(), null);
+		assertThat(detector.current()).isNull();
+	}
+}